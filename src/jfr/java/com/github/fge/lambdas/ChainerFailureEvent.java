@@ -0,0 +1,46 @@
+package com.github.fge.lambdas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a failure hidden by an alternative or a fallback
+ *
+ * <p>This event is disabled by default, including in the {@code default} and
+ * {@code profile} settings of the JDK; enable it with, for instance, {@code
+ * -XX:StartFlightRecording:settings=...} and a settings file containing an
+ * entry for {@code com.github.fge.lambdas.ChainerFailure}.</p>
+ */
+@Name("com.github.fge.lambdas.ChainerFailure")
+@Label("Chainer Failure")
+@Category("Throwing Lambdas")
+@Description("Failure of an instrumented chainer, hidden by an alternative "
+    + "or a fallback")
+@StackTrace(false)
+@Enabled(false)
+final class ChainerFailureEvent
+    extends Event
+{
+    @Label("Chainer")
+    @Description("Name of the chainer")
+    String chainer;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+
+    @Label("Policy")
+    @Description("Policy which recovered from the failure")
+    String policy;
+
+    @Label("Attempt Duration")
+    @Description("Duration of the failed attempt; zero if it was not timed, "
+        + "as for alternatives tried within an instrumented chainer")
+    @Timespan(Timespan.NANOSECONDS)
+    long attemptDuration;
+}
@@ -0,0 +1,79 @@
+package com.github.fge.lambdas;
+
+import jdk.jfr.EventType;
+
+/**
+ * Implementation of {@link FailureEvents} using JDK Flight Recorder
+ *
+ * <p>The event for a failed attempt is built when the attempt fails, but only
+ * committed when (and if) a policy recovers from this same failure. A pending
+ * event is dropped when its failure is rethrown, or when a policy recovers
+ * from another failure; in the latter case, an event without a duration is
+ * committed for the failure recovered from instead.</p>
+ */
+final class JfrFailureEvents
+    extends FailureEvents
+{
+    private static final EventType TYPE
+        = EventType.getEventType(ChainerFailureEvent.class);
+
+    private final ThreadLocal<Pending> pending = new ThreadLocal<>();
+
+    @Override
+    boolean isEnabled()
+    {
+        return TYPE.isEnabled();
+    }
+
+    @Override
+    void failed(final String name, final Throwable throwable,
+        final long duration)
+    {
+        final ChainerFailureEvent event = event(name, throwable);
+        event.attemptDuration = duration;
+        pending.set(new Pending(throwable, event));
+    }
+
+    @Override
+    void recovered(final String name, final String policy,
+        final Throwable throwable)
+    {
+        final Pending failure = pending.get();
+        final ChainerFailureEvent event;
+        if (failure == null || failure.throwable != throwable)
+            event = event(name, throwable);
+        else
+            event = failure.event;
+        pending.remove();
+        event.policy = policy;
+        event.commit();
+    }
+
+    @Override
+    void rethrown()
+    {
+        pending.remove();
+    }
+
+    private static ChainerFailureEvent event(final String name,
+        final Throwable throwable)
+    {
+        final ChainerFailureEvent event = new ChainerFailureEvent();
+        event.chainer = name;
+        event.exceptionClass = throwable.getClass();
+        return event;
+    }
+
+    private static final class Pending
+    {
+        private final Throwable throwable;
+        private final ChainerFailureEvent event;
+
+        private Pending(final Throwable throwable,
+            final ChainerFailureEvent event)
+        {
+            this.throwable = throwable;
+            this.event = event;
+        }
+    }
+}
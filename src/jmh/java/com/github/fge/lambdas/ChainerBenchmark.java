@@ -0,0 +1,85 @@
+package com.github.fge.lambdas;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Base state for chainer benchmarks
+ *
+ * <p>Each invocation of a throwing instance fails with a probability given
+ * by {@link #failureRate} (in percent), either with a checked or an unchecked
+ * exception depending on {@link #failure}. Exceptions are preallocated, so
+ * only the cost of the wrappers (if any) is measured.</p>
+ *
+ * <p>Benchmarks extending this class compare the default wrapping, {@code
+ * orThrow()}, {@code sneakyThrow()}, {@code fallbackTo()} and {@code
+ * orReturn()} (or equivalent) against a hand written try/catch block; {@link
+ * FamilyBenchmark} does so for all chainers.</p>
+ */
+@State(Scope.Thread)
+public abstract class ChainerBenchmark
+{
+    protected static final int SIZE = 1024;
+
+    private static final Exception CHECKED = new Exception();
+    private static final RuntimeException UNCHECKED = new RuntimeException();
+
+    protected static final Integer[] INPUTS = new Integer[SIZE];
+
+    static {
+        for (int i = 0; i < SIZE; i++)
+            INPUTS[i] = i;
+    }
+
+    @Param({ "0", "1", "10", "50" })
+    public int failureRate;
+
+    @Param({ "CHECKED", "UNCHECKED" })
+    public String failure;
+
+    /*
+     * Where consumers put their results
+     */
+    double sum;
+
+    private final boolean[] failures = new boolean[SIZE];
+    private Exception exception;
+    private int index;
+
+    @Setup(Level.Trial)
+    public final void setupFailures()
+    {
+        final Random random = new Random(0L);
+        for (int i = 0; i < SIZE; i++)
+            failures[i] = random.nextInt(100) < failureRate;
+        exception = "CHECKED".equals(failure) ? CHECKED : UNCHECKED;
+    }
+
+    /**
+     * Return the index of the next input
+     *
+     * @return an index between 0 and {@link #SIZE} (exclusive)
+     */
+    protected final int next()
+    {
+        return index++ & (SIZE - 1);
+    }
+
+    /**
+     * Fail if the input at the given index is configured to fail
+     *
+     * @param i the index
+     * @throws Exception the configured exception
+     */
+    protected final void check(final int i)
+        throws Exception
+    {
+        if (failures[i])
+            throw exception;
+    }
+}
@@ -0,0 +1,1361 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.comparators.ThrowingComparator;
+import com.github.fge.lambdas.consumers.ThrowingBiConsumer;
+import com.github.fge.lambdas.consumers.ThrowingConsumer;
+import com.github.fge.lambdas.consumers.ThrowingDoubleConsumer;
+import com.github.fge.lambdas.consumers.ThrowingIntConsumer;
+import com.github.fge.lambdas.consumers.ThrowingLongConsumer;
+import com.github.fge.lambdas.consumers.ThrowingObjDoubleConsumer;
+import com.github.fge.lambdas.consumers.ThrowingObjIntConsumer;
+import com.github.fge.lambdas.consumers.ThrowingObjLongConsumer;
+import com.github.fge.lambdas.functions.ThrowingBiFunction;
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import com.github.fge.lambdas.functions.ThrowingToDoubleFunction;
+import com.github.fge.lambdas.functions.ThrowingToIntFunction;
+import com.github.fge.lambdas.functions.ThrowingToLongFunction;
+import com.github.fge.lambdas.functions.doublefunctions.ThrowingDoubleFunction;
+import com.github.fge.lambdas.functions.doublefunctions.ThrowingDoubleToIntFunction;
+import com.github.fge.lambdas.functions.doublefunctions.ThrowingDoubleToLongFunction;
+import com.github.fge.lambdas.functions.intfunctions.ThrowingIntFunction;
+import com.github.fge.lambdas.functions.intfunctions.ThrowingIntToDoubleFunction;
+import com.github.fge.lambdas.functions.intfunctions.ThrowingIntToLongFunction;
+import com.github.fge.lambdas.functions.longfunctions.ThrowingLongFunction;
+import com.github.fge.lambdas.functions.longfunctions.ThrowingLongToDoubleFunction;
+import com.github.fge.lambdas.functions.longfunctions.ThrowingLongToIntFunction;
+import com.github.fge.lambdas.functions.operators.ThrowingBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingDoubleBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingDoubleUnaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingIntBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingIntUnaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingLongBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingLongUnaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingUnaryOperator;
+import com.github.fge.lambdas.predicates.ThrowingDoublePredicate;
+import com.github.fge.lambdas.predicates.ThrowingIntPredicate;
+import com.github.fge.lambdas.predicates.ThrowingLongPredicate;
+import com.github.fge.lambdas.predicates.ThrowingPredicate;
+import com.github.fge.lambdas.runnable.ThrowingRunnable;
+import com.github.fge.lambdas.supplier.ThrowingDoubleSupplier;
+import com.github.fge.lambdas.supplier.ThrowingIntSupplier;
+import com.github.fge.lambdas.supplier.ThrowingLongSupplier;
+import com.github.fge.lambdas.supplier.ThrowingSupplier;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Comparator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import static com.github.fge.lambdas.ChainerBenchmark.INPUTS;
+
+/**
+ * The chainers measured by {@link FamilyBenchmark}
+ *
+ * <p>For each family, this builds a throwing instance, a hand written try/catch
+ * equivalent and the instances returned by the policies of its chainer; the
+ * name of a family is that of the matching method in {@link Throwing}.</p>
+ */
+final class ChainerFamilies
+{
+    private ChainerFamilies()
+    {
+        throw new Error("nice try!");
+    }
+
+    static Family<?> of(final String name, final ChainerBenchmark b)
+    {
+        switch (name) {
+            case "biConsumer":
+                return biConsumer(b);
+            case "biFunction":
+                return biFunction(b);
+            case "binaryOperator":
+                return binaryOperator(b);
+            case "comparator":
+                return comparator(b);
+            case "consumer":
+                return consumer(b);
+            case "doubleBinaryOperator":
+                return doubleBinaryOperator(b);
+            case "doubleConsumer":
+                return doubleConsumer(b);
+            case "doubleFunction":
+                return doubleFunction(b);
+            case "doublePredicate":
+                return doublePredicate(b);
+            case "doubleSupplier":
+                return doubleSupplier(b);
+            case "doubleToIntFunction":
+                return doubleToIntFunction(b);
+            case "doubleToLongFunction":
+                return doubleToLongFunction(b);
+            case "doubleUnaryOperator":
+                return doubleUnaryOperator(b);
+            case "function":
+                return function(b);
+            case "intBinaryOperator":
+                return intBinaryOperator(b);
+            case "intConsumer":
+                return intConsumer(b);
+            case "intFunction":
+                return intFunction(b);
+            case "intPredicate":
+                return intPredicate(b);
+            case "intSupplier":
+                return intSupplier(b);
+            case "intToDoubleFunction":
+                return intToDoubleFunction(b);
+            case "intToLongFunction":
+                return intToLongFunction(b);
+            case "intUnaryOperator":
+                return intUnaryOperator(b);
+            case "longBinaryOperator":
+                return longBinaryOperator(b);
+            case "longConsumer":
+                return longConsumer(b);
+            case "longFunction":
+                return longFunction(b);
+            case "longPredicate":
+                return longPredicate(b);
+            case "longSupplier":
+                return longSupplier(b);
+            case "longToDoubleFunction":
+                return longToDoubleFunction(b);
+            case "longToIntFunction":
+                return longToIntFunction(b);
+            case "longUnaryOperator":
+                return longUnaryOperator(b);
+            case "objDoubleConsumer":
+                return objDoubleConsumer(b);
+            case "objIntConsumer":
+                return objIntConsumer(b);
+            case "objLongConsumer":
+                return objLongConsumer(b);
+            case "predicate":
+                return predicate(b);
+            case "runnable":
+                return runnable(b);
+            case "supplier":
+                return supplier(b);
+            case "toDoubleFunction":
+                return toDoubleFunction(b);
+            case "toIntFunction":
+                return toIntFunction(b);
+            case "toLongFunction":
+                return toLongFunction(b);
+            case "unaryOperator":
+                return unaryOperator(b);
+            default:
+                throw new IllegalArgumentException("unknown family " + name);
+        }
+    }
+
+    private static Family<BiConsumer<Integer, Integer>> biConsumer(
+        final ChainerBenchmark b)
+    {
+        final ThrowingBiConsumer<Integer, Integer> throwing = (t, u) -> {
+            b.check(t);
+            b.sum += t + u;
+        };
+        final BiConsumer<Integer, Integer> baseline = (t, u) -> {
+            try {
+                b.check(t);
+                b.sum += t + u;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.biConsumer(throwing).orThrow(IllegalStateException.class),
+            Throwing.biConsumer(throwing).sneakyThrow(),
+            Throwing.biConsumer(throwing).fallbackTo((t, u) -> {}),
+            Throwing.biConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) ->
+                consumer.accept(INPUTS[b.next()], INPUTS[1]));
+    }
+
+    private static Family<BiFunction<Integer, Integer, Integer>> biFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingBiFunction<Integer, Integer, Integer> throwing
+            = (t, u) -> {
+                b.check(t);
+                return t + u;
+            };
+        final BiFunction<Integer, Integer, Integer> baseline = (t, u) -> {
+            try {
+                b.check(t);
+                return t + u;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.biFunction(throwing).orThrow(IllegalStateException.class),
+            Throwing.biFunction(throwing).sneakyThrow(),
+            Throwing.biFunction(throwing).fallbackTo((t, u) -> -1),
+            Throwing.biFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.apply(INPUTS[b.next()], INPUTS[1])));
+    }
+
+    private static Family<BinaryOperator<Integer>> binaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingBinaryOperator<Integer> throwing = (left, right) -> {
+            b.check(left);
+            return left + right;
+        };
+        final BinaryOperator<Integer> baseline = (left, right) -> {
+            try {
+                b.check(left);
+                return left + right;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.binaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.binaryOperator(throwing).sneakyThrow(),
+            Throwing.binaryOperator(throwing).fallbackTo((left, right) -> -1),
+            Throwing.binaryOperator(throwing).orReturnLeft(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.apply(INPUTS[b.next()], INPUTS[1])));
+    }
+
+    private static Family<Comparator<Integer>> comparator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingComparator<Integer> throwing = (o1, o2) -> {
+            b.check(o1);
+            return o1.compareTo(o2);
+        };
+        final Comparator<Integer> baseline = (o1, o2) -> {
+            try {
+                b.check(o1);
+                return o1.compareTo(o2);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.comparator(throwing).orThrow(IllegalStateException.class),
+            Throwing.comparator(throwing).sneakyThrow(),
+            Throwing.comparator(throwing).fallbackTo((o1, o2) -> 0),
+            Throwing.comparator(throwing).orReturn(0),
+            (comparator, blackhole) -> blackhole.consume(
+                comparator.compare(INPUTS[b.next()], INPUTS[0])));
+    }
+
+    private static Family<Consumer<Integer>> consumer(final ChainerBenchmark b)
+    {
+        final ThrowingConsumer<Integer> throwing = t -> {
+            b.check(t);
+            b.sum += t;
+        };
+        final Consumer<Integer> baseline = t -> {
+            try {
+                b.check(t);
+                b.sum += t;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.consumer(throwing).orThrow(IllegalStateException.class),
+            Throwing.consumer(throwing).sneakyThrow(),
+            Throwing.consumer(throwing).fallbackTo(t -> {}),
+            Throwing.consumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(INPUTS[b.next()]));
+    }
+
+    private static Family<DoubleBinaryOperator> doubleBinaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleBinaryOperator throwing = (left, right) -> {
+            b.check((int) left);
+            return left + right;
+        };
+        final DoubleBinaryOperator baseline = (left, right) -> {
+            try {
+                b.check((int) left);
+                return left + right;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleBinaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleBinaryOperator(throwing).sneakyThrow(),
+            Throwing.doubleBinaryOperator(throwing)
+                .fallbackTo((left, right) -> -1.0),
+            Throwing.doubleBinaryOperator(throwing).orReturnLeft(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.applyAsDouble(b.next(), 1.0)));
+    }
+
+    private static Family<DoubleConsumer> doubleConsumer(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleConsumer throwing = value -> {
+            b.check((int) value);
+            b.sum += value;
+        };
+        final DoubleConsumer baseline = value -> {
+            try {
+                b.check((int) value);
+                b.sum += value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleConsumer(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleConsumer(throwing).sneakyThrow(),
+            Throwing.doubleConsumer(throwing).fallbackTo(value -> {}),
+            Throwing.doubleConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(b.next()));
+    }
+
+    private static Family<DoubleFunction<Integer>> doubleFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleFunction<Integer> throwing = value -> {
+            b.check((int) value);
+            return INPUTS[(int) value];
+        };
+        final DoubleFunction<Integer> baseline = value -> {
+            try {
+                b.check((int) value);
+                return INPUTS[(int) value];
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleFunction(throwing).sneakyThrow(),
+            Throwing.doubleFunction(throwing).fallbackTo(value -> -1),
+            Throwing.doubleFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.apply(b.next())));
+    }
+
+    private static Family<DoublePredicate> doublePredicate(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoublePredicate throwing = value -> {
+            b.check((int) value);
+            return true;
+        };
+        final DoublePredicate baseline = value -> {
+            try {
+                b.check((int) value);
+                return true;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doublePredicate(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doublePredicate(throwing).sneakyThrow(),
+            Throwing.doublePredicate(throwing).fallbackTo(value -> false),
+            Throwing.doublePredicate(throwing).orReturnFalse(),
+            (predicate, blackhole) -> blackhole.consume(
+                predicate.test(b.next())));
+    }
+
+    private static Family<DoubleSupplier> doubleSupplier(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleSupplier throwing = () -> {
+            final double d = b.next();
+            b.check((int) d);
+            return d;
+        };
+        final DoubleSupplier baseline = () -> {
+            try {
+                final double d = b.next();
+                b.check((int) d);
+                return d;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleSupplier(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleSupplier(throwing).sneakyThrow(),
+            Throwing.doubleSupplier(throwing).fallbackTo(() -> -1.0),
+            Throwing.doubleSupplier(throwing).orReturn(-1.0),
+            (supplier, blackhole) -> blackhole.consume(supplier.getAsDouble()));
+    }
+
+    private static Family<DoubleToIntFunction> doubleToIntFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleToIntFunction throwing = value -> {
+            b.check((int) value);
+            return (int) value;
+        };
+        final DoubleToIntFunction baseline = value -> {
+            try {
+                b.check((int) value);
+                return (int) value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleToIntFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleToIntFunction(throwing).sneakyThrow(),
+            Throwing.doubleToIntFunction(throwing).fallbackTo(value -> -1),
+            Throwing.doubleToIntFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsInt(b.next())));
+    }
+
+    private static Family<DoubleToLongFunction> doubleToLongFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleToLongFunction throwing = value -> {
+            b.check((int) value);
+            return (long) value;
+        };
+        final DoubleToLongFunction baseline = value -> {
+            try {
+                b.check((int) value);
+                return (long) value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleToLongFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleToLongFunction(throwing).sneakyThrow(),
+            Throwing.doubleToLongFunction(throwing).fallbackTo(value -> -1L),
+            Throwing.doubleToLongFunction(throwing).orReturn(-1L),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsLong(b.next())));
+    }
+
+    private static Family<DoubleUnaryOperator> doubleUnaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingDoubleUnaryOperator throwing = operand -> {
+            b.check((int) operand);
+            return operand;
+        };
+        final DoubleUnaryOperator baseline = operand -> {
+            try {
+                b.check((int) operand);
+                return operand;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.doubleUnaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.doubleUnaryOperator(throwing).sneakyThrow(),
+            Throwing.doubleUnaryOperator(throwing).fallbackTo(operand -> -1.0),
+            Throwing.doubleUnaryOperator(throwing).orReturnSelf(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.applyAsDouble(b.next())));
+    }
+
+    private static Family<Function<Integer, Integer>> function(
+        final ChainerBenchmark b)
+    {
+        final ThrowingFunction<Integer, Integer> throwing = i -> {
+            b.check(i);
+            return i;
+        };
+        final Function<Integer, Integer> baseline = i -> {
+            try {
+                b.check(i);
+                return i;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.function(throwing).orThrow(IllegalStateException.class),
+            Throwing.function(throwing).sneakyThrow(),
+            Throwing.function(throwing).fallbackTo(i -> -1),
+            Throwing.function(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.apply(INPUTS[b.next()])));
+    }
+
+    private static Family<IntBinaryOperator> intBinaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingIntBinaryOperator throwing = (left, right) -> {
+            b.check(left);
+            return left + right;
+        };
+        final IntBinaryOperator baseline = (left, right) -> {
+            try {
+                b.check(left);
+                return left + right;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intBinaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.intBinaryOperator(throwing).sneakyThrow(),
+            Throwing.intBinaryOperator(throwing)
+                .fallbackTo((left, right) -> -1),
+            Throwing.intBinaryOperator(throwing).orReturnLeft(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.applyAsInt(b.next(), 1)));
+    }
+
+    private static Family<IntConsumer> intConsumer(final ChainerBenchmark b)
+    {
+        final ThrowingIntConsumer throwing = value -> {
+            b.check(value);
+            b.sum += value;
+        };
+        final IntConsumer baseline = value -> {
+            try {
+                b.check(value);
+                b.sum += value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intConsumer(throwing).orThrow(IllegalStateException.class),
+            Throwing.intConsumer(throwing).sneakyThrow(),
+            Throwing.intConsumer(throwing).fallbackTo(value -> {}),
+            Throwing.intConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(b.next()));
+    }
+
+    private static Family<IntFunction<Integer>> intFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingIntFunction<Integer> throwing = value -> {
+            b.check(value);
+            return INPUTS[value];
+        };
+        final IntFunction<Integer> baseline = value -> {
+            try {
+                b.check(value);
+                return INPUTS[value];
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intFunction(throwing).orThrow(IllegalStateException.class),
+            Throwing.intFunction(throwing).sneakyThrow(),
+            Throwing.intFunction(throwing).fallbackTo(value -> -1),
+            Throwing.intFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.apply(b.next())));
+    }
+
+    private static Family<IntPredicate> intPredicate(final ChainerBenchmark b)
+    {
+        final ThrowingIntPredicate throwing = value -> {
+            b.check(value);
+            return true;
+        };
+        final IntPredicate baseline = value -> {
+            try {
+                b.check(value);
+                return true;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intPredicate(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.intPredicate(throwing).sneakyThrow(),
+            Throwing.intPredicate(throwing).fallbackTo(value -> false),
+            Throwing.intPredicate(throwing).orReturnFalse(),
+            (predicate, blackhole) -> blackhole.consume(
+                predicate.test(b.next())));
+    }
+
+    private static Family<IntSupplier> intSupplier(final ChainerBenchmark b)
+    {
+        final ThrowingIntSupplier throwing = () -> {
+            final int i = b.next();
+            b.check(i);
+            return i;
+        };
+        final IntSupplier baseline = () -> {
+            try {
+                final int i = b.next();
+                b.check(i);
+                return i;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intSupplier(throwing).orThrow(IllegalStateException.class),
+            Throwing.intSupplier(throwing).sneakyThrow(),
+            Throwing.intSupplier(throwing).fallbackTo(() -> -1),
+            Throwing.intSupplier(throwing).orReturn(-1),
+            (supplier, blackhole) -> blackhole.consume(supplier.getAsInt()));
+    }
+
+    private static Family<IntToDoubleFunction> intToDoubleFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingIntToDoubleFunction throwing = value -> {
+            b.check(value);
+            return (double) value;
+        };
+        final IntToDoubleFunction baseline = value -> {
+            try {
+                b.check(value);
+                return (double) value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intToDoubleFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.intToDoubleFunction(throwing).sneakyThrow(),
+            Throwing.intToDoubleFunction(throwing).fallbackTo(value -> -1.0),
+            Throwing.intToDoubleFunction(throwing).orReturn(-1.0),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsDouble(b.next())));
+    }
+
+    private static Family<IntToLongFunction> intToLongFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingIntToLongFunction throwing = value -> {
+            b.check(value);
+            return value;
+        };
+        final IntToLongFunction baseline = value -> {
+            try {
+                b.check(value);
+                return value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intToLongFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.intToLongFunction(throwing).sneakyThrow(),
+            Throwing.intToLongFunction(throwing).fallbackTo(value -> -1L),
+            Throwing.intToLongFunction(throwing).orReturn(-1L),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsLong(b.next())));
+    }
+
+    private static Family<IntUnaryOperator> intUnaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingIntUnaryOperator throwing = operand -> {
+            b.check(operand);
+            return operand;
+        };
+        final IntUnaryOperator baseline = operand -> {
+            try {
+                b.check(operand);
+                return operand;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.intUnaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.intUnaryOperator(throwing).sneakyThrow(),
+            Throwing.intUnaryOperator(throwing).fallbackTo(operand -> -1),
+            Throwing.intUnaryOperator(throwing).orReturn(-1),
+            (operator, blackhole) -> blackhole.consume(
+                operator.applyAsInt(b.next())));
+    }
+
+    private static Family<LongBinaryOperator> longBinaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingLongBinaryOperator throwing = (left, right) -> {
+            b.check((int) left);
+            return left + right;
+        };
+        final LongBinaryOperator baseline = (left, right) -> {
+            try {
+                b.check((int) left);
+                return left + right;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longBinaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longBinaryOperator(throwing).sneakyThrow(),
+            Throwing.longBinaryOperator(throwing)
+                .fallbackTo((left, right) -> -1L),
+            Throwing.longBinaryOperator(throwing).orReturnLeft(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.applyAsLong(b.next(), 1L)));
+    }
+
+    private static Family<LongConsumer> longConsumer(final ChainerBenchmark b)
+    {
+        final ThrowingLongConsumer throwing = value -> {
+            b.check((int) value);
+            b.sum += value;
+        };
+        final LongConsumer baseline = value -> {
+            try {
+                b.check((int) value);
+                b.sum += value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longConsumer(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longConsumer(throwing).sneakyThrow(),
+            Throwing.longConsumer(throwing).fallbackTo(value -> {}),
+            Throwing.longConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(b.next()));
+    }
+
+    private static Family<LongFunction<Integer>> longFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingLongFunction<Integer> throwing = value -> {
+            b.check((int) value);
+            return INPUTS[(int) value];
+        };
+        final LongFunction<Integer> baseline = value -> {
+            try {
+                b.check((int) value);
+                return INPUTS[(int) value];
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longFunction(throwing).sneakyThrow(),
+            Throwing.longFunction(throwing).fallbackTo(value -> -1),
+            Throwing.longFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.apply(b.next())));
+    }
+
+    private static Family<LongPredicate> longPredicate(final ChainerBenchmark b)
+    {
+        final ThrowingLongPredicate throwing = value -> {
+            b.check((int) value);
+            return true;
+        };
+        final LongPredicate baseline = value -> {
+            try {
+                b.check((int) value);
+                return true;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longPredicate(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longPredicate(throwing).sneakyThrow(),
+            Throwing.longPredicate(throwing).fallbackTo(value -> false),
+            Throwing.longPredicate(throwing).orReturnFalse(),
+            (predicate, blackhole) -> blackhole.consume(
+                predicate.test(b.next())));
+    }
+
+    private static Family<LongSupplier> longSupplier(final ChainerBenchmark b)
+    {
+        final ThrowingLongSupplier throwing = () -> {
+            final long l = b.next();
+            b.check((int) l);
+            return l;
+        };
+        final LongSupplier baseline = () -> {
+            try {
+                final long l = b.next();
+                b.check((int) l);
+                return l;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longSupplier(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longSupplier(throwing).sneakyThrow(),
+            Throwing.longSupplier(throwing).fallbackTo(() -> -1L),
+            Throwing.longSupplier(throwing).orReturn(-1L),
+            (supplier, blackhole) -> blackhole.consume(supplier.getAsLong()));
+    }
+
+    private static Family<LongToDoubleFunction> longToDoubleFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingLongToDoubleFunction throwing = value -> {
+            b.check((int) value);
+            return (double) value;
+        };
+        final LongToDoubleFunction baseline = value -> {
+            try {
+                b.check((int) value);
+                return (double) value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longToDoubleFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longToDoubleFunction(throwing).sneakyThrow(),
+            Throwing.longToDoubleFunction(throwing).fallbackTo(value -> -1.0),
+            Throwing.longToDoubleFunction(throwing).orReturn(-1.0),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsDouble(b.next())));
+    }
+
+    private static Family<LongToIntFunction> longToIntFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingLongToIntFunction throwing = value -> {
+            b.check((int) value);
+            return (int) value;
+        };
+        final LongToIntFunction baseline = value -> {
+            try {
+                b.check((int) value);
+                return (int) value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longToIntFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longToIntFunction(throwing).sneakyThrow(),
+            Throwing.longToIntFunction(throwing).fallbackTo(value -> -1),
+            Throwing.longToIntFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsInt(b.next())));
+    }
+
+    private static Family<LongUnaryOperator> longUnaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingLongUnaryOperator throwing = operand -> {
+            b.check((int) operand);
+            return operand;
+        };
+        final LongUnaryOperator baseline = operand -> {
+            try {
+                b.check((int) operand);
+                return operand;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.longUnaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.longUnaryOperator(throwing).sneakyThrow(),
+            Throwing.longUnaryOperator(throwing).fallbackTo(operand -> -1L),
+            Throwing.longUnaryOperator(throwing).orReturnSelf(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.applyAsLong(b.next())));
+    }
+
+    private static Family<ObjDoubleConsumer<Integer>> objDoubleConsumer(
+        final ChainerBenchmark b)
+    {
+        final ThrowingObjDoubleConsumer<Integer> throwing = (t, value) -> {
+            b.check(t);
+            b.sum += t + value;
+        };
+        final ObjDoubleConsumer<Integer> baseline = (t, value) -> {
+            try {
+                b.check(t);
+                b.sum += t + value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.objDoubleConsumer(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.objDoubleConsumer(throwing).sneakyThrow(),
+            Throwing.objDoubleConsumer(throwing).fallbackTo((t, value) -> {}),
+            Throwing.objDoubleConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(INPUTS[b.next()], 1.0));
+    }
+
+    private static Family<ObjIntConsumer<Integer>> objIntConsumer(
+        final ChainerBenchmark b)
+    {
+        final ThrowingObjIntConsumer<Integer> throwing = (t, value) -> {
+            b.check(t);
+            b.sum += t + value;
+        };
+        final ObjIntConsumer<Integer> baseline = (t, value) -> {
+            try {
+                b.check(t);
+                b.sum += t + value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.objIntConsumer(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.objIntConsumer(throwing).sneakyThrow(),
+            Throwing.objIntConsumer(throwing).fallbackTo((t, value) -> {}),
+            Throwing.objIntConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(INPUTS[b.next()], 1));
+    }
+
+    private static Family<ObjLongConsumer<Integer>> objLongConsumer(
+        final ChainerBenchmark b)
+    {
+        final ThrowingObjLongConsumer<Integer> throwing = (t, value) -> {
+            b.check(t);
+            b.sum += t + value;
+        };
+        final ObjLongConsumer<Integer> baseline = (t, value) -> {
+            try {
+                b.check(t);
+                b.sum += t + value;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.objLongConsumer(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.objLongConsumer(throwing).sneakyThrow(),
+            Throwing.objLongConsumer(throwing).fallbackTo((t, value) -> {}),
+            Throwing.objLongConsumer(throwing).orDoNothing(),
+            (consumer, blackhole) -> consumer.accept(INPUTS[b.next()], 1L));
+    }
+
+    private static Family<Predicate<Integer>> predicate(
+        final ChainerBenchmark b)
+    {
+        final ThrowingPredicate<Integer> throwing = t -> {
+            b.check(t);
+            return true;
+        };
+        final Predicate<Integer> baseline = t -> {
+            try {
+                b.check(t);
+                return true;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.predicate(throwing).orThrow(IllegalStateException.class),
+            Throwing.predicate(throwing).sneakyThrow(),
+            Throwing.predicate(throwing).fallbackTo(t -> false),
+            Throwing.predicate(throwing).orReturnFalse(),
+            (predicate, blackhole) -> blackhole.consume(
+                predicate.test(INPUTS[b.next()])));
+    }
+
+    private static Family<Runnable> runnable(final ChainerBenchmark b)
+    {
+        final ThrowingRunnable throwing = () -> {
+            b.check(b.next());
+        };
+        final Runnable baseline = () -> {
+            try {
+                b.check(b.next());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.runnable(throwing).orThrow(IllegalStateException.class),
+            Throwing.runnable(throwing).sneakyThrow(),
+            Throwing.runnable(throwing).fallbackTo(() -> {}),
+            Throwing.runnable(throwing).orDoNothing(),
+            (runnable, blackhole) -> runnable.run());
+    }
+
+    private static Family<Supplier<Integer>> supplier(final ChainerBenchmark b)
+    {
+        final ThrowingSupplier<Integer> throwing = () -> {
+            final Integer t = INPUTS[b.next()];
+            b.check(t);
+            return t;
+        };
+        final Supplier<Integer> baseline = () -> {
+            try {
+                final Integer t = INPUTS[b.next()];
+                b.check(t);
+                return t;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.supplier(throwing).orThrow(IllegalStateException.class),
+            Throwing.supplier(throwing).sneakyThrow(),
+            Throwing.supplier(throwing).fallbackTo(() -> -1),
+            Throwing.supplier(throwing).orReturn(-1),
+            (supplier, blackhole) -> blackhole.consume(supplier.get()));
+    }
+
+    private static Family<ToDoubleFunction<Integer>> toDoubleFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingToDoubleFunction<Integer> throwing = t -> {
+            b.check(t);
+            return (double) t;
+        };
+        final ToDoubleFunction<Integer> baseline = t -> {
+            try {
+                b.check(t);
+                return (double) t;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.toDoubleFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.toDoubleFunction(throwing).sneakyThrow(),
+            Throwing.toDoubleFunction(throwing).fallbackTo(t -> -1.0),
+            Throwing.toDoubleFunction(throwing).orReturn(-1.0),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsDouble(INPUTS[b.next()])));
+    }
+
+    private static Family<ToIntFunction<Integer>> toIntFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingToIntFunction<Integer> throwing = t -> {
+            b.check(t);
+            return t;
+        };
+        final ToIntFunction<Integer> baseline = t -> {
+            try {
+                b.check(t);
+                return t;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.toIntFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.toIntFunction(throwing).sneakyThrow(),
+            Throwing.toIntFunction(throwing).fallbackTo(t -> -1),
+            Throwing.toIntFunction(throwing).orReturn(-1),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsInt(INPUTS[b.next()])));
+    }
+
+    private static Family<ToLongFunction<Integer>> toLongFunction(
+        final ChainerBenchmark b)
+    {
+        final ThrowingToLongFunction<Integer> throwing = t -> {
+            b.check(t);
+            return (long) t;
+        };
+        final ToLongFunction<Integer> baseline = t -> {
+            try {
+                b.check(t);
+                return (long) t;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.toLongFunction(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.toLongFunction(throwing).sneakyThrow(),
+            Throwing.toLongFunction(throwing).fallbackTo(t -> -1L),
+            Throwing.toLongFunction(throwing).orReturn(-1L),
+            (function, blackhole) -> blackhole.consume(
+                function.applyAsLong(INPUTS[b.next()])));
+    }
+
+    private static Family<UnaryOperator<Integer>> unaryOperator(
+        final ChainerBenchmark b)
+    {
+        final ThrowingUnaryOperator<Integer> throwing = t -> {
+            b.check(t);
+            return t;
+        };
+        final UnaryOperator<Integer> baseline = t -> {
+            try {
+                b.check(t);
+                return t;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        return new Family<>(baseline, throwing,
+            Throwing.unaryOperator(throwing)
+                .orThrow(IllegalStateException.class),
+            Throwing.unaryOperator(throwing).sneakyThrow(),
+            Throwing.unaryOperator(throwing).fallbackTo(t -> -1),
+            Throwing.unaryOperator(throwing).orReturnSelf(),
+            (operator, blackhole) -> blackhole.consume(
+                operator.apply(INPUTS[b.next()])));
+    }
+
+    /*
+     * How to invoke an instance of a family, and consume its result (if any)
+     */
+    @FunctionalInterface
+    interface Call<N>
+    {
+        void invoke(N instance, Blackhole blackhole);
+    }
+
+    /*
+     * The instances of a family; failures are expected and swallowed
+     */
+    static final class Family<N>
+    {
+        private final N baseline;
+        private final N apply;
+        private final N orThrow;
+        private final N sneakyThrow;
+        private final N fallbackTo;
+        private final N orReturn;
+        private final Call<N> call;
+
+        Family(final N baseline, final N apply, final N orThrow,
+            final N sneakyThrow, final N fallbackTo, final N orReturn,
+            final Call<N> call)
+        {
+            this.baseline = baseline;
+            this.apply = apply;
+            this.orThrow = orThrow;
+            this.sneakyThrow = sneakyThrow;
+            this.fallbackTo = fallbackTo;
+            this.orReturn = orReturn;
+            this.call = call;
+        }
+
+        void baseline(final Blackhole blackhole)
+        {
+            invoke(baseline, blackhole);
+        }
+
+        void apply(final Blackhole blackhole)
+        {
+            invoke(apply, blackhole);
+        }
+
+        void orThrow(final Blackhole blackhole)
+        {
+            invoke(orThrow, blackhole);
+        }
+
+        void sneakyThrow(final Blackhole blackhole)
+        {
+            invoke(sneakyThrow, blackhole);
+        }
+
+        void fallbackTo(final Blackhole blackhole)
+        {
+            invoke(fallbackTo, blackhole);
+        }
+
+        void orReturn(final Blackhole blackhole)
+        {
+            invoke(orReturn, blackhole);
+        }
+
+        private void invoke(final N instance, final Blackhole blackhole)
+        {
+            try {
+                call.invoke(instance, blackhole);
+            } catch (Exception ignored) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.fge.lambdas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for all chainers
+ *
+ * <p>The chainer is selected by {@link #family}; use {@code -p family=...} to
+ * only run some of them. The {@code orReturn} benchmark measures whichever of
+ * {@code orReturn()}, {@code orDoNothing()}, {@code orReturnFalse()}, {@code
+ * orReturnLeft()} or {@code orReturnSelf()} the chainer offers.</p>
+ *
+ * @see ChainerBenchmark
+ * @see ChainerFamilies
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FamilyBenchmark
+    extends ChainerBenchmark
+{
+    @Param({
+        "biConsumer", "biFunction", "binaryOperator", "comparator", "consumer",
+        "doubleBinaryOperator", "doubleConsumer", "doubleFunction",
+        "doublePredicate", "doubleSupplier", "doubleToIntFunction",
+        "doubleToLongFunction", "doubleUnaryOperator", "function",
+        "intBinaryOperator", "intConsumer", "intFunction", "intPredicate",
+        "intSupplier", "intToDoubleFunction", "intToLongFunction",
+        "intUnaryOperator", "longBinaryOperator", "longConsumer",
+        "longFunction", "longPredicate", "longSupplier",
+        "longToDoubleFunction", "longToIntFunction", "longUnaryOperator",
+        "objDoubleConsumer", "objIntConsumer", "objLongConsumer", "predicate",
+        "runnable", "supplier", "toDoubleFunction", "toIntFunction",
+        "toLongFunction", "unaryOperator"
+    })
+    public String family;
+
+    private ChainerFamilies.Family<?> instances;
+
+    @Setup(Level.Trial)
+    public void setupFamily()
+    {
+        instances = ChainerFamilies.of(family, this);
+    }
+
+    @Benchmark
+    public void baseline(final Blackhole blackhole)
+    {
+        instances.baseline(blackhole);
+    }
+
+    @Benchmark
+    public void apply(final Blackhole blackhole)
+    {
+        instances.apply(blackhole);
+    }
+
+    @Benchmark
+    public void orThrow(final Blackhole blackhole)
+    {
+        instances.orThrow(blackhole);
+    }
+
+    @Benchmark
+    public void sneakyThrow(final Blackhole blackhole)
+    {
+        instances.sneakyThrow(blackhole);
+    }
+
+    @Benchmark
+    public void fallbackTo(final Blackhole blackhole)
+    {
+        instances.fallbackTo(blackhole);
+    }
+
+    @Benchmark
+    public void orReturn(final Blackhole blackhole)
+    {
+        instances.orReturn(blackhole);
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of instrumentation
+ *
+ * <p>The {@code plain} benchmark must perform as well as the {@code fallbackTo}
+ * benchmark of {@link FamilyBenchmark} for {@code function}: chainers which are
+ * not instrumented should not pay anything.</p>
+ *
+ * @see ChainerMetrics
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InstrumentationBenchmark
+    extends ChainerBenchmark
+{
+    private final ThrowingFunction<Integer, Integer> throwing = i -> {
+        check(i);
+        return i;
+    };
+
+    private final Function<Integer, Integer> baseline = i -> {
+        try {
+            check(i);
+            return i;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception ignored) {
+            return -1;
+        }
+    };
+
+    private final Function<Integer, Integer> plain
+        = Throwing.function(throwing).fallbackTo(i -> -1);
+    private final Function<Integer, Integer> instrumented
+        = Throwing.function(throwing).instrumented("benchmark")
+            .fallbackTo(i -> -1);
+
+    @Benchmark
+    public Integer baseline()
+    {
+        return invoke(baseline);
+    }
+
+    @Benchmark
+    public Integer plain()
+    {
+        return invoke(plain);
+    }
+
+    @Benchmark
+    public Integer instrumented()
+    {
+        return invoke(instrumented);
+    }
+
+    private Integer invoke(final Function<Integer, Integer> function)
+    {
+        try {
+            return function.apply(INPUTS[next()]);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Default wrappers versus {@code specialized()} wrappers, depending on the
+ * number of throwing classes seen by the default wrapper
+ *
+ * <p>Before measuring, the setup calls the default {@code apply()} of
+ * {@link ThrowingFunction} with {@link #receivers} different lambda classes,
+ * as an application using many throwing functions would. With two receivers,
+ * the call to {@code doApply()} is bimorphic; with eight, it is megamorphic,
+ * and no longer inlined. The specialized wrapper of the first lambda is not
+ * affected, since its class is its own.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(3)
+public class MegamorphicBenchmark
+{
+    private static final int POLLUTION = 100_000;
+
+    @Param({ "1", "2", "8" })
+    public int receivers;
+
+    private Integer input = 1;
+    private Function<Integer, Integer> wrapped;
+    private Function<Integer, Integer> specialized;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        final ThrowingFunction<Integer, Integer>[] functions = functions();
+
+        for (int i = 0; i < POLLUTION; i++)
+            for (int j = 0; j < receivers; j++)
+                functions[j].apply(i);
+
+        wrapped = functions[0];
+        specialized = Throwing.function(functions[0]).specialized();
+    }
+
+    @Benchmark
+    public Integer wrapped()
+    {
+        return wrapped.apply(input);
+    }
+
+    @Benchmark
+    public Integer specialized()
+    {
+        return specialized.apply(input);
+    }
+
+    /*
+     * Each lambda expression has a class of its own
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ThrowingFunction<Integer, Integer>[] functions()
+    {
+        return new ThrowingFunction[] {
+            (ThrowingFunction<Integer, Integer>) i -> i + 1,
+            (ThrowingFunction<Integer, Integer>) i -> i + 2,
+            (ThrowingFunction<Integer, Integer>) i -> i + 3,
+            (ThrowingFunction<Integer, Integer>) i -> i + 4,
+            (ThrowingFunction<Integer, Integer>) i -> i + 5,
+            (ThrowingFunction<Integer, Integer>) i -> i + 6,
+            (ThrowingFunction<Integer, Integer>) i -> i + 7,
+            (ThrowingFunction<Integer, Integer>) i -> i + 8
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.FunctionChainer;
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flat {@code orTryWith()} chains versus nested lambdas
+ *
+ * <p>Every alternative but the last one fails with a (preallocated) checked
+ * exception; the {@code nested} benchmark reproduces the former
+ * implementation, where each call to {@code orTryWith()} wrapped the previous
+ * function in a new lambda.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrTryWithBenchmark
+{
+    private static final Exception CHECKED = new Exception();
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int depth;
+
+    private Integer input = 1;
+    private FunctionChainer<Integer, Integer> flat;
+    private ThrowingFunction<Integer, Integer> nested;
+
+    @Setup
+    public void setup()
+    {
+        final ThrowingFunction<Integer, Integer> failing = i -> {
+            throw CHECKED;
+        };
+        final ThrowingFunction<Integer, Integer> succeeding = i -> i;
+
+        final ThrowingFunction<Integer, Integer> first = depth == 1
+            ? succeeding : failing;
+
+        flat = Throwing.function(first);
+        nested = first;
+
+        for (int i = 1; i < depth; i++) {
+            final ThrowingFunction<Integer, Integer> other = i == depth - 1
+                ? succeeding : failing;
+            flat = flat.orTryWith(other);
+            nested = nest(nested, other);
+        }
+    }
+
+    private static <T, R> ThrowingFunction<T, R> nest(
+        final ThrowingFunction<T, R> function,
+        final ThrowingFunction<T, R> other)
+    {
+        return t -> {
+            try {
+                return function.doApply(t);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable ignored) {
+                return other.doApply(t);
+            }
+        };
+    }
+
+    @Benchmark
+    public Integer flat()
+    {
+        return flat.apply(input);
+    }
+
+    @Benchmark
+    public Integer nested()
+    {
+        return nested.apply(input);
+    }
+}
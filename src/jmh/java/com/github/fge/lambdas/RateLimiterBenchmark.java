@@ -0,0 +1,81 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Contended acquisition of permits from a shared rate limiter
+ *
+ * <p>64 threads share a single limiter. With a rate of one permit per
+ * nanosecond, permits are (nearly) always available, and all threads compete
+ * for the compare-and-set of the state of the bucket; with a rate of 1000
+ * permits per second, almost all invocations are rejected, which only reads
+ * the state. The {@code batch} benchmark takes 8 permits per invocation.</p>
+ *
+ * <p>The {@code baseline} benchmark invokes the same chain without a rate
+ * limiter.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(64)
+public class RateLimiterBenchmark
+{
+    private static final Integer INPUT = 1;
+
+    @Param({ "1000", "1000000000" })
+    public double permitsPerSecond;
+
+    private Function<Integer, Integer> baseline;
+    private Function<Integer, Integer> single;
+    private Function<Integer, Integer> batch;
+
+    @Setup
+    public void setup()
+    {
+        final ThrowingFunction<Integer, Integer> throwing = i -> i;
+        final RateLimiter limiter = new RateLimiter(permitsPerSecond, 64);
+
+        baseline = Throwing.function(throwing).orReturn(-1);
+        single = Throwing.function(throwing)
+            .rateLimited(limiter, 1, Duration.ZERO).orReturn(-1);
+        batch = Throwing.function(throwing)
+            .rateLimited(limiter, 8, Duration.ZERO).orReturn(-1);
+    }
+
+    @Benchmark
+    public Integer baseline()
+    {
+        return baseline.apply(INPUT);
+    }
+
+    @Benchmark
+    public Integer single()
+    {
+        return single.apply(INPUT);
+    }
+
+    @Benchmark
+    public Integer batch()
+    {
+        return batch.apply(INPUT);
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.fge.lambdas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the first use of each factory method of {@link Throwing}
+ *
+ * <p>Each fork builds a single chain, with a fallback, and invokes it once:
+ * this measures the loading and linking of the classes involved, which is
+ * what matters for short lived processes. Nothing is loaded before the
+ * measurement, apart from this class.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark
+{
+    private static final IOException EXCEPTION = new IOException();
+
+    @Param({ "comparator", "consumer", "biConsumer", "doubleConsumer",
+        "intConsumer", "longConsumer", "function", "biFunction",
+        "toDoubleFunction", "toIntFunction", "toLongFunction",
+        "doubleFunction", "doubleToIntFunction", "doubleToLongFunction",
+        "intFunction", "intToDoubleFunction", "intToLongFunction",
+        "longFunction", "longToDoubleFunction", "longToIntFunction",
+        "binaryOperator", "doubleBinaryOperator", "doubleUnaryOperator",
+        "intBinaryOperator", "intUnaryOperator", "longBinaryOperator",
+        "longUnaryOperator", "unaryOperator", "predicate", "intPredicate",
+        "doublePredicate", "longPredicate", "supplier", "doubleSupplier",
+        "intSupplier", "longSupplier", "runnable" })
+    public String factory;
+
+    @Benchmark
+    public Object firstUse()
+    {
+        switch (factory) {
+            case "comparator":
+                return Throwing.comparator((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> 0).compare(null, null);
+            case "consumer":
+                Throwing.consumer(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> { }).accept(null);
+                return null;
+            case "biConsumer":
+                Throwing.biConsumer((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> { }).accept(null, null);
+                return null;
+            case "doubleConsumer":
+                Throwing.doubleConsumer(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> { }).accept(0.0);
+                return null;
+            case "intConsumer":
+                Throwing.intConsumer(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> { }).accept(0);
+                return null;
+            case "longConsumer":
+                Throwing.longConsumer(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> { }).accept(0L);
+                return null;
+            case "function":
+                return Throwing.function(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> null).apply(null);
+            case "biFunction":
+                return Throwing.biFunction((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> null).apply(null, null);
+            case "toDoubleFunction":
+                return Throwing.toDoubleFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0.0).applyAsDouble(null);
+            case "toIntFunction":
+                return Throwing.toIntFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0).applyAsInt(null);
+            case "toLongFunction":
+                return Throwing.toLongFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0L).applyAsLong(null);
+            case "doubleFunction":
+                return Throwing.doubleFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> null).apply(0.0);
+            case "doubleToIntFunction":
+                return Throwing.doubleToIntFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0).applyAsInt(0.0);
+            case "doubleToLongFunction":
+                return Throwing.doubleToLongFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0L).applyAsLong(0.0);
+            case "intFunction":
+                return Throwing.intFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> null).apply(0);
+            case "intToDoubleFunction":
+                return Throwing.intToDoubleFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0.0).applyAsDouble(0);
+            case "intToLongFunction":
+                return Throwing.intToLongFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0L).applyAsLong(0);
+            case "longFunction":
+                return Throwing.longFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> null).apply(0L);
+            case "longToDoubleFunction":
+                return Throwing.longToDoubleFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0.0).applyAsDouble(0L);
+            case "longToIntFunction":
+                return Throwing.longToIntFunction(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0).applyAsInt(0L);
+            case "binaryOperator":
+                return Throwing.binaryOperator((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> null).apply(null, null);
+            case "doubleBinaryOperator":
+                return Throwing.doubleBinaryOperator((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> 0.0).applyAsDouble(0.0, 0.0);
+            case "doubleUnaryOperator":
+                return Throwing.doubleUnaryOperator(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0.0).applyAsDouble(0.0);
+            case "intBinaryOperator":
+                return Throwing.intBinaryOperator((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> 0).applyAsInt(0, 0);
+            case "intUnaryOperator":
+                return Throwing.intUnaryOperator(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0).applyAsInt(0);
+            case "longBinaryOperator":
+                return Throwing.longBinaryOperator((x, y) -> {
+                    throw EXCEPTION;
+                }).fallbackTo((x, y) -> 0L).applyAsLong(0L, 0L);
+            case "longUnaryOperator":
+                return Throwing.longUnaryOperator(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> 0L).applyAsLong(0L);
+            case "unaryOperator":
+                return Throwing.unaryOperator(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> null).apply(null);
+            case "predicate":
+                return Throwing.predicate(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> false).test(null);
+            case "intPredicate":
+                return Throwing.intPredicate(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> false).test(0);
+            case "doublePredicate":
+                return Throwing.doublePredicate(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> false).test(0.0);
+            case "longPredicate":
+                return Throwing.longPredicate(x -> {
+                    throw EXCEPTION;
+                }).fallbackTo(x -> false).test(0L);
+            case "supplier":
+                return Throwing.supplier(() -> {
+                    throw EXCEPTION;
+                }).fallbackTo(() -> null).get();
+            case "doubleSupplier":
+                return Throwing.doubleSupplier(() -> {
+                    throw EXCEPTION;
+                }).fallbackTo(() -> 0.0).getAsDouble();
+            case "intSupplier":
+                return Throwing.intSupplier(() -> {
+                    throw EXCEPTION;
+                }).fallbackTo(() -> 0).getAsInt();
+            case "longSupplier":
+                return Throwing.longSupplier(() -> {
+                    throw EXCEPTION;
+                }).fallbackTo(() -> 0L).getAsLong();
+            case "runnable":
+                Throwing.runnable(() -> {
+                    throw EXCEPTION;
+                }).fallbackTo(() -> { }).run();
+                return null;
+            default:
+                throw new IllegalArgumentException(factory);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ThrowingFunction#apply(Object)} depending on the stack
+ * trace policy, the failure rate and the depth of the stack
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThrownByLambdaExceptionBenchmark
+{
+    private static final int SIZE = 1024;
+    private static final Exception CHECKED = new Exception();
+
+    @Param({ "FULL", "NONE" })
+    public String policy;
+
+    @Param({ "0", "1", "10", "30", "100" })
+    public int failureRate;
+
+    @Param({ "10", "60" })
+    public int stackDepth;
+
+    private final boolean[] failures = new boolean[SIZE];
+    private ThrowingFunction<Integer, Integer> function;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        ThrownByLambdaException.setStackTracePolicy("NONE".equals(policy)
+            ? StackTracePolicy.NONE : StackTracePolicy.FULL);
+
+        final Random random = new Random(0L);
+        for (int i = 0; i < SIZE; i++)
+            failures[i] = random.nextInt(100) < failureRate;
+
+        function = i -> {
+            if (failures[i])
+                throw CHECKED;
+            return i;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.FULL);
+    }
+
+    @Benchmark
+    public int apply()
+    {
+        return recurse(stackDepth);
+    }
+
+    private int recurse(final int depth)
+    {
+        if (depth > 0)
+            return recurse(depth - 1);
+        final int i = index++ & (SIZE - 1);
+        try {
+            return function.apply(i);
+        } catch (ThrownByLambdaException ignored) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,593 @@
+package com.github.fge.lambdas;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import static com.github.fge.lambdas.Chainer.doSneakyThrow;
+
+/**
+ * Implementations of non throwing interfaces invoking a method handle
+ *
+ * <p>The method handle must have the erased type of the method of the
+ * interface. Any exception it throws is rethrown as is.</p>
+ *
+ * @see PolicyCompiler
+ */
+final class Adapters
+{
+    private static final Map<Class<?>, Function<MethodHandle, ?>> ADAPTERS
+        = new HashMap<>();
+
+    static {
+        ADAPTERS.put(BiConsumer.class, Adapters::biConsumer);
+        ADAPTERS.put(BiFunction.class, Adapters::biFunction);
+        ADAPTERS.put(BinaryOperator.class, Adapters::binaryOperator);
+        ADAPTERS.put(Comparator.class, Adapters::comparator);
+        ADAPTERS.put(Consumer.class, Adapters::consumer);
+        ADAPTERS.put(DoubleBinaryOperator.class,
+            Adapters::doubleBinaryOperator);
+        ADAPTERS.put(DoubleConsumer.class, Adapters::doubleConsumer);
+        ADAPTERS.put(DoubleFunction.class, Adapters::doubleFunction);
+        ADAPTERS.put(DoublePredicate.class, Adapters::doublePredicate);
+        ADAPTERS.put(DoubleSupplier.class, Adapters::doubleSupplier);
+        ADAPTERS.put(DoubleToIntFunction.class, Adapters::doubleToIntFunction);
+        ADAPTERS.put(DoubleToLongFunction.class,
+            Adapters::doubleToLongFunction);
+        ADAPTERS.put(DoubleUnaryOperator.class, Adapters::doubleUnaryOperator);
+        ADAPTERS.put(Function.class, Adapters::function);
+        ADAPTERS.put(IntBinaryOperator.class, Adapters::intBinaryOperator);
+        ADAPTERS.put(IntConsumer.class, Adapters::intConsumer);
+        ADAPTERS.put(IntFunction.class, Adapters::intFunction);
+        ADAPTERS.put(IntPredicate.class, Adapters::intPredicate);
+        ADAPTERS.put(IntSupplier.class, Adapters::intSupplier);
+        ADAPTERS.put(IntToDoubleFunction.class, Adapters::intToDoubleFunction);
+        ADAPTERS.put(IntToLongFunction.class, Adapters::intToLongFunction);
+        ADAPTERS.put(IntUnaryOperator.class, Adapters::intUnaryOperator);
+        ADAPTERS.put(LongBinaryOperator.class, Adapters::longBinaryOperator);
+        ADAPTERS.put(LongConsumer.class, Adapters::longConsumer);
+        ADAPTERS.put(LongFunction.class, Adapters::longFunction);
+        ADAPTERS.put(LongPredicate.class, Adapters::longPredicate);
+        ADAPTERS.put(LongSupplier.class, Adapters::longSupplier);
+        ADAPTERS.put(LongToDoubleFunction.class,
+            Adapters::longToDoubleFunction);
+        ADAPTERS.put(LongToIntFunction.class, Adapters::longToIntFunction);
+        ADAPTERS.put(LongUnaryOperator.class, Adapters::longUnaryOperator);
+        ADAPTERS.put(ObjDoubleConsumer.class, Adapters::objDoubleConsumer);
+        ADAPTERS.put(ObjIntConsumer.class, Adapters::objIntConsumer);
+        ADAPTERS.put(ObjLongConsumer.class, Adapters::objLongConsumer);
+        ADAPTERS.put(Predicate.class, Adapters::predicate);
+        ADAPTERS.put(Runnable.class, Adapters::runnable);
+        ADAPTERS.put(Supplier.class, Adapters::supplier);
+        ADAPTERS.put(ToDoubleFunction.class, Adapters::toDoubleFunction);
+        ADAPTERS.put(ToIntFunction.class, Adapters::toIntFunction);
+        ADAPTERS.put(ToLongFunction.class, Adapters::toLongFunction);
+        ADAPTERS.put(UnaryOperator.class, Adapters::unaryOperator);
+    }
+
+    private Adapters()
+    {
+        throw new Error("nice try!");
+    }
+
+    /**
+     * Return an implementation of an interface invoking a method handle
+     *
+     * @param type the interface
+     * @param handle the method handle
+     * @param <N> type parameter of the interface
+     * @return an implementation of the interface
+     * @throws IllegalArgumentException interface not supported
+     */
+    static <N> N adapt(final Class<?> type, final MethodHandle handle)
+    {
+        final Function<MethodHandle, ?> adapter = ADAPTERS.get(type);
+        if (adapter == null)
+            throw new IllegalArgumentException("unsupported interface "
+                + type.getName());
+        @SuppressWarnings("unchecked")
+        final N ret = (N) adapter.apply(handle);
+        return ret;
+    }
+
+    private static BiConsumer<Object, Object> biConsumer(
+        final MethodHandle handle)
+    {
+        return (t, u) -> {
+            try {
+                handle.invokeExact(t, u);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static BiFunction<Object, Object, Object> biFunction(
+        final MethodHandle handle)
+    {
+        return (t, u) -> {
+            try {
+                return handle.invokeExact(t, u);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static BinaryOperator<Object> binaryOperator(
+        final MethodHandle handle)
+    {
+        return (t, u) -> {
+            try {
+                return handle.invokeExact(t, u);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static Comparator<Object> comparator(final MethodHandle handle)
+    {
+        return (o1, o2) -> {
+            try {
+                return (int) handle.invokeExact(o1, o2);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static Consumer<Object> consumer(final MethodHandle handle)
+    {
+        return t -> {
+            try {
+                handle.invokeExact(t);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleBinaryOperator doubleBinaryOperator(
+        final MethodHandle handle)
+    {
+        return (left, right) -> {
+            try {
+                return (double) handle.invokeExact(left, right);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleConsumer doubleConsumer(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleFunction<Object> doubleFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoublePredicate doublePredicate(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (boolean) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleSupplier doubleSupplier(final MethodHandle handle)
+    {
+        return () -> {
+            try {
+                return (double) handle.invokeExact();
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleToIntFunction doubleToIntFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (int) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleToLongFunction doubleToLongFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (long) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static DoubleUnaryOperator doubleUnaryOperator(
+        final MethodHandle handle)
+    {
+        return operand -> {
+            try {
+                return (double) handle.invokeExact(operand);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static Function<Object, Object> function(final MethodHandle handle)
+    {
+        return t -> {
+            try {
+                return handle.invokeExact(t);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntBinaryOperator intBinaryOperator(
+        final MethodHandle handle)
+    {
+        return (left, right) -> {
+            try {
+                return (int) handle.invokeExact(left, right);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntConsumer intConsumer(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntFunction<Object> intFunction(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntPredicate intPredicate(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (boolean) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntSupplier intSupplier(final MethodHandle handle)
+    {
+        return () -> {
+            try {
+                return (int) handle.invokeExact();
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntToDoubleFunction intToDoubleFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (double) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntToLongFunction intToLongFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (long) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static IntUnaryOperator intUnaryOperator(final MethodHandle handle)
+    {
+        return operand -> {
+            try {
+                return (int) handle.invokeExact(operand);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongBinaryOperator longBinaryOperator(
+        final MethodHandle handle)
+    {
+        return (left, right) -> {
+            try {
+                return (long) handle.invokeExact(left, right);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongConsumer longConsumer(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongFunction<Object> longFunction(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongPredicate longPredicate(final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (boolean) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongSupplier longSupplier(final MethodHandle handle)
+    {
+        return () -> {
+            try {
+                return (long) handle.invokeExact();
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongToDoubleFunction longToDoubleFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (double) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongToIntFunction longToIntFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (int) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static LongUnaryOperator longUnaryOperator(
+        final MethodHandle handle)
+    {
+        return operand -> {
+            try {
+                return (long) handle.invokeExact(operand);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static ObjDoubleConsumer<Object> objDoubleConsumer(
+        final MethodHandle handle)
+    {
+        return (t, value) -> {
+            try {
+                handle.invokeExact(t, value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static ObjIntConsumer<Object> objIntConsumer(
+        final MethodHandle handle)
+    {
+        return (t, value) -> {
+            try {
+                handle.invokeExact(t, value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static ObjLongConsumer<Object> objLongConsumer(
+        final MethodHandle handle)
+    {
+        return (t, value) -> {
+            try {
+                handle.invokeExact(t, value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static Predicate<Object> predicate(final MethodHandle handle)
+    {
+        return t -> {
+            try {
+                return (boolean) handle.invokeExact(t);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static Runnable runnable(final MethodHandle handle)
+    {
+        return () -> {
+            try {
+                handle.invokeExact();
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static Supplier<Object> supplier(final MethodHandle handle)
+    {
+        return () -> {
+            try {
+                return handle.invokeExact();
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static ToDoubleFunction<Object> toDoubleFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (double) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static ToIntFunction<Object> toIntFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (int) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static ToLongFunction<Object> toLongFunction(
+        final MethodHandle handle)
+    {
+        return value -> {
+            try {
+                return (long) handle.invokeExact(value);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+
+    private static UnaryOperator<Object> unaryOperator(
+        final MethodHandle handle)
+    {
+        return t -> {
+            try {
+                return handle.invokeExact(t);
+            } catch (Throwable throwable) {
+                throw doSneakyThrow(throwable);
+            }
+        };
+    }
+}
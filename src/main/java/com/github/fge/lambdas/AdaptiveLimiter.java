@@ -0,0 +1,301 @@
+package com.github.fge.lambdas;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit discovered from the latency and failures of invocations
+ *
+ * <p>A limiter is installed on a chain using {@link
+ * Chainer#adaptiveLimit(AdaptiveLimiter)}; it may be shared by several chains
+ * calling the same dependency. Invocations beyond the current limit are
+ * rejected immediately with a {@link ConcurrencyLimitExceededException}: they
+ * are never queued, so that the queueing delay stays bounded under
+ * overload.</p>
+ *
+ * <p>The limit is adjusted by additive increase, multiplicative decrease
+ * (AIMD):</p>
+ *
+ * <ul>
+ *     <li>it decreases by a constant factor when an invocation fails, or when
+ *     its round trip time exceeds the minimum round trip time by a given
+ *     factor (a sign that the dependency is queueing requests);</li>
+ *     <li>otherwise, it increases by {@code 1 / limit}, that is, by one per
+ *     round of {@code limit} invocations; only if at least half of the limit
+ *     is in use, so that an idle chain does not raise its limit
+ *     indefinitely.</li>
+ * </ul>
+ *
+ * <p>The limit decreases at most once per round trip: invocations started
+ * before the last decrease do not decrease it again. The minimum round trip
+ * time is the lowest observed so far, drifting slowly toward recent samples
+ * so that the limiter adapts to a lasting change of the latency of the
+ * dependency.</p>
+ *
+ * <p>The limiter is lock-free. The limit is a {@code double} stored in an
+ * {@link AtomicLong}; the minimum round trip time is updated without
+ * synchronization, since losing a sample is harmless.</p>
+ */
+public final class AdaptiveLimiter
+{
+    private static final Config DEFAULTS
+        = new Config(20, 1, 1000, 0.9, 2.0);
+
+    /*
+     * Weight of a sample in the upward drift of the minimum round trip time,
+     * as a shift
+     */
+    private static final int DRIFT_SHIFT = 8;
+
+    private final Config config;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong lastDecrease;
+    private final LongAdder rejections = new LongAdder();
+    private final ConcurrencyLimitExceededException exceeded
+        = new ConcurrencyLimitExceededException(this);
+
+    private volatile long minRtt = Long.MAX_VALUE;
+
+    private final Guard guard = new Guard()
+    {
+        @Override
+        public long enter()
+            throws ConcurrencyLimitExceededException
+        {
+            return admit();
+        }
+
+        @Override
+        public void onSuccess(final long token)
+        {
+            completed(token, false);
+        }
+
+        @Override
+        public Throwable onFailure(final long token, final Throwable throwable)
+        {
+            completed(token, true);
+            return throwable;
+        }
+    };
+
+    /**
+     * Create a new limiter
+     *
+     * @param config the configuration
+     *
+     * @see #config()
+     */
+    public AdaptiveLimiter(final Config config)
+    {
+        this(config, System::nanoTime);
+    }
+
+    AdaptiveLimiter(final Config config, final LongSupplier clock)
+    {
+        this.config = Objects.requireNonNull(config);
+        this.clock = clock;
+        limit = new AtomicLong(Double.doubleToRawLongBits(
+            config.initialLimit));
+        lastDecrease = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Get the default configuration
+     *
+     * <p>By default, the limit starts at 20, and stays between 1 and 1000; it
+     * is multiplied by 0.9 when an invocation fails, or takes more than twice
+     * the minimum round trip time.</p>
+     *
+     * @return the default configuration
+     */
+    public static Config config()
+    {
+        return DEFAULTS;
+    }
+
+    /**
+     * Get the current limit
+     *
+     * @return the maximum number of concurrent invocations
+     */
+    public int getLimit()
+    {
+        return (int) currentLimit();
+    }
+
+    /**
+     * Get the number of invocations in progress
+     *
+     * @return the number of invocations
+     */
+    public int getInFlight()
+    {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the number of rejected invocations
+     *
+     * @return the number of rejections
+     */
+    public long getRejections()
+    {
+        return rejections.sum();
+    }
+
+    Guard guard()
+    {
+        return guard;
+    }
+
+    private double currentLimit()
+    {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    /*
+     * The token is the start time of the invocation
+     */
+    private long admit()
+        throws ConcurrencyLimitExceededException
+    {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) currentLimit()) {
+                rejections.increment();
+                throw exceeded;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return clock.getAsLong();
+    }
+
+    private void completed(final long start, final boolean failed)
+    {
+        final int used = inFlight.getAndDecrement();
+        final long now = clock.getAsLong();
+        final long rtt = now - start;
+
+        final long min = minRtt;
+        if (rtt < min)
+            minRtt = rtt;
+        else
+            minRtt = min + ((rtt - min) >> DRIFT_SHIFT);
+
+        if (failed || rtt > config.rttTolerance * min)
+            decrease(start, now);
+        else
+            increase(used);
+    }
+
+    private void decrease(final long start, final long now)
+    {
+        final long last = lastDecrease.get();
+        if (start - last < 0L || !lastDecrease.compareAndSet(last, now))
+            return;
+        long bits;
+        double next;
+        do {
+            bits = limit.get();
+            next = Math.max(config.minLimit,
+                Double.longBitsToDouble(bits) * config.backoffRatio);
+        } while (!limit.compareAndSet(bits, Double.doubleToRawLongBits(next)));
+    }
+
+    private void increase(final int used)
+    {
+        long bits;
+        double current;
+        do {
+            bits = limit.get();
+            current = Double.longBitsToDouble(bits);
+            if (current >= config.maxLimit || 2 * used < current)
+                return;
+        } while (!limit.compareAndSet(bits, Double.doubleToRawLongBits(
+            Math.min(config.maxLimit, current + 1.0 / current))));
+    }
+
+    /**
+     * Immutable configuration of an adaptive limiter
+     *
+     * <p>Start from {@link AdaptiveLimiter#config()}; each method of this
+     * class returns a modified copy.</p>
+     */
+    public static final class Config
+    {
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final double backoffRatio;
+        private final double rttTolerance;
+
+        private Config(final int initialLimit, final int minLimit,
+            final int maxLimit, final double backoffRatio,
+            final double rttTolerance)
+        {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.backoffRatio = backoffRatio;
+            this.rttTolerance = rttTolerance;
+        }
+
+        /**
+         * Set the bounds of the limit, and its initial value
+         *
+         * @param initial the initial limit
+         * @param min the minimum limit
+         * @param max the maximum limit
+         * @return a new configuration
+         * @throws IllegalArgumentException the minimum is not strictly
+         * positive, or the initial limit is not between the minimum and the
+         * maximum
+         */
+        public Config limits(final int initial, final int min, final int max)
+        {
+            if (min <= 0 || initial < min || initial > max)
+                throw new IllegalArgumentException("illegal limits: initial "
+                    + initial + ", min " + min + ", max " + max);
+            return new Config(initial, min, max, backoffRatio, rttTolerance);
+        }
+
+        /**
+         * Set the factor by which the limit decreases
+         *
+         * @param ratio the factor
+         * @return a new configuration
+         * @throws IllegalArgumentException the factor is not strictly between
+         * 0 and 1
+         */
+        public Config backoffRatio(final double ratio)
+        {
+            if (!(ratio > 0.0 && ratio < 1.0))
+                throw new IllegalArgumentException("illegal ratio " + ratio);
+            return new Config(initialLimit, minLimit, maxLimit, ratio,
+                rttTolerance);
+        }
+
+        /**
+         * Set the factor of the minimum round trip time above which an
+         * invocation decreases the limit
+         *
+         * @param tolerance the factor
+         * @return a new configuration
+         * @throws IllegalArgumentException the factor is not greater than 1
+         */
+        public Config rttTolerance(final double tolerance)
+        {
+            if (!(tolerance > 1.0))
+                throw new IllegalArgumentException("illegal tolerance "
+                    + tolerance);
+            return new Config(initialLimit, minLimit, maxLimit, backoffRatio,
+                tolerance);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.fge.lambdas;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cap on the number of concurrent invocations of chainers
+ *
+ * <p>A bulkhead is installed on a chain using {@link
+ * Chainer#bulkhead(Bulkhead)}; it may be shared by several chains using the
+ * same resource (a connection pool, for instance). Each invocation takes a
+ * permit, and gives it back when it completes, successfully or not. When no
+ * permit is available, the invocation is rejected with a {@link
+ * BulkheadFullException}, either immediately or after waiting for a permit
+ * for a bounded time.</p>
+ *
+ * <p>Permits are held by a {@link Semaphore}. Taking an available permit
+ * costs a compare-and-set; waiting threads are parked, not blocked on a
+ * monitor, so that virtual threads waiting for a permit do not pin their
+ * carrier thread.</p>
+ *
+ * <p>A thread interrupted while waiting for a permit fails with an {@link
+ * InterruptedException}; its interrupt status is set again, since policies
+ * may recover from this exception.</p>
+ */
+public final class Bulkhead
+{
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final LongAdder rejections = new LongAdder();
+    private final BulkheadFullException full = new BulkheadFullException(this);
+
+    private final Guard guard = new Guard()
+    {
+        @Override
+        public long enter()
+            throws BulkheadFullException, InterruptedException
+        {
+            acquire();
+            return 0L;
+        }
+
+        @Override
+        public void onSuccess(final long token)
+        {
+            permits.release();
+        }
+
+        @Override
+        public Throwable onFailure(final long token, final Throwable throwable)
+        {
+            permits.release();
+            return throwable;
+        }
+    };
+
+    /**
+     * Create a bulkhead rejecting invocations immediately when full
+     *
+     * @param maxConcurrent the maximum number of concurrent invocations
+     * @throws IllegalArgumentException maximum is not strictly positive
+     */
+    public Bulkhead(final int maxConcurrent)
+    {
+        this(maxConcurrent, Duration.ZERO);
+    }
+
+    /**
+     * Create a bulkhead waiting for a permit for a bounded time when full
+     *
+     * @param maxConcurrent the maximum number of concurrent invocations
+     * @param maxWait the maximum time to wait for a permit
+     * @throws IllegalArgumentException maximum is not strictly positive, or
+     * the wait is negative
+     */
+    public Bulkhead(final int maxConcurrent, final Duration maxWait)
+    {
+        if (maxConcurrent <= 0)
+            throw new IllegalArgumentException("illegal number of concurrent"
+                + " invocations " + maxConcurrent);
+        if (Objects.requireNonNull(maxWait).isNegative())
+            throw new IllegalArgumentException("illegal wait " + maxWait);
+        this.maxConcurrent = maxConcurrent;
+        maxWaitNanos = maxWait.toNanos();
+        permits = new Semaphore(maxConcurrent);
+    }
+
+    public int getMaxConcurrent()
+    {
+        return maxConcurrent;
+    }
+
+    /**
+     * Get the number of invocations which may start without waiting
+     *
+     * @return the number of available permits
+     */
+    public int getAvailablePermits()
+    {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Get the number of rejected invocations
+     *
+     * @return the number of rejections
+     */
+    public long getRejections()
+    {
+        return rejections.sum();
+    }
+
+    Guard guard()
+    {
+        return guard;
+    }
+
+    private void acquire()
+        throws BulkheadFullException, InterruptedException
+    {
+        if (permits.tryAcquire())
+            return;
+        if (maxWaitNanos > 0L) {
+            try {
+                if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS))
+                    return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+        rejections.increment();
+        throw full;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.fge.lambdas;
+
+/**
+ * Exception thrown by chainers whose bulkhead rejects an invocation
+ *
+ * <p>This is a checked exception, so that the policies of the chainer apply
+ * to it: with {@link Chainer#fallbackTo(Object)}, for instance, a rejected
+ * invocation goes straight to the fallback.</p>
+ *
+ * <p>Each bulkhead throws a single, preallocated instance of this class,
+ * which has no stack trace and no suppressed exceptions.</p>
+ *
+ * @see Chainer#bulkhead(Bulkhead)
+ */
+public final class BulkheadFullException
+    extends Exception
+{
+    private static final long serialVersionUID = 1L;
+
+    private final transient Bulkhead bulkhead;
+
+    BulkheadFullException(final Bulkhead bulkhead)
+    {
+        super("bulkhead is full", null, false, false);
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Get the bulkhead which rejected the invocation
+     *
+     * @return the bulkhead
+     */
+    public Bulkhead getBulkhead()
+    {
+        return bulkhead;
+    }
+}
@@ -4,9 +4,11 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.MethodType;
-import java.util.Map;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Base class for chaining throwing interfaces
@@ -25,6 +27,12 @@ import java.util.concurrent.ConcurrentHashMap;
  *         = Throwing.function(Files::size).orReturn(OL);
  * </pre>
  *
+ * <p>The chainers of this package return their policies, and the guards and
+ * retry loops they install, as instances of a single nested class per chainer
+ * rather than as one lambda per policy: using a policy for the first time
+ * then spins no class at runtime, and the class list of the library (see the
+ * {@code classList} task of the build) covers all of them.</p>
+ *
  * @param <N> parameter type of the non throwing interface
  * @param <T> parameter type of the throwing interface
  * @param <C> parameter type of the chainer
@@ -33,33 +41,115 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public abstract class Chainer<N, T extends N, C extends Chainer<N, T, C>>
 {
-    private static final Map<Class<? extends RuntimeException>, MethodHandle>
-        HANDLES = new ConcurrentHashMap<>();
+    /*
+     * Handles building the exceptions of orThrow(Class), by exception class
+     *
+     * They live in a holder class so that initializing Chainer does not
+     * require spinning method handles: they are only created when first
+     * needed.
+     */
+    private static final class Factories
+    {
+        private static final Lookup LOOKUP = MethodHandles.publicLookup();
 
-    private static final Lookup LOOKUP = MethodHandles.publicLookup();
+        /*
+         * Constructor accepting a cause
+         */
+        private static final MethodType CAUSE_TYPE
+            = MethodType.methodType(void.class, Throwable.class);
 
-    private static final MethodType TYPE
-        = MethodType.methodType(void.class, Throwable.class);
+        /*
+         * Constructor accepting a message, a cause, and whether suppression is
+         * enabled and the stack trace writable
+         */
+        private static final MethodType FULL_TYPE
+            = MethodType.methodType(void.class, String.class, Throwable.class,
+                boolean.class, boolean.class);
 
-    private static MethodHandle getHandle(
-        final Class<? extends RuntimeException> c)
-    {
-        return HANDLES.computeIfAbsent(c, key -> {
+        /*
+         * Type of the cached handles: (cause, writableStackTrace)
+         */
+        private static final MethodType HANDLE_TYPE
+            = MethodType.methodType(RuntimeException.class, Throwable.class,
+                boolean.class);
+
+        private static final MethodHandle MESSAGE;
+
+        static {
             try {
-                return LOOKUP.findConstructor(c, TYPE)
-                    .asType(TYPE.changeReturnType(RuntimeException.class));
+                MESSAGE = MethodHandles.lookup().findStatic(Factories.class,
+                    "messageOf", MethodType.methodType(String.class,
+                        Throwable.class));
             } catch (IllegalAccessException | NoSuchMethodException e) {
-                throw new InstantiationException(e);
+                throw new ExceptionInInitializerError(e);
             }
-        });
+        }
+
+        private static final ClassValue<MethodHandle> HANDLES
+            = new ClassValue<MethodHandle>()
+        {
+            @Override
+            protected MethodHandle computeValue(final Class<?> type)
+            {
+                try {
+                    final MethodHandle handle = LOOKUP.findConstructor(type,
+                        FULL_TYPE);
+                    return MethodHandles.foldArguments(
+                        MethodHandles.insertArguments(handle, 2, true),
+                        MESSAGE).asType(HANDLE_TYPE);
+                } catch (IllegalAccessException
+                    | NoSuchMethodException ignored) {
+                    // try with the cause only constructor
+                }
+                try {
+                    final MethodHandle handle = LOOKUP.findConstructor(type,
+                        CAUSE_TYPE);
+                    return MethodHandles.dropArguments(handle, 1,
+                        boolean.class).asType(HANDLE_TYPE);
+                } catch (IllegalAccessException | NoSuchMethodException e) {
+                    throw new InstantiationException(e);
+                }
+            }
+        };
+
+        private static String messageOf(final Throwable cause)
+        {
+            return cause == null ? null : cause.toString();
+        }
+    }
+
+    private static MethodHandle getHandle(
+        final Class<? extends RuntimeException> c)
+    {
+        return Factories.HANDLES.get(c);
+    }
+
+    /**
+     * Validate an exception class for use with {@link #orThrow(Class)}
+     *
+     * <p>The lookup of the constructor of an exception class is otherwise
+     * performed, and cached, the first time an exception of this class needs
+     * to be thrown. Calling this method at startup moves this cost (and the
+     * possible failure) out of the request path.</p>
+     *
+     * @param exclass the exception class
+     * @param <E> type parameter of the exception class
+     * @throws InstantiationException the class has no suitable constructor
+     */
+    public static <E extends RuntimeException> void prepare(
+        final Class<E> exclass)
+    {
+        getHandle(Objects.requireNonNull(exclass));
     }
 
     @SuppressWarnings("unchecked")
     protected static <E extends RuntimeException> E rethrow(final Class<E> c,
         final Throwable t)
     {
+        final boolean writable
+            = ThrownByLambdaException.getStackTracePolicy().isWritable();
         try {
-            return (E) getHandle(c).invokeExact(t);
+            return (E) getHandle(c).invokeExact(t, writable);
         } catch (InstantiationException e) {
             e.addSuppressed(t);
             throw e;
@@ -86,27 +176,585 @@ public abstract class Chainer<N, T extends N, C extends Chainer<N, T, C>>
         throw (T) throwable;
     }
 
+    /**
+     * Append an element to an array of alternatives
+     *
+     * <p>Chainers keep the alternatives given to {@link #orTryWith(Object)} in
+     * a flat array, which is walked by a single loop on invocation; this
+     * method returns a copy of the array with the new element at the end.</p>
+     *
+     * @param alternatives the current alternatives
+     * @param other the new alternative
+     * @param <X> type parameter of the alternatives
+     * @return a new array
+     */
+    protected static <X> X[] append(final X[] alternatives, final X other)
+    {
+        final int length = alternatives.length;
+        final X[] ret = Arrays.copyOf(alternatives, length + 1);
+        ret[length] = other;
+        return ret;
+    }
+
+    /**
+     * The throwing instance of the whole chain
+     */
     protected final T throwing;
 
+    /**
+     * The metrics of this chainer, or null if it is not instrumented
+     *
+     * @see #instrumented(String)
+     */
+    protected final ChainerMetrics metrics;
+
+    /**
+     * The construction site of this chainer, or null if it is not known
+     *
+     * @see ConstructionSite
+     */
+    protected final ConstructionSite site;
+
+    /**
+     * The exception classes to which the alternatives and policies of this
+     * chainer apply, or null if they apply to all checked exceptions
+     *
+     * @see #on(Class, Class[])
+     */
+    protected final ExceptionFilter filter;
+
     protected Chainer(final T throwing)
+    {
+        this(throwing, null);
+    }
+
+    protected Chainer(final T throwing, final ChainerMetrics metrics)
     {
         this.throwing = throwing;
+        this.metrics = metrics;
+        site = null;
+        filter = null;
+    }
+
+    /**
+     * Constructor for chainers keeping their alternatives in a flat array
+     *
+     * <p>{@link #throwing} is the whole chain: the only alternative if there is
+     * one, or this chainer, which tries all of them, otherwise.</p>
+     *
+     * @param alternatives the alternatives, in order
+     * @param metrics the metrics, or null
+     * @param site the construction site, or null
+     * @param filter the exception filter, or null
+     *
+     * @see #append(Object[], Object)
+     */
+    @SuppressWarnings("unchecked")
+    protected Chainer(final T[] alternatives, final ChainerMetrics metrics,
+        final ConstructionSite site, final ExceptionFilter filter)
+    {
+        throwing = alternatives.length == 1 ? alternatives[0] : (T) this;
+        this.metrics = metrics;
+        this.site = site;
+        this.filter = filter;
+    }
+
+    /**
+     * Return a chainer derived from this chainer
+     *
+     * <p>Implementations must pass the chainers they build from this chainer
+     * (for instance, in {@link #orTryWith(Object)}) through this method, so
+     * that they keep its {@link ConstructionSite construction site} and its
+     * {@link #on(Class, Class[]) exception filter}.</p>
+     *
+     * @param chainer the new chainer
+     * @return the new chainer
+     */
+    protected final C derived(final C chainer)
+    {
+        C ret = chainer;
+        if (site != null && ((Chainer<?, ?, ?>) ret).site != site)
+            ret = ret.withSite(site);
+        if (filter != null && ((Chainer<?, ?, ?>) ret).filter != filter)
+            ret = ret.withFilter(filter);
+        return ret;
+    }
+
+    /**
+     * Record that an alternative is about to be tried
+     *
+     * <p>Implementations must call this method when an alternative fails and
+     * the next one is tried.</p>
+     *
+     * <p>If the exception does not match the {@link #on(Class, Class[])
+     * exception filter} of this chainer, this method throws it as is instead:
+     * the next alternatives are not tried, and the exception is handled by the
+     * policy of the chainer.</p>
+     *
+     * @param throwable the exception thrown by the alternative
+     */
+    protected final void alternativeTried(final Throwable throwable)
+    {
+        if (filter != null && !filter.matches(throwable))
+            throw doSneakyThrow(throwable);
+        if (metrics != null)
+            metrics.alternativeTried(throwable);
+        if (FailureListeners.INSTANCE != null)
+            FailureListeners.INSTANCE.onFailure(throwable, getClass(),
+                "orTryWith");
+    }
+
+    /**
+     * Record that a fallback has been taken
+     *
+     * <p>Implementations must call this method when a policy recovers from a
+     * failure (for instance, {@link #fallbackTo(Object)}).</p>
+     *
+     * <p>If the exception does not match the {@link #on(Class, Class[])
+     * exception filter} of this chainer, the policy must not recover from it:
+     * this method throws it wrapped into a {@link ThrownByLambdaException}
+     * instead, as if the chainer had no policy.</p>
+     *
+     * @param policy the name of the policy
+     * @param throwable the exception recovered from
+     */
+    protected final void fallbackTaken(final String policy,
+        final Throwable throwable)
+    {
+        if (filter != null && !filter.matches(throwable)) {
+            if (metrics != null)
+                metrics.rethrown();
+            throw ThrownByLambdaException.of(this, throwable);
+        }
+        if (metrics != null)
+            metrics.fallbackTaken(policy, throwable);
+        if (FailureListeners.INSTANCE != null)
+            FailureListeners.INSTANCE.onFailure(throwable, getClass(), policy);
+    }
+
+    /**
+     * Record that a failure is about to be rethrown
+     *
+     * <p>Implementations must call this method when a policy rethrows a
+     * failure (for instance, {@link #orThrow(Function)}).</p>
+     *
+     * @param policy the name of the policy
+     * @param throwable the exception
+     */
+    protected final void rethrown(final String policy,
+        final Throwable throwable)
+    {
+        if (metrics != null)
+            metrics.rethrown();
+        if (FailureListeners.INSTANCE != null)
+            FailureListeners.INSTANCE.onFailure(throwable, getClass(), policy);
     }
 
     /**
      * Try with another throwing instance if the first instance fails
      *
+     * <p>Alternatives are tried in the order they were added; chaining several
+     * alternatives does not nest invocations.</p>
+     *
      * @param other the other throwing instance
      * @return a new chain
      */
     public abstract C orTryWith(T other);
 
+    /**
+     * Restrict the alternatives and policies of this chain to some exception
+     * classes
+     *
+     * <p>The alternatives, retries and recovering policies (for instance,
+     * {@link #fallbackTo(Object)}) of the returned chain, and of the chains
+     * derived from it, only apply to exceptions which are instances of one of
+     * the given classes. Other checked exceptions skip the remaining
+     * alternatives and go to the policy unchanged: {@link #orThrow(Function)}
+     * and {@link #sneakyThrow()} rethrow them as usual, while recovering
+     * policies wrap them into a {@link ThrownByLambdaException}, as if no
+     * policy had been set. For instance:</p>
+     *
+     * <pre>
+     *     Throwing.function(Files::size)
+     *         .on(NoSuchFileException.class).orReturn(0L);
+     * </pre>
+     *
+     * <p>returns 0 if the file does not exist, but throws an exception if it
+     * is not readable.</p>
+     *
+     * <p>Calling this method again replaces the classes. The filters of equal
+     * sets of classes are shared; see {@link ExceptionFilter}.</p>
+     *
+     * @param first the first exception class
+     * @param others the other exception classes, if any
+     * @return a new chain
+     */
+    @SafeVarargs
+    public final C on(final Class<? extends Throwable> first,
+        final Class<? extends Throwable>... others)
+    {
+        final Class<?>[] classes = new Class<?>[others.length + 1];
+        classes[0] = first;
+        for (int i = 0; i < others.length; i++)
+            classes[i + 1] = others[i];
+        return withFilter(ExceptionFilter.of(classes));
+    }
+
+    /**
+     * Instrument this chain
+     *
+     * <p>Invocations of the returned chain, and of the alternatives and
+     * policies set on it, are counted in the metrics of the given name.</p>
+     *
+     * @param name the name of the metrics
+     * @return a new chain
+     *
+     * @see ChainerMetrics
+     */
+    public final C instrumented(final String name)
+    {
+        final ChainerMetrics metrics = ChainerMetrics.named(name);
+        return derived(withMetrics(metrics).guardedBy(metrics.guard())
+            .withMetrics(metrics));
+    }
+
+    /**
+     * Time invocations of this chain
+     *
+     * <p>The latency of each invocation is recorded in the histograms of the
+     * timer of the given name; successful and failed invocations are recorded
+     * separately.</p>
+     *
+     * @param name the name of the timer
+     * @return a new chain
+     *
+     * @see ChainerTimer
+     */
+    public final C timed(final String name)
+    {
+        return guarded(ChainerTimer.named(name).guard());
+    }
+
+    /**
+     * Record failures of this chain
+     *
+     * <p>All exceptions thrown by the returned chain, checked or not, are
+     * recorded by the failure recorder of the given name, before alternatives
+     * and policies apply.</p>
+     *
+     * @param name the name of the recorder
+     * @return a new chain
+     *
+     * @see FailureRecorder
+     */
+    public final C recorded(final String name)
+    {
+        return guarded(FailureRecorder.named(name).guard());
+    }
+
+    /**
+     * Protect this chain with a new circuit breaker
+     *
+     * @param config the configuration of the circuit breaker
+     * @return a new chain
+     *
+     * @see #circuitBreaker(CircuitBreaker)
+     */
+    public final C circuitBreaker(final CircuitBreaker.Config config)
+    {
+        return circuitBreaker(new CircuitBreaker(config));
+    }
+
+    /**
+     * Protect this chain with a circuit breaker
+     *
+     * <p>While the breaker is open, invocations of the returned chain fail
+     * immediately with a {@link CircuitBreakerOpenException}, without calling
+     * this chain. Since this is a checked exception, the alternatives and
+     * policies set on the returned chain apply; for instance:</p>
+     *
+     * <pre>
+     *     Throwing.function(remote::lookup)
+     *         .circuitBreaker(breaker).fallbackTo(cache::lookup);
+     * </pre>
+     *
+     * <p>goes straight to the cache while the breaker is open.</p>
+     *
+     * @param breaker the circuit breaker
+     * @return a new chain
+     */
+    public final C circuitBreaker(final CircuitBreaker breaker)
+    {
+        return guarded(breaker.guard());
+    }
+
+    /**
+     * Cap the number of concurrent invocations of this chain
+     *
+     * <p>The returned chain has a bulkhead of its own, which rejects
+     * invocations immediately when full.</p>
+     *
+     * @param maxConcurrent the maximum number of concurrent invocations
+     * @return a new chain
+     *
+     * @see #bulkhead(Bulkhead)
+     */
+    public final C bulkhead(final int maxConcurrent)
+    {
+        return bulkhead(new Bulkhead(maxConcurrent));
+    }
+
+    /**
+     * Cap the number of concurrent invocations of this chain with a bulkhead
+     *
+     * <p>When the bulkhead is full, invocations of the returned chain fail
+     * with a {@link BulkheadFullException}, without calling this chain. Since
+     * this is a checked exception, the alternatives and policies set on the
+     * returned chain apply; for instance:</p>
+     *
+     * <pre>
+     *     Throwing.function(dao::lookup)
+     *         .bulkhead(bulkhead).orReturn(null);
+     * </pre>
+     *
+     * <p>returns null when all the permits of the bulkhead are in use.</p>
+     *
+     * @param bulkhead the bulkhead
+     * @return a new chain
+     */
+    public final C bulkhead(final Bulkhead bulkhead)
+    {
+        return guarded(bulkhead.guard());
+    }
+
+    /**
+     * Limit the rate of invocations of this chain
+     *
+     * <p>The returned chain has a rate limiter of its own; each invocation
+     * takes one permit, waiting for it as long as necessary.</p>
+     *
+     * @param permitsPerSecond the rate of invocations
+     * @param burst the maximum number of invocations without waiting
+     * @return a new chain
+     *
+     * @see RateLimiter
+     */
+    public final C rateLimited(final double permitsPerSecond, final int burst)
+    {
+        return rateLimited(new RateLimiter(permitsPerSecond, burst), 1,
+            Duration.ofNanos(Long.MAX_VALUE));
+    }
+
+    /**
+     * Limit the rate of invocations of this chain with a rate limiter
+     *
+     * <p>Each invocation takes the given number of permits. If they are not
+     * available within the given time, the invocation fails with a {@link
+     * RateLimitExceededException}, without calling this chain; otherwise, it
+     * waits until they are. Since this is a checked exception, the
+     * alternatives and policies set on the returned chain apply; for
+     * instance:</p>
+     *
+     * <pre>
+     *     Throwing.consumer(api::send)
+     *         .rateLimited(limiter, 1, Duration.ZERO).fallbackTo(queue::add);
+     * </pre>
+     *
+     * <p>queues the invocations exceeding the rate instead of waiting.</p>
+     *
+     * @param limiter the rate limiter
+     * @param permits the number of permits per invocation
+     * @param maxWait the maximum time to wait for permits
+     * @return a new chain
+     * @throws IllegalArgumentException the number of permits is not between 1
+     * and the burst of the limiter, or the time is negative
+     */
+    public final C rateLimited(final RateLimiter limiter, final int permits,
+        final Duration maxWait)
+    {
+        return guarded(limiter.guard(permits, maxWait));
+    }
+
+    /**
+     * Limit the number of concurrent invocations of this chain to a limit
+     * adapting to its latency and failures
+     *
+     * <p>The returned chain has a limiter of its own, with the default
+     * configuration.</p>
+     *
+     * @return a new chain
+     *
+     * @see #adaptiveLimit(AdaptiveLimiter)
+     */
+    public final C adaptiveLimit()
+    {
+        return adaptiveLimit(new AdaptiveLimiter(AdaptiveLimiter.config()));
+    }
+
+    /**
+     * Limit the number of concurrent invocations of this chain with an
+     * adaptive limiter
+     *
+     * <p>Invocations beyond the current limit fail with a {@link
+     * ConcurrencyLimitExceededException}, without calling this chain. Since
+     * this is a checked exception, the alternatives and policies set on the
+     * returned chain apply; for instance:</p>
+     *
+     * <pre>
+     *     Throwing.function(remote::lookup)
+     *         .adaptiveLimit(limiter).fallbackTo(cache::lookup);
+     * </pre>
+     *
+     * <p>goes to the cache when the remote service is saturated.</p>
+     *
+     * @param limiter the limiter
+     * @return a new chain
+     */
+    public final C adaptiveLimit(final AdaptiveLimiter limiter)
+    {
+        return guarded(limiter.guard());
+    }
+
+    /**
+     * Retry invocations of this chain which fail
+     *
+     * <p>Failed attempts are retried, after a backoff, as long as the policy
+     * allows it; the exception of the last attempt is then handled by the
+     * alternatives and policies set on the returned chain. For instance:</p>
+     *
+     * <pre>
+     *     Throwing.function(remote::lookup)
+     *         .retry(RetryPolicy.defaults().retryOn(IOException.class))
+     *         .fallbackTo(cache::lookup);
+     * </pre>
+     *
+     * <p>goes to the cache only if all attempts failed.</p>
+     *
+     * @param policy the retry policy
+     * @return a new chain
+     */
+    public final C retry(final RetryPolicy policy)
+    {
+        Objects.requireNonNull(policy);
+        final C chainer = retriedBy(policy);
+        return derived(metrics == null ? chainer
+            : chainer.withMetrics(metrics));
+    }
+
+    /**
+     * Install a retry loop around invocations of this chainer
+     *
+     * <p>Implementations must call {@link #invoked(RetryPolicy)} once per
+     * invocation, then {@link #retryOrThrow(RetryPolicy, int, Throwable)}
+     * after each failed attempt.</p>
+     *
+     * @param policy the retry policy
+     * @return a new chain
+     */
+    protected abstract C retriedBy(RetryPolicy policy);
+
+    /**
+     * Record an invocation of a chain with a retry policy
+     *
+     * @param policy the retry policy
+     */
+    protected static void invoked(final RetryPolicy policy)
+    {
+        policy.invoked();
+    }
+
+    /**
+     * Prepare a new attempt after a failed one, or rethrow its exception
+     *
+     * <p>If the policy retries the failure, and the failure matches the {@link
+     * #on(Class, Class[]) exception filter} of this chainer, if any, this
+     * method sleeps for the backoff then returns; otherwise, or if the thread
+     * is interrupted while sleeping, it throws the exception.</p>
+     *
+     * @param policy the retry policy
+     * @param attempt the number of the failed attempt, starting at 1
+     * @param throwable the exception thrown by the attempt
+     * @throws Throwable see description
+     */
+    protected final void retryOrThrow(final RetryPolicy policy,
+        final int attempt, final Throwable throwable)
+        throws Throwable
+    {
+        if (filter != null && !filter.matches(throwable))
+            throw throwable;
+        if (!policy.retries(attempt, throwable))
+            throw throwable;
+        if (FailureListeners.INSTANCE != null)
+            FailureListeners.INSTANCE.onFailure(throwable, getClass(),
+                "retry");
+        try {
+            TimeUnit.NANOSECONDS.sleep(policy.backoff(attempt));
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            throw throwable;
+        }
+    }
+
+    /**
+     * Install a guard around invocations of this chainer
+     *
+     * <p>Alternatives and policies set on the returned chain apply to the
+     * exceptions returned by {@link Guard#onFailure(long, Throwable)}.</p>
+     *
+     * @param guard the guard
+     * @return a new chain
+     */
+    protected abstract C guardedBy(Guard guard);
+
+    /**
+     * Return a copy of this chainer using the given metrics
+     *
+     * @param metrics the metrics
+     * @return a new chain
+     */
+    protected abstract C withMetrics(ChainerMetrics metrics);
+
+    /**
+     * Return a copy of this chainer using the given construction site
+     *
+     * @param site the construction site
+     * @return a new chain
+     *
+     * @see #derived(Chainer)
+     */
+    protected abstract C withSite(ConstructionSite site);
+
+    /**
+     * Return a copy of this chainer using the given exception filter
+     *
+     * @param filter the exception filter
+     * @return a new chain
+     *
+     * @see #on(Class, Class[])
+     */
+    protected abstract C withFilter(ExceptionFilter filter);
+
+    /*
+     * Install a guard, keeping the metrics of this chainer
+     */
+    private C guarded(final Guard guard)
+    {
+        final C chainer = guardedBy(guard);
+        return derived(metrics == null ? chainer
+            : chainer.withMetrics(metrics));
+    }
+
     /**
      * Rethrow the exception using a custom (unchecked!) exception class if this
      * throwing instance fails
      *
-     * <p>Your custom exception class <strong>must</strong> have a constructor
-     * accepting a single {@link Throwable} as an argument.</p>
+     * <p>Your custom exception class <strong>must</strong> have a public
+     * constructor accepting a single {@link Throwable} as an argument, or a
+     * public constructor with the same arguments as {@link
+     * RuntimeException#RuntimeException(String, Throwable, boolean, boolean)}.
+     * The latter is preferred if present; the stack trace of the generated
+     * exception then obeys the current {@link StackTracePolicy}. You can
+     * validate the class in advance using {@link #prepare(Class)}.</p>
      *
      * <p>The original exception thrown will be the {@link Throwable#getCause()
      * cause} of the generated exception.</p>
@@ -117,8 +765,48 @@ public abstract class Chainer<N, T extends N, C extends Chainer<N, T, C>>
      * @param exclass the exception class
      * @param <E> type parameter of the exception class
      * @return a throwing instance
+     *
+     * @see ThrownByLambdaException#setStackTracePolicy(StackTracePolicy)
+     */
+    public <E extends RuntimeException> T orThrow(final Class<E> exclass)
+    {
+        Objects.requireNonNull(exclass);
+        return orThrow(throwable -> ConstructionSite.attach(
+            rethrow(exclass, throwable), this));
+    }
+
+    /**
+     * Rethrow the exception using an (unchecked!) exception built by a factory
+     * if this throwing instance fails
+     *
+     * <p>The factory is given the original exception as an argument.</p>
+     *
+     * <p>All instances of {@link Error} or {@link RuntimeException} thrown by
+     * the instance are thrown as is.</p>
+     *
+     * @param factory the exception factory
+     * @param <E> type parameter of the exception class
+     * @return a throwing instance
+     */
+    public abstract <E extends RuntimeException> T orThrow(
+        Function<? super Throwable, E> factory);
+
+    /**
+     * Rethrow the exception using the translation registered for its class if
+     * this throwing instance fails
+     *
+     * <p>All instances of {@link Error} or {@link RuntimeException} thrown by
+     * the instance are thrown as is.</p>
+     *
+     * @return a throwing instance
+     *
+     * @see ExceptionTranslations
      */
-    public abstract <E extends RuntimeException> T orThrow(Class<E> exclass);
+    public final T orTranslate()
+    {
+        return orThrow(throwable -> ConstructionSite.attach(
+            ExceptionTranslations.translate(throwable), this));
+    }
 
     /**
      * Fall back to a non throwing instance if this instance fails
@@ -136,6 +824,78 @@ public abstract class Chainer<N, T extends N, C extends Chainer<N, T, C>>
      */
     public abstract N sneakyThrow();
 
+    /**
+     * Return a non throwing instance with the default policy, whose class is
+     * its own
+     *
+     * <p>The default methods of throwing interfaces are shared by all their
+     * implementations: when they are given many different throwing instances,
+     * their call to the throwing method becomes megamorphic, and the JIT
+     * compiler no longer inlines it. The class of the returned instance is a
+     * private copy of a template class, so this call stays monomorphic. If
+     * this chain has no alternatives, the copy calls the throwing instance
+     * directly.</p>
+     *
+     * <p>Defining a class is expensive: use this method for long lived
+     * instances only. If classes cannot be defined at runtime (see {@link
+     * #isSpecializationSupported()}), the returned instance shares the
+     * template class with other instances.</p>
+     *
+     * @return a non throwing instance
+     */
+    public abstract N specialized();
+
+    /**
+     * Tell whether {@link #specialized()} defines a class of its own for each
+     * instance
+     *
+     * <p>This is the case on all JVMs offering either {@code
+     * Lookup.defineHiddenClass()} or {@code Unsafe.defineAnonymousClass()}.
+     * </p>
+     *
+     * @return true if classes can be defined at runtime
+     */
+    public static boolean isSpecializationSupported()
+    {
+        return ClassDefiner.isSupported();
+    }
+
+    /**
+     * Instantiate a private copy of a template class
+     *
+     * <p>The template class must be in the package of the lookup class, and
+     * have a constructor accepting the throwing instance to invoke and this
+     * chainer, both as {@link Object}s.</p>
+     *
+     * @param lookup a lookup with full access on the class of the chainer
+     * @param template the template class
+     * @param target the throwing instance to invoke
+     * @return the new instance
+     * @throws IllegalStateException the copy cannot be defined or
+     * instantiated
+     *
+     * @see #specialized()
+     */
+    @SuppressWarnings("unchecked")
+    protected final N specialize(final Lookup lookup, final Class<?> template,
+        final Object target)
+    {
+        return (N) Specializer.specialize(lookup, template, target, this);
+    }
+
+    /**
+     * Compile the terminal policy of this chainer into a method handle tree
+     *
+     * <p>This is an alternative to the policy methods of this class; see
+     * {@link PolicyCompiler} for details, and for what the tree includes.</p>
+     *
+     * @return a policy compiler for this chainer
+     */
+    public final PolicyCompiler<N> compiled()
+    {
+        return new PolicyCompiler<>(this);
+    }
+
     /**
      * Exception thrown when an instance of an exception class cannot be built
      *
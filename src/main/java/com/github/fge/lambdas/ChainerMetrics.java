@@ -0,0 +1,328 @@
+package com.github.fge.lambdas;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation and failure counters for instrumented chainers
+ *
+ * <p>Instances of this class are obtained by name, and are shared by all
+ * chainers instrumented using this name (see {@link
+ * Chainer#instrumented(String)}). The following are counted:</p>
+ *
+ * <ul>
+ *     <li>invocations;</li>
+ *     <li>successful invocations;</li>
+ *     <li>invocations which failed with a checked exception;</li>
+ *     <li>alternatives tried (see {@link Chainer#orTryWith(Object)});</li>
+ *     <li>fallbacks taken (see {@link Chainer#fallbackTo(Object)} and
+ *     similar policies).</li>
+ * </ul>
+ *
+ * <p>Counters are {@link LongAdder}s, so that contended chainers do not
+ * suffer. Chainers which are not instrumented do not touch any counter.</p>
+ *
+ * <p>When JDK Flight Recorder is available and recording, failures of
+ * instrumented chainers which are hidden by an alternative or a fallback,
+ * including alternatives of the instrumented chainer itself, are also
+ * recorded as {@code com.github.fge.lambdas.ChainerFailure} events.</p>
+ *
+ * <p>Metrics can also be exposed over JMX; see {@link #registerMXBean()}.</p>
+ */
+public final class ChainerMetrics
+{
+    private static final ConcurrentMap<String, ChainerMetrics> REGISTRY
+        = new ConcurrentHashMap<>();
+
+    private static final FailureEvents EVENTS = FailureEvents.INSTANCE;
+
+    private static final int FAILURE_WINDOW = 60;
+
+    /*
+     * Token of invocations which are not timed; System.nanoTime() may return
+     * any value, including zero or negative ones, but this one is unlikely
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final String name;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder alternatives = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private final SlidingWindowCounter recentFailures
+        = new SlidingWindowCounter(FAILURE_WINDOW);
+    private volatile Class<? extends Throwable> lastFailureClass;
+    private volatile long lastFailureTimestamp;
+
+    private final Guard guard = new Guard()
+    {
+        @Override
+        public long enter()
+        {
+            invocations.increment();
+            return EVENTS.isEnabled() ? System.nanoTime() : NOT_TIMED;
+        }
+
+        @Override
+        public void onSuccess(final long token)
+        {
+            successes.increment();
+        }
+
+        @Override
+        public Throwable onFailure(final long token, final Throwable throwable)
+        {
+            if (throwable instanceof Error
+                || throwable instanceof RuntimeException)
+                return throwable;
+            failures.increment();
+            final long now = System.nanoTime();
+            recentFailures.increment(now);
+            lastFailureClass = throwable.getClass();
+            lastFailureTimestamp = System.currentTimeMillis();
+            if (token != NOT_TIMED)
+                EVENTS.failed(name, throwable, now - token);
+            return throwable;
+        }
+    };
+
+    private ChainerMetrics(final String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Get the metrics for a given name, creating them if necessary
+     *
+     * @param name the name
+     * @return the metrics
+     */
+    public static ChainerMetrics named(final String name)
+    {
+        Objects.requireNonNull(name);
+        final ChainerMetrics ret = REGISTRY.get(name);
+        return ret != null ? ret
+            : REGISTRY.computeIfAbsent(name, ChainerMetrics::new);
+    }
+
+    /**
+     * Take a snapshot of all registered metrics
+     *
+     * <p>This does not block instrumented chainers; the counters of a single
+     * snapshot may however not be consistent with one another if chainers are
+     * invoked concurrently.</p>
+     *
+     * @return an unmodifiable map of snapshots, by name
+     */
+    public static Map<String, Snapshot> snapshot()
+    {
+        final Map<String, Snapshot> ret = new LinkedHashMap<>();
+        REGISTRY.forEach((name, metrics) -> ret.put(name, metrics.get()));
+        return Collections.unmodifiableMap(ret);
+    }
+
+    /**
+     * Take a snapshot of these metrics
+     *
+     * @return a snapshot
+     */
+    public Snapshot get()
+    {
+        return new Snapshot(this);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Register these metrics in the platform MBean server
+     *
+     * <p>Registering the same metrics more than once has no effect.</p>
+     *
+     * @return the object name of the registered MXBean
+     * @throws IllegalStateException registration failed
+     *
+     * @see ChainerMetricsMXBean
+     */
+    public ObjectName registerMXBean()
+    {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName objectName = new ObjectName(
+                "com.github.fge.lambdas:type=ChainerMetrics,name="
+                + ObjectName.quote(name));
+            synchronized (this) {
+                if (!server.isRegistered(objectName))
+                    server.registerMBean(new MXBeanAdapter(this), objectName);
+            }
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register metrics "
+                + name, e);
+        }
+    }
+
+    Guard guard()
+    {
+        return guard;
+    }
+
+    void alternativeTried(final Throwable throwable)
+    {
+        alternatives.increment();
+        if (EVENTS.isEnabled())
+            EVENTS.recovered(name, "orTryWith", throwable);
+    }
+
+    void fallbackTaken(final String policy, final Throwable throwable)
+    {
+        fallbacks.increment();
+        if (EVENTS.isEnabled())
+            EVENTS.recovered(name, policy, throwable);
+    }
+
+    void rethrown()
+    {
+        if (EVENTS.isEnabled())
+            EVENTS.rethrown();
+    }
+
+    private static final class MXBeanAdapter
+        implements ChainerMetricsMXBean
+    {
+        private final ChainerMetrics metrics;
+
+        private MXBeanAdapter(final ChainerMetrics metrics)
+        {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public String getName()
+        {
+            return metrics.name;
+        }
+
+        @Override
+        public long getInvocations()
+        {
+            return metrics.invocations.sum();
+        }
+
+        @Override
+        public long getSuccesses()
+        {
+            return metrics.successes.sum();
+        }
+
+        @Override
+        public long getFailures()
+        {
+            return metrics.failures.sum();
+        }
+
+        @Override
+        public long getAlternatives()
+        {
+            return metrics.alternatives.sum();
+        }
+
+        @Override
+        public long getFallbacks()
+        {
+            return metrics.fallbacks.sum();
+        }
+
+        @Override
+        public String getLastFailureClass()
+        {
+            final Class<? extends Throwable> c = metrics.lastFailureClass;
+            return c == null ? null : c.getName();
+        }
+
+        @Override
+        public long getLastFailureTimestamp()
+        {
+            return metrics.lastFailureTimestamp;
+        }
+
+        @Override
+        public double getFailuresPerSecond()
+        {
+            return metrics.recentFailures.rate(System.nanoTime());
+        }
+    }
+
+    /**
+     * Snapshot of the counters of a {@link ChainerMetrics} instance
+     */
+    public static final class Snapshot
+    {
+        private final long invocations;
+        private final long successes;
+        private final long failures;
+        private final long alternatives;
+        private final long fallbacks;
+
+        private Snapshot(final ChainerMetrics metrics)
+        {
+            invocations = metrics.invocations.sum();
+            successes = metrics.successes.sum();
+            failures = metrics.failures.sum();
+            alternatives = metrics.alternatives.sum();
+            fallbacks = metrics.fallbacks.sum();
+        }
+
+        public long getInvocations()
+        {
+            return invocations;
+        }
+
+        public long getSuccesses()
+        {
+            return successes;
+        }
+
+        /**
+         * Get the number of invocations which failed with a checked exception
+         *
+         * @return the number of failures
+         */
+        public long getFailures()
+        {
+            return failures;
+        }
+
+        public long getAlternatives()
+        {
+            return alternatives;
+        }
+
+        public long getFallbacks()
+        {
+            return fallbacks;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "invocations=" + invocations + ", successes=" + successes
+                + ", failures=" + failures + ", alternatives=" + alternatives
+                + ", fallbacks=" + fallbacks;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.fge.lambdas;
+
+/**
+ * Management interface of {@link ChainerMetrics}
+ *
+ * <p>Instances are registered in the platform MBean server using {@link
+ * ChainerMetrics#registerMXBean()}, under the object name {@code
+ * com.github.fge.lambdas:type=ChainerMetrics,name="<name>"}.</p>
+ */
+public interface ChainerMetricsMXBean
+{
+    String getName();
+
+    long getInvocations();
+
+    long getSuccesses();
+
+    /**
+     * Get the number of invocations which failed with a checked exception
+     *
+     * @return the number of failures
+     */
+    long getFailures();
+
+    long getAlternatives();
+
+    long getFallbacks();
+
+    /**
+     * Get the class of the last checked exception
+     *
+     * @return the class name; null if no invocation has failed
+     */
+    String getLastFailureClass();
+
+    /**
+     * Get the time of the last failure
+     *
+     * @return the time, in milliseconds since the epoch; 0 if no invocation
+     * has failed
+     */
+    long getLastFailureTimestamp();
+
+    /**
+     * Get the average number of failures per second over the last minute
+     *
+     * <p>This is a frequency, not a proportion of invocations: a chainer
+     * failing once every two seconds reports 0.5 whether it is invoked once
+     * or a million times per second.</p>
+     *
+     * @return the number of failures per second
+     */
+    double getFailuresPerSecond();
+}
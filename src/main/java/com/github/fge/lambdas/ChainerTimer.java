@@ -0,0 +1,95 @@
+package com.github.fge.lambdas;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency histograms of timed chainers
+ *
+ * <p>Instances of this class are obtained by name, and are shared by all
+ * chainers timed using this name (see {@link Chainer#timed(String)}). Each
+ * instance holds two histograms: one for successful invocations, and one for
+ * failed invocations (whatever the exception).</p>
+ */
+public final class ChainerTimer
+{
+    private static final ConcurrentMap<String, ChainerTimer> REGISTRY
+        = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final LatencyHistogram successes = new LatencyHistogram();
+    private final LatencyHistogram failures = new LatencyHistogram();
+
+    private final Guard guard = new Guard()
+    {
+        @Override
+        public long enter()
+        {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void onSuccess(final long token)
+        {
+            successes.record(System.nanoTime() - token);
+        }
+
+        @Override
+        public Throwable onFailure(final long token, final Throwable throwable)
+        {
+            failures.record(System.nanoTime() - token);
+            return throwable;
+        }
+    };
+
+    private ChainerTimer(final String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Get the timer for a given name, creating it if necessary
+     *
+     * @param name the name
+     * @return the timer
+     */
+    public static ChainerTimer named(final String name)
+    {
+        Objects.requireNonNull(name);
+        final ChainerTimer ret = REGISTRY.get(name);
+        return ret != null ? ret
+            : REGISTRY.computeIfAbsent(name, ChainerTimer::new);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the histogram of successful invocations
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getSuccesses()
+    {
+        return successes;
+    }
+
+    /**
+     * Get the histogram of failed invocations
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getFailures()
+    {
+        return failures;
+    }
+
+    Guard guard()
+    {
+        return guard;
+    }
+}
@@ -0,0 +1,341 @@
+package com.github.fge.lambdas;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free circuit breaker for chainers
+ *
+ * <p>A circuit breaker is installed on a chain using {@link
+ * Chainer#circuitBreaker(CircuitBreaker)}; it may be shared by several chains
+ * calling the same dependency. It has three states:</p>
+ *
+ * <ul>
+ *     <li>{@link State#CLOSED closed}: invocations are permitted, and their
+ *     outcomes counted over a sliding window; when the failure rate over this
+ *     window reaches a threshold, the breaker opens;</li>
+ *     <li>{@link State#OPEN open}: invocations are rejected with a {@link
+ *     CircuitBreakerOpenException}, without calling the chain; the breaker
+ *     turns half open after a given duration;</li>
+ *     <li>{@link State#HALF_OPEN half open}: a given number of trial
+ *     invocations are permitted, and the others rejected; the breaker closes
+ *     if all trial invocations succeed, and opens again as soon as one of them
+ *     fails.</li>
+ * </ul>
+ *
+ * <p>All exceptions count as failures, checked or not. The outcomes of
+ * invocations permitted before a change of state are ignored.</p>
+ *
+ * <p>The state of the breaker is an immutable object swapped using
+ * compare-and-set; only changes of state allocate. Permitted invocations cost
+ * a volatile read, plus an atomic increment per outcome while closed.</p>
+ */
+public final class CircuitBreaker
+{
+    /**
+     * States of a circuit breaker
+     */
+    public enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final Config DEFAULTS
+        = new Config(50, 20, 10, Duration.ofSeconds(10L).toNanos(), 5);
+
+    private final Config config;
+    private final LongSupplier clock;
+    private final CircuitBreakerOpenException rejected
+        = new CircuitBreakerOpenException(this);
+    private final AtomicReference<Phase> phase;
+
+    private final Guard guard = new Guard()
+    {
+        @Override
+        public long enter()
+            throws CircuitBreakerOpenException
+        {
+            return permit();
+        }
+
+        @Override
+        public void onSuccess(final long token)
+        {
+            succeeded(token);
+        }
+
+        @Override
+        public Throwable onFailure(final long token, final Throwable throwable)
+        {
+            failed(token);
+            return throwable;
+        }
+    };
+
+    /**
+     * Create a new circuit breaker
+     *
+     * @param config the configuration
+     *
+     * @see #config()
+     */
+    public CircuitBreaker(final Config config)
+    {
+        this(config, System::nanoTime);
+    }
+
+    CircuitBreaker(final Config config, final LongSupplier clock)
+    {
+        this.config = Objects.requireNonNull(config);
+        this.clock = clock;
+        phase = new AtomicReference<>(closed(0L));
+    }
+
+    /**
+     * Get the default configuration
+     *
+     * <p>By default, a circuit breaker opens when at least 50% of at least 20
+     * invocations failed over the last 10 seconds; it stays open for 10
+     * seconds, and permits 5 trial invocations when half open.</p>
+     *
+     * @return the default configuration
+     */
+    public static Config config()
+    {
+        return DEFAULTS;
+    }
+
+    public State getState()
+    {
+        return phase.get().state;
+    }
+
+    Guard guard()
+    {
+        return guard;
+    }
+
+    private long permit()
+        throws CircuitBreakerOpenException
+    {
+        while (true) {
+            final Phase current = phase.get();
+            if (current.state == State.CLOSED)
+                return current.generation;
+            if (current.state == State.HALF_OPEN) {
+                if (current.takeTrial())
+                    return current.generation;
+                throw rejected;
+            }
+            final long now = clock.getAsLong();
+            if (now - current.since < config.openNanos)
+                throw rejected;
+            phase.compareAndSet(current, new Phase(State.HALF_OPEN,
+                current.generation + 1L, now, null, null,
+                config.halfOpenCalls));
+        }
+    }
+
+    private void succeeded(final long token)
+    {
+        final Phase current = phase.get();
+        if (current.generation != token)
+            return;
+        if (current.state == State.CLOSED)
+            current.calls.increment(clock.getAsLong());
+        else if (current.state == State.HALF_OPEN
+            && current.successes.incrementAndGet() == config.halfOpenCalls)
+            phase.compareAndSet(current, closed(current.generation + 1L));
+    }
+
+    private void failed(final long token)
+    {
+        final Phase current = phase.get();
+        if (current.generation != token)
+            return;
+        final long now = clock.getAsLong();
+        if (current.state == State.CLOSED) {
+            current.calls.increment(now);
+            current.failures.increment(now);
+            final long calls = current.calls.sum(now);
+            if (calls < config.minimumCalls || current.failures.sum(now) * 100L
+                < config.failureRateThreshold * calls)
+                return;
+        }
+        phase.compareAndSet(current, new Phase(State.OPEN,
+            current.generation + 1L, now, null, null, 0));
+    }
+
+    private Phase closed(final long generation)
+    {
+        return new Phase(State.CLOSED, generation, 0L,
+            new SlidingWindowCounter(config.windowSeconds),
+            new SlidingWindowCounter(config.windowSeconds), 0);
+    }
+
+    /*
+     * Immutable state, plus the counters of this state
+     *
+     * The generation is incremented at each change of state; it is the token
+     * returned by the guard, so that the outcomes of invocations permitted in
+     * a previous state are ignored.
+     */
+    private static final class Phase
+    {
+        private final State state;
+        private final long generation;
+        private final long since;
+        private final SlidingWindowCounter calls;
+        private final SlidingWindowCounter failures;
+        private final AtomicInteger trials;
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private Phase(final State state, final long generation,
+            final long since, final SlidingWindowCounter calls,
+            final SlidingWindowCounter failures, final int trials)
+        {
+            this.state = state;
+            this.generation = generation;
+            this.since = since;
+            this.calls = calls;
+            this.failures = failures;
+            this.trials = new AtomicInteger(trials);
+        }
+
+        private boolean takeTrial()
+        {
+            int left;
+            do {
+                left = trials.get();
+                if (left == 0)
+                    return false;
+            } while (!trials.compareAndSet(left, left - 1));
+            return true;
+        }
+    }
+
+    /**
+     * Immutable configuration of a circuit breaker
+     *
+     * <p>Start from {@link CircuitBreaker#config()}; each method of this class
+     * returns a modified copy. For instance:</p>
+     *
+     * <pre>
+     *     final CircuitBreaker.Config config = CircuitBreaker.config()
+     *         .failureRateThreshold(25)
+     *         .openDuration(Duration.ofSeconds(30L));
+     * </pre>
+     */
+    public static final class Config
+    {
+        private static final long MAX_WINDOW = 3600L;
+
+        private final int failureRateThreshold;
+        private final int minimumCalls;
+        private final int windowSeconds;
+        private final long openNanos;
+        private final int halfOpenCalls;
+
+        private Config(final int failureRateThreshold, final int minimumCalls,
+            final int windowSeconds, final long openNanos,
+            final int halfOpenCalls)
+        {
+            this.failureRateThreshold = failureRateThreshold;
+            this.minimumCalls = minimumCalls;
+            this.windowSeconds = windowSeconds;
+            this.openNanos = openNanos;
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        /**
+         * Set the failure rate, in percent, at which the breaker opens
+         *
+         * @param percent the failure rate
+         * @return a new configuration
+         * @throws IllegalArgumentException rate is not between 1 and 100
+         */
+        public Config failureRateThreshold(final int percent)
+        {
+            if (percent < 1 || percent > 100)
+                throw new IllegalArgumentException("illegal failure rate "
+                    + percent);
+            return new Config(percent, minimumCalls, windowSeconds, openNanos,
+                halfOpenCalls);
+        }
+
+        /**
+         * Set the number of invocations over the window below which the
+         * breaker does not open, whatever the failure rate
+         *
+         * @param calls the number of invocations
+         * @return a new configuration
+         * @throws IllegalArgumentException number is not strictly positive
+         */
+        public Config minimumCalls(final int calls)
+        {
+            if (calls <= 0)
+                throw new IllegalArgumentException("illegal number of calls "
+                    + calls);
+            return new Config(failureRateThreshold, calls, windowSeconds,
+                openNanos, halfOpenCalls);
+        }
+
+        /**
+         * Set the duration of the window over which the failure rate is
+         * computed
+         *
+         * <p>The window is rounded up to the second.</p>
+         *
+         * @param window the duration
+         * @return a new configuration
+         * @throws IllegalArgumentException duration is not between 1 second
+         * and 1 hour
+         */
+        public Config window(final Duration window)
+        {
+            final long seconds = window.getSeconds()
+                + (window.getNano() == 0 ? 0L : 1L);
+            if (seconds < 1L || seconds > MAX_WINDOW)
+                throw new IllegalArgumentException("illegal window " + window);
+            return new Config(failureRateThreshold, minimumCalls,
+                (int) seconds, openNanos, halfOpenCalls);
+        }
+
+        /**
+         * Set the duration for which the breaker stays open
+         *
+         * @param duration the duration
+         * @return a new configuration
+         * @throws IllegalArgumentException duration is not strictly positive
+         */
+        public Config openDuration(final Duration duration)
+        {
+            if (duration.isNegative() || duration.isZero())
+                throw new IllegalArgumentException("illegal duration "
+                    + duration);
+            return new Config(failureRateThreshold, minimumCalls,
+                windowSeconds, duration.toNanos(), halfOpenCalls);
+        }
+
+        /**
+         * Set the number of trial invocations permitted when half open
+         *
+         * @param calls the number of invocations
+         * @return a new configuration
+         * @throws IllegalArgumentException number is not strictly positive
+         */
+        public Config halfOpenCalls(final int calls)
+        {
+            if (calls <= 0)
+                throw new IllegalArgumentException("illegal number of calls "
+                    + calls);
+            return new Config(failureRateThreshold, minimumCalls,
+                windowSeconds, openNanos, calls);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.fge.lambdas;
+
+/**
+ * Exception thrown by chainers whose circuit breaker rejects an invocation
+ *
+ * <p>This is a checked exception, so that the policies of the chainer apply
+ * to it: with {@link Chainer#fallbackTo(Object)}, for instance, a rejected
+ * invocation goes straight to the fallback.</p>
+ *
+ * <p>Each circuit breaker throws a single, preallocated instance of this
+ * class, which has no stack trace and no suppressed exceptions: rejecting an
+ * invocation costs nothing.</p>
+ *
+ * @see Chainer#circuitBreaker(CircuitBreaker)
+ */
+public final class CircuitBreakerOpenException
+    extends Exception
+{
+    private static final long serialVersionUID = 1L;
+
+    private final transient CircuitBreaker breaker;
+
+    CircuitBreakerOpenException(final CircuitBreaker breaker)
+    {
+        super("circuit breaker is open", null, false, false);
+        this.breaker = breaker;
+    }
+
+    /**
+     * Get the circuit breaker which rejected the invocation
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker()
+    {
+        return breaker;
+    }
+}
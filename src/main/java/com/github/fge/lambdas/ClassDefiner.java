@@ -0,0 +1,197 @@
+package com.github.fge.lambdas;
+
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Definition of classes unloaded once unreachable
+ *
+ * <p>This implementation looks up {@code Lookup.defineHiddenClass()} (Java 15
+ * and later) or {@code Unsafe.defineAnonymousClass()} (Java 14 and earlier)
+ * reflectively; the jar ships a version calling the former directly for Java
+ * 17 and later.</p>
+ *
+ * <p>Templates are nested classes. An anonymous class defined from their
+ * bytecode keeps their {@code InnerClasses} attribute, which names it as a
+ * member of a class which does not list it: the JVM then throws an {@link
+ * IncompatibleClassChangeError} from {@link Class#getDeclaringClass()}, which
+ * {@link Lookup#in(Class)} calls. Nesting attributes are therefore removed
+ * from the bytecode given to {@code Unsafe.defineAnonymousClass()}: the copy
+ * is a top level class.</p>
+ *
+ * @see Specializer
+ */
+final class ClassDefiner
+{
+    private static final Definer DEFINER = definer();
+
+    private ClassDefiner()
+    {
+        throw new Error("nice try!");
+    }
+
+    /**
+     * Tell whether this JVM offers a way to define classes
+     *
+     * @return true if {@link #define(Lookup, byte[])} can be called
+     */
+    static boolean isSupported()
+    {
+        return DEFINER != null;
+    }
+
+    /**
+     * Define a class in the package of a lookup class
+     *
+     * @param lookup a lookup with full access on the lookup class
+     * @param bytecode the bytecode of the class
+     * @return a lookup on the new class
+     * @throws Throwable the class cannot be defined
+     * @throws UnsupportedOperationException classes cannot be defined on
+     * this JVM
+     */
+    static Lookup define(final Lookup lookup, final byte[] bytecode)
+        throws Throwable
+    {
+        if (DEFINER == null)
+            throw new UnsupportedOperationException("classes cannot be "
+                + "defined on this JVM");
+        try {
+            return DEFINER.define(lookup, bytecode);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Definer definer()
+    {
+        try {
+            final Class<?> options = Class.forName(
+                "java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            final Object noOptions = Array.newInstance(options, 0);
+            final Method method = Lookup.class.getMethod("defineHiddenClass",
+                byte[].class, boolean.class, noOptions.getClass());
+            return (lookup, bytecode) -> (Lookup) method.invoke(lookup,
+                bytecode, true, noOptions);
+        } catch (ReflectiveOperationException ignored) {
+            // Java 14 or earlier
+        }
+        try {
+            final Class<?> c = Class.forName("sun.misc.Unsafe");
+            final Field field = c.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            final Method method = c.getMethod("defineAnonymousClass",
+                Class.class, byte[].class, Object[].class);
+            return (lookup, bytecode) -> lookup.in((Class<?>) method.invoke(
+                unsafe, lookup.lookupClass(), withoutNesting(bytecode), null));
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // not available
+        }
+        return null;
+    }
+
+    /*
+     * Class attributes removed by withoutNesting()
+     */
+    private static final Set<String> NESTING = new HashSet<>(Arrays.asList(
+        "InnerClasses", "EnclosingMethod", "NestHost", "NestMembers"));
+
+    /*
+     * Remove the nesting attributes of a class file; see the class javadoc
+     */
+    static byte[] withoutNesting(final byte[] bytecode)
+    {
+        final ByteBuffer in = ByteBuffer.wrap(bytecode);
+
+        in.position(8);
+        final int poolSize = in.getShort() & 0xFFFF;
+        final String[] utf8 = new String[poolSize];
+        for (int i = 1; i < poolSize; i++) {
+            final int tag = in.get();
+            switch (tag) {
+                case 1: /* Utf8 */
+                    final byte[] bytes = new byte[in.getShort() & 0xFFFF];
+                    in.get(bytes);
+                    utf8[i] = new String(bytes, StandardCharsets.UTF_8);
+                    break;
+                case 7: case 8: case 16: case 19: case 20:
+                    skip(in, 2);
+                    break;
+                case 15:
+                    skip(in, 3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17:
+                case 18:
+                    skip(in, 4);
+                    break;
+                case 5: case 6: /* Long, Double: two entries */
+                    skip(in, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown constant "
+                        + "pool tag " + tag);
+            }
+        }
+
+        skip(in, 6);
+        skip(in, 2 * (in.getShort() & 0xFFFF));
+        skipMembers(in);
+        skipMembers(in);
+
+        final int start = in.position();
+        final int count = in.getShort() & 0xFFFF;
+        final ByteBuffer out = ByteBuffer.allocate(bytecode.length);
+        out.put(bytecode, 0, start);
+        out.putShort((short) 0);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            final int from = in.position();
+            final String name = utf8[in.getShort() & 0xFFFF];
+            skip(in, in.getInt());
+            if (NESTING.contains(name))
+                continue;
+            out.put(bytecode, from, in.position() - from);
+            kept++;
+        }
+        out.putShort(start, (short) kept);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /*
+     * Skip the fields or methods of a class file
+     */
+    private static void skipMembers(final ByteBuffer in)
+    {
+        final int count = in.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            skip(in, 6);
+            final int attributes = in.getShort() & 0xFFFF;
+            for (int j = 0; j < attributes; j++) {
+                skip(in, 2);
+                skip(in, in.getInt());
+            }
+        }
+    }
+
+    private static void skip(final ByteBuffer in, final int count)
+    {
+        in.position(in.position() + count);
+    }
+
+    @FunctionalInterface
+    private interface Definer
+    {
+        Lookup define(Lookup lookup, byte[] bytecode)
+            throws Throwable;
+    }
+}
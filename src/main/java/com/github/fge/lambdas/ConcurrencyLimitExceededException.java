@@ -0,0 +1,37 @@
+package com.github.fge.lambdas;
+
+/**
+ * Exception thrown by chainers whose adaptive limiter rejects an invocation
+ *
+ * <p>This is a checked exception, so that the policies of the chainer apply
+ * to it: with {@link Chainer#fallbackTo(Object)}, for instance, a rejected
+ * invocation goes straight to the fallback.</p>
+ *
+ * <p>Each limiter throws a single, preallocated instance of this class, which
+ * has no stack trace and no suppressed exceptions.</p>
+ *
+ * @see Chainer#adaptiveLimit(AdaptiveLimiter)
+ */
+public final class ConcurrencyLimitExceededException
+    extends Exception
+{
+    private static final long serialVersionUID = 1L;
+
+    private final transient AdaptiveLimiter limiter;
+
+    ConcurrencyLimitExceededException(final AdaptiveLimiter limiter)
+    {
+        super("concurrency limit exceeded", null, false, false);
+        this.limiter = limiter;
+    }
+
+    /**
+     * Get the limiter which rejected the invocation
+     *
+     * @return the limiter
+     */
+    public AdaptiveLimiter getLimiter()
+    {
+        return limiter;
+    }
+}
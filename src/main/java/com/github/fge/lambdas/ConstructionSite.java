@@ -0,0 +1,147 @@
+package com.github.fge.lambdas;
+
+/**
+ * Site of the code which built a chainer
+ *
+ * <p>The stack trace of an exception tells where it was thrown, not which
+ * code built the chainer it was thrown by; and filling in stack traces is
+ * expensive (see {@link StackTracePolicy}). When capture is enabled, the
+ * factory methods of {@link Throwing} record the frame of their caller, once
+ * per lambda class. Exceptions thrown by the default policy of the chainer,
+ * by {@link Chainer#orThrow(Class)} or by {@link Chainer#orTranslate()} then
+ * carry this site as a {@link Throwable#getSuppressed() suppressed}
+ * exception, built for each of them, whose stack trace is this single frame,
+ * whatever the stack trace policy in effect.</p>
+ *
+ * <p>Since sites are cached by lambda class, a lambda (or method reference)
+ * given to several factory methods is attributed to the first site it was
+ * seen at.</p>
+ *
+ * <p>Capture is disabled by default; it only applies to chainers built after
+ * it has been enabled.</p>
+ */
+public final class ConstructionSite
+{
+    private static final String FACADE = Throwing.class.getName();
+
+    private static volatile boolean enabled = false;
+
+    /**
+     * Enable or disable the capture of construction sites
+     *
+     * @param enabled true to enable capture
+     */
+    public static void setEnabled(final boolean enabled)
+    {
+        ConstructionSite.enabled = enabled;
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Find the construction site attached to an exception
+     *
+     * @param throwable the exception
+     * @return the site; null if no site is attached
+     */
+    public static StackTraceElement of(final Throwable throwable)
+    {
+        for (final Throwable suppressed: throwable.getSuppressed())
+            if (suppressed instanceof Trace)
+                return ((Trace) suppressed).site;
+        return null;
+    }
+
+    /*
+     * The parameter is erased to Object on purpose: if it were erased to
+     * Chainer, verifying Throwing would load every chainer class.
+     */
+    static <X> X capture(final X chainer)
+    {
+        return enabled ? doCapture(chainer) : chainer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X> X doCapture(final X chainer)
+    {
+        final Chainer<?, ?, ?> c = (Chainer<?, ?, ?>) chainer;
+        if (c.throwing == null)
+            return chainer;
+        final ConstructionSite site = Sites.SITES.get(c.throwing.getClass());
+        return site == null ? chainer : (X) c.withSite(site);
+    }
+
+    static <X extends Throwable> X attach(final X throwable,
+        final Object source)
+    {
+        if (source instanceof Chainer) {
+            final ConstructionSite site = ((Chainer<?, ?, ?>) source).site;
+            if (site != null)
+                throwable.addSuppressed(new Trace(site.site));
+        }
+        return throwable;
+    }
+
+    private final StackTraceElement site;
+
+    private ConstructionSite(final StackTraceElement site)
+    {
+        this.site = site;
+    }
+
+    public StackTraceElement getSite()
+    {
+        return site;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "chainer built at " + site;
+    }
+
+    /*
+     * The suppressed exception attached to failures; a new instance is built
+     * for each of them, since an exception cannot be shared
+     */
+    private static final class Trace
+        extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final StackTraceElement site;
+
+        private Trace(final StackTraceElement site)
+        {
+            super("chainer built at " + site, null, false, true);
+            this.site = site;
+            setStackTrace(new StackTraceElement[] { site });
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace()
+        {
+            return this;
+        }
+    }
+
+    /*
+     * Only loaded once capture is enabled
+     */
+    private static final class Sites
+    {
+        private static final ClassValue<ConstructionSite> SITES
+            = new ClassValue<ConstructionSite>()
+        {
+            @Override
+            protected ConstructionSite computeValue(final Class<?> type)
+            {
+                final StackTraceElement site = StackFrames.callerOf(FACADE);
+                return site == null ? null : new ConstructionSite(site);
+            }
+        };
+    }
+}
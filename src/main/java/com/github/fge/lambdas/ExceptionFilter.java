@@ -0,0 +1,87 @@
+package com.github.fge.lambdas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Set of exception classes to which the alternatives and policies of a chainer
+ * apply
+ *
+ * <p>Instances are obtained using {@link Chainer#on(Class, Class[])}, and are
+ * shared by all chainers restricted to the same set of classes, whatever the
+ * order in which the classes were given.</p>
+ *
+ * <p>Whether an exception class matches is computed once per exception class
+ * and per set, and cached in a {@link ClassValue}; matching an exception then
+ * costs a single lookup, whatever the number of classes in the set.</p>
+ *
+ * <p>The instances for a set are kept in a {@link ClassValue} of one of its
+ * classes, rather than in a static map, so that they do not prevent this
+ * class from being unloaded.</p>
+ *
+ * @see Chainer#on(Class, Class[])
+ */
+public final class ExceptionFilter
+{
+    private static final Comparator<Class<?>> BY_NAME
+        = Comparator.comparing(Class::getName);
+
+    private static final ClassValue<ConcurrentMap<List<Class<?>>,
+        ExceptionFilter>> FILTERS
+        = new ClassValue<ConcurrentMap<List<Class<?>>, ExceptionFilter>>()
+    {
+        @Override
+        protected ConcurrentMap<List<Class<?>>, ExceptionFilter> computeValue(
+            final Class<?> type)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Class<?>[] classes;
+
+    private final ClassValue<Boolean> matches = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(final Class<?> type)
+        {
+            for (final Class<?> c: classes)
+                if (c.isAssignableFrom(type))
+                    return Boolean.TRUE;
+            return Boolean.FALSE;
+        }
+    };
+
+    private ExceptionFilter(final List<Class<?>> classes)
+    {
+        this.classes = classes.toArray(new Class<?>[classes.size()]);
+    }
+
+    /*
+     * Get the filter for a set of classes; there must be at least one
+     */
+    static ExceptionFilter of(final Class<?>[] classes)
+    {
+        final Set<Class<?>> set = new LinkedHashSet<>();
+        for (final Class<?> c: classes)
+            set.add(Objects.requireNonNull(c));
+        final List<Class<?>> key = new ArrayList<>(set);
+        key.sort(BY_NAME);
+        return FILTERS.get(key.get(0)).computeIfAbsent(key,
+            ExceptionFilter::new);
+    }
+
+    /*
+     * Tell whether an exception is an instance of one of the classes
+     */
+    boolean matches(final Throwable throwable)
+    {
+        return matches.get(throwable.getClass());
+    }
+}
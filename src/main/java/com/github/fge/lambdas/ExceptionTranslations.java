@@ -0,0 +1,106 @@
+package com.github.fge.lambdas;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Process wide registry of exception translations
+ *
+ * <p>A translation is a factory turning an exception of a given class (and
+ * its subclasses) into an unchecked exception; it is used by {@link
+ * Chainer#orTranslate()}. For instance:</p>
+ *
+ * <pre>
+ *     ExceptionTranslations.register(SQLException.class,
+ *         DataAccessException::new);
+ * </pre>
+ *
+ * <p>When an exception is translated, the translation registered for the
+ * nearest superclass of its class (including the class itself) is used; if
+ * there is none, the exception is wrapped into a {@link
+ * ThrownByLambdaException}.</p>
+ *
+ * <p>The translation for each thrown class is resolved once, and cached in a
+ * {@link ClassValue}; the cache is discarded every time the registry is
+ * modified. Registrations are therefore expected to be done at startup.</p>
+ */
+public final class ExceptionTranslations
+{
+    private static final Function<Throwable, RuntimeException> DEFAULT
+        = ThrownByLambdaException::new;
+
+    private static final Map<Class<?>, Function<Throwable, RuntimeException>>
+        TRANSLATIONS = new ConcurrentHashMap<>();
+
+    private static volatile ClassValue<Function<Throwable, RuntimeException>>
+        cache = newCache();
+
+    private ExceptionTranslations()
+    {
+        throw new Error("nice try!");
+    }
+
+    /**
+     * Register a translation for an exception class
+     *
+     * <p>Any translation previously registered for this class is replaced.</p>
+     *
+     * @param exclass the exception class
+     * @param factory the factory building the unchecked exception
+     * @param <X> type parameter of the exception class
+     */
+    @SuppressWarnings("unchecked")
+    public static <X extends Throwable> void register(final Class<X> exclass,
+        final Function<? super X, ? extends RuntimeException> factory)
+    {
+        Objects.requireNonNull(exclass);
+        Objects.requireNonNull(factory);
+        TRANSLATIONS.put(exclass,
+            (Function<Throwable, RuntimeException>) factory);
+        cache = newCache();
+    }
+
+    /**
+     * Remove the translation registered for an exception class, if any
+     *
+     * @param exclass the exception class
+     */
+    public static void unregister(final Class<? extends Throwable> exclass)
+    {
+        if (TRANSLATIONS.remove(Objects.requireNonNull(exclass)) != null)
+            cache = newCache();
+    }
+
+    /**
+     * Translate an exception
+     *
+     * @param throwable the exception
+     * @return the translated exception
+     */
+    public static RuntimeException translate(final Throwable throwable)
+    {
+        return cache.get(throwable.getClass()).apply(throwable);
+    }
+
+    private static ClassValue<Function<Throwable, RuntimeException>> newCache()
+    {
+        return new ClassValue<Function<Throwable, RuntimeException>>()
+        {
+            @Override
+            protected Function<Throwable, RuntimeException> computeValue(
+                final Class<?> type)
+            {
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    final Function<Throwable, RuntimeException> ret
+                        = TRANSLATIONS.get(c);
+                    if (ret != null)
+                        return ret;
+                }
+
+                return DEFAULT;
+            }
+        };
+    }
+}
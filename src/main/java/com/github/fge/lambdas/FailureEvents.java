@@ -0,0 +1,100 @@
+package com.github.fge.lambdas;
+
+/**
+ * Bridge to the event recorder of the JVM
+ *
+ * <p>Events are emitted for failures of instrumented chainers (see {@link
+ * Chainer#instrumented(String)}) which are hidden by an alternative or a
+ * fallback, including failures of alternatives tried within the instrumented
+ * chainer itself. Failures which are rethrown are not recorded: they are
+ * visible anyway.</p>
+ *
+ * <p>The implementation using JDK Flight Recorder lives in a separate source
+ * set, since {@code jdk.jfr} may not be available at runtime; if it cannot be
+ * loaded, a no-op implementation is used instead. When no recording is active,
+ * the only cost for instrumented chainers is a call to {@link
+ * #isEnabled()}.</p>
+ */
+abstract class FailureEvents
+{
+    private static final String JFR_IMPLEMENTATION
+        = "com.github.fge.lambdas.JfrFailureEvents";
+
+    private static final FailureEvents NOOP = new FailureEvents()
+    {
+        @Override
+        boolean isEnabled()
+        {
+            return false;
+        }
+
+        @Override
+        void failed(final String name, final Throwable throwable,
+            final long duration)
+        {
+        }
+
+        @Override
+        void recovered(final String name, final String policy,
+            final Throwable throwable)
+        {
+        }
+
+        @Override
+        void rethrown()
+        {
+        }
+    };
+
+    static final FailureEvents INSTANCE = load();
+
+    /**
+     * Tell whether events are currently recorded
+     *
+     * @return true if events are recorded
+     */
+    abstract boolean isEnabled();
+
+    /**
+     * Record a failed attempt of the current thread
+     *
+     * <p>The event is only emitted if the failure is recovered from.</p>
+     *
+     * @param name the name of the chainer
+     * @param throwable the exception
+     * @param duration the duration of the attempt, in nanoseconds
+     */
+    abstract void failed(String name, Throwable throwable, long duration);
+
+    /**
+     * Emit the event for a failure recovered from
+     *
+     * <p>If the last failed attempt of the current thread failed with the
+     * given exception, its event is emitted. Otherwise, the pending event, if
+     * any, is stale (its failure was rethrown without going through {@link
+     * #rethrown()}) and is dropped; the failure recovered from was not timed,
+     * as is the case for an alternative which failed within the instrumented
+     * chainer, and its event is emitted without a duration.</p>
+     *
+     * @param name the name of the chainer
+     * @param policy the policy which recovered from the failure
+     * @param throwable the exception recovered from
+     */
+    abstract void recovered(String name, String policy, Throwable throwable);
+
+    /**
+     * Drop the event for the last failed attempt of the current thread, if
+     * any
+     */
+    abstract void rethrown();
+
+    private static FailureEvents load()
+    {
+        try {
+            return (FailureEvents) Class.forName(JFR_IMPLEMENTATION)
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ignored) {
+            return NOOP;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.fge.lambdas;
+
+/**
+ * Listener notified of all checked exceptions thrown by throwing instances
+ *
+ * <p>Implementations are discovered at class initialization time using
+ * {@link java.util.ServiceLoader}: list them in a resource named {@code
+ * META-INF/services/com.github.fge.lambdas.FailureListener}. When no listener
+ * is installed, the notification code is removed by the JIT compiler.</p>
+ *
+ * <p>Listeners are notified of failures handled by the policies of chainers,
+ * and of failures wrapped into a {@link ThrownByLambdaException} by the
+ * default methods of throwing interfaces. {@link Error}s and unchecked
+ * exceptions are not reported.</p>
+ *
+ * <p>Listeners are called synchronously, by the thread which invoked the
+ * failing instance; they should be fast, and must not throw exceptions.</p>
+ */
+@FunctionalInterface
+public interface FailureListener
+{
+    /**
+     * Outcome of a failure wrapped by the default method of a throwing
+     * interface
+     */
+    String WRAPPED = "wrapped";
+
+    /**
+     * Called when a throwing instance fails
+     *
+     * <p>The outcome is either {@link #WRAPPED} or the name of the policy of
+     * the chainer which handled the failure ({@code "orTryWith"}, {@code
+     * "fallbackTo"}, {@code "orReturn"}, {@code "orThrow"}, {@code
+     * "sneakyThrow"}, etc).</p>
+     *
+     * @param throwable the exception
+     * @param source the class of the chainer or throwing instance
+     * @param outcome the outcome
+     */
+    void onFailure(Throwable throwable, Class<?> source, String outcome);
+}
@@ -0,0 +1,48 @@
+package com.github.fge.lambdas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Loader of the installed {@link FailureListener}s
+ *
+ * <p>{@link #INSTANCE} is null if no listener is installed. Since it is a
+ * {@code static final} field, the JIT compiler drops the notification entirely
+ * in this case.</p>
+ *
+ * <p>Classes notifying listeners must read this field directly, rather than
+ * copy it into a field of their own: this defers the discovery of listeners,
+ * which loads quite a few classes, to the first failure.</p>
+ */
+final class FailureListeners
+{
+    static final FailureListener INSTANCE = load();
+
+    private FailureListeners()
+    {
+        throw new Error("nice try!");
+    }
+
+    private static FailureListener load()
+    {
+        final List<FailureListener> list = new ArrayList<>();
+        for (final FailureListener listener:
+            ServiceLoader.load(FailureListener.class))
+            list.add(listener);
+
+        switch (list.size()) {
+            case 0:
+                return null;
+            case 1:
+                return list.get(0);
+            default:
+                final FailureListener[] listeners
+                    = list.toArray(new FailureListener[list.size()]);
+                return (throwable, source, outcome) -> {
+                    for (final FailureListener listener: listeners)
+                        listener.onFailure(throwable, source, outcome);
+                };
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.fge.lambdas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed size, lock-free ring buffer of the most recent failures of chainers
+ *
+ * <p>Instances of this class are obtained by name, and are shared by all
+ * chainers recorded using this name (see {@link Chainer#recorded(String)}).
+ * The number of retained failures is fixed when the recorder is created; older
+ * failures are overwritten, and counted.</p>
+ *
+ * <p>Recording a failure costs one atomic increment and one ordered store,
+ * whatever the failure rate. Arguments of the failed invocations are not
+ * recorded: this would require boxing them.</p>
+ */
+public final class FailureRecorder
+{
+    /**
+     * Default capacity of recorders
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private static final ConcurrentMap<String, FailureRecorder> REGISTRY
+        = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int mask;
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Guard guard = new Guard()
+    {
+        @Override
+        public long enter()
+        {
+            return 0L;
+        }
+
+        @Override
+        public void onSuccess(final long token)
+        {
+        }
+
+        @Override
+        public Throwable onFailure(final long token, final Throwable throwable)
+        {
+            record(throwable);
+            return throwable;
+        }
+    };
+
+    private FailureRecorder(final String name, final int capacity)
+    {
+        this.name = name;
+        final int size = Integer.highestOneBit(capacity) == capacity
+            ? capacity : Integer.highestOneBit(capacity) << 1;
+        mask = size - 1;
+        entries = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Get the recorder for a given name, creating it with the default
+     * capacity if necessary
+     *
+     * @param name the name
+     * @return the recorder
+     */
+    public static FailureRecorder named(final String name)
+    {
+        return named(name, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Get the recorder for a given name, creating it if necessary
+     *
+     * <p>The capacity is rounded up to the next power of two. It is ignored
+     * if a recorder already exists for this name.</p>
+     *
+     * @param name the name
+     * @param capacity the capacity
+     * @return the recorder
+     * @throws IllegalArgumentException capacity is not strictly positive, or
+     * greater than 2^30
+     */
+    public static FailureRecorder named(final String name, final int capacity)
+    {
+        Objects.requireNonNull(name);
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("illegal capacity " + capacity);
+        final FailureRecorder ret = REGISTRY.get(name);
+        return ret != null ? ret : REGISTRY.computeIfAbsent(name,
+            key -> new FailureRecorder(key, capacity));
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the number of failures this recorder retains
+     *
+     * @return the capacity
+     */
+    public int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Get the total number of failures recorded
+     *
+     * @return the number of failures
+     */
+    public long getTotal()
+    {
+        return sequence.get();
+    }
+
+    /**
+     * Get the number of failures which have been overwritten
+     *
+     * @return the number of overwritten failures
+     */
+    public long getOverwrites()
+    {
+        return Math.max(0L, sequence.get() - getCapacity());
+    }
+
+    /**
+     * Record a failure
+     *
+     * @param throwable the exception
+     */
+    public void record(final Throwable throwable)
+    {
+        final long seq = sequence.getAndIncrement();
+        entries.lazySet((int) seq & mask, new Entry(seq, throwable));
+    }
+
+    /**
+     * Return the retained failures, oldest first
+     *
+     * <p>Failures recorded while this method runs may or may not be part of
+     * the result.</p>
+     *
+     * @return an unmodifiable list of failures
+     */
+    public List<Entry> dump()
+    {
+        final int capacity = getCapacity();
+        final List<Entry> list = new ArrayList<>(capacity);
+
+        Entry entry;
+        for (int i = 0; i < capacity; i++) {
+            entry = entries.get(i);
+            if (entry != null)
+                list.add(entry);
+        }
+
+        list.sort(Comparator.comparingLong(Entry::getSequence));
+        return Collections.unmodifiableList(list);
+    }
+
+    Guard guard()
+    {
+        return guard;
+    }
+
+    /**
+     * A recorded failure
+     */
+    public static final class Entry
+    {
+        private final long sequence;
+        private final long timestamp;
+        private final Class<? extends Throwable> exceptionClass;
+        private final String message;
+
+        private Entry(final long sequence, final Throwable throwable)
+        {
+            this.sequence = sequence;
+            timestamp = System.currentTimeMillis();
+            exceptionClass = throwable.getClass();
+            message = throwable.getMessage();
+        }
+
+        /**
+         * Get the sequence number of this failure
+         *
+         * @return the sequence number, starting from 0
+         */
+        public long getSequence()
+        {
+            return sequence;
+        }
+
+        /**
+         * Get the time at which the failure was recorded
+         *
+         * @return the time, in milliseconds since the epoch
+         */
+        public long getTimestamp()
+        {
+            return timestamp;
+        }
+
+        public Class<? extends Throwable> getExceptionClass()
+        {
+            return exceptionClass;
+        }
+
+        /**
+         * Get the message of the exception
+         *
+         * @return the message (may be null)
+         */
+        public String getMessage()
+        {
+            return message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "#" + sequence + " (" + timestamp + "): "
+                + exceptionClass.getName()
+                + (message == null ? "" : ": " + message);
+        }
+    }
+}
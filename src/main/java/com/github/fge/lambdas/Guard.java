@@ -0,0 +1,51 @@
+package com.github.fge.lambdas;
+
+/**
+ * Hooks invoked around each invocation of a chainer
+ *
+ * <p>A guard is installed using {@link Chainer#guardedBy(Guard)}; the
+ * resulting chainer invokes {@link #enter()} before delegating to the original
+ * chainer, then either {@link #onSuccess(long)} or {@link #onFailure(long,
+ * Throwable)}.</p>
+ *
+ * <p>Implementations must be thread safe, and should not allocate on the
+ * success path.</p>
+ */
+public interface Guard
+{
+    /**
+     * Method invoked before each invocation
+     *
+     * <p>A guard may throw an exception from this method in order to reject
+     * the invocation; none of the other methods are called in this case.
+     * Unchecked exceptions escape the policies of the guarded chainer, while
+     * checked exceptions are handled by these policies like failures of the
+     * invocation (for instance, {@link Chainer#fallbackTo(Object)} falls back
+     * to its argument).</p>
+     *
+     * @return a token, passed to the other methods of this guard
+     * @throws Exception the invocation is rejected
+     */
+    long enter()
+        throws Exception;
+
+    /**
+     * Method invoked when the invocation succeeds
+     *
+     * @param token the token returned by {@link #enter()}
+     */
+    void onSuccess(long token);
+
+    /**
+     * Method invoked when the invocation fails
+     *
+     * <p>This method is invoked for all exceptions, including unchecked ones.
+     * It returns the exception which the guarded chainer should throw; this
+     * is usually the argument itself.</p>
+     *
+     * @param token the token returned by {@link #enter()}
+     * @param throwable the exception thrown by the invocation
+     * @return the exception to throw
+     */
+    Throwable onFailure(long token, Throwable throwable);
+}
@@ -0,0 +1,184 @@
+package com.github.fge.lambdas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of latencies, in nanoseconds
+ *
+ * <p>Values are recorded in buckets: each power of two is split into {@value
+ * #SUB_BUCKETS} buckets of equal width, and values lower than {@value
+ * #SUB_BUCKETS} are recorded exactly. The relative error of a reported value
+ * is therefore at most 1/{@value #SUB_BUCKETS}, and the memory used by an
+ * instance is fixed, whatever the recorded values.</p>
+ *
+ * <p>Recording a value is a single atomic increment. Snapshots of the same
+ * histogram, or of different histograms, can be merged.</p>
+ *
+ * @see Chainer#timed(String)
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /*
+     * Highest bit which can be set in a positive long is bit 62
+     */
+    private static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Record a value
+     *
+     * <p>Negative values are recorded as 0.</p>
+     *
+     * @param nanos the value, in nanoseconds
+     */
+    public void record(final long nanos)
+    {
+        counts.incrementAndGet(indexOf(Math.max(nanos, 0L)));
+    }
+
+    /**
+     * Take a snapshot of this histogram
+     *
+     * @return a snapshot
+     */
+    public Snapshot snapshot()
+    {
+        final long[] values = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            values[i] = counts.get(i);
+        return new Snapshot(values);
+    }
+
+    /**
+     * Take a snapshot of this histogram, and reset it
+     *
+     * <p>Values recorded concurrently are accounted for either in the returned
+     * snapshot or in the histogram after the reset, never in both.</p>
+     *
+     * @return a snapshot
+     */
+    public Snapshot snapshotAndReset()
+    {
+        final long[] values = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            values[i] = counts.getAndSet(i, 0L);
+        return new Snapshot(values);
+    }
+
+    static int indexOf(final long value)
+    {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS
+            + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /*
+     * Highest value recorded in a given bucket
+     */
+    static long highestValueOf(final int index)
+    {
+        if (index < SUB_BUCKETS)
+            return index;
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1L;
+    }
+
+    /**
+     * Immutable snapshot of a {@link LatencyHistogram}
+     */
+    public static final class Snapshot
+    {
+        private final long[] values;
+        private final long count;
+
+        private Snapshot(final long[] values)
+        {
+            this.values = values;
+            long total = 0L;
+            for (final long value: values)
+                total += value;
+            count = total;
+        }
+
+        /**
+         * Merge this snapshot with another snapshot
+         *
+         * @param other the other snapshot
+         * @return a new snapshot
+         */
+        public Snapshot merge(final Snapshot other)
+        {
+            final long[] merged = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++)
+                merged[i] = values[i] + other.values[i];
+            return new Snapshot(merged);
+        }
+
+        /**
+         * Get the number of recorded values
+         *
+         * @return the number of values
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Get the value at a given percentile
+         *
+         * <p>The returned value is the highest value of the bucket containing
+         * the percentile; if no value has been recorded, 0 is returned.</p>
+         *
+         * @param percentile the percentile (for instance, 99.9)
+         * @return the value, in nanoseconds
+         * @throws IllegalArgumentException percentile is not between 0 and 100
+         */
+        public long getValueAtPercentile(final double percentile)
+        {
+            if (percentile < 0.0 || percentile > 100.0)
+                throw new IllegalArgumentException("percentile must be "
+                    + "between 0 and 100");
+            if (count == 0L)
+                return 0L;
+            final long rank = Math.max(1L,
+                (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += values[i];
+                if (seen >= rank)
+                    return highestValueOf(i);
+            }
+            throw new IllegalStateException("unreachable");
+        }
+
+        /**
+         * Get the highest recorded value
+         *
+         * @return the value, in nanoseconds; 0 if no value has been recorded
+         */
+        public long getMax()
+        {
+            for (int i = BUCKETS - 1; i >= 0; i--)
+                if (values[i] != 0L)
+                    return highestValueOf(i);
+            return 0L;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "count=" + count + ", p50=" + getValueAtPercentile(50.0)
+                + ", p99=" + getValueAtPercentile(99.0) + ", p999="
+                + getValueAtPercentile(99.9) + ", max=" + getMax();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.github.fge.lambdas;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Compile the terminal policy of a chainer into a method handle tree
+ *
+ * <p>Instances of this class are obtained using {@link Chainer#compiled()}.
+ * The policy methods of this class mirror those of chainers; but instead of
+ * wrapping the chainer into a new lambda, they build a method handle tree
+ * (using {@link MethodHandles#catchException(MethodHandle, Class,
+ * MethodHandle)} and {@link MethodHandles#guardWithTest(MethodHandle,
+ * MethodHandle, MethodHandle)}) and return an instance of the non throwing
+ * interface invoking this tree.</p>
+ *
+ * <p>Only the terminal policy (the one given to this class) is part of the
+ * tree. Its target is the throwing method of the chainer, which still
+ * performs the alternatives, guards, retries and exception filters of the
+ * chainer as usual. The tree is held in a final field of the returned
+ * instance, not in a call site. Recent JVMs trust the final fields of lambda
+ * classes, however: if this instance is a constant (for instance, a {@code
+ * static final} field), the tree is a constant too, and the terminal policy
+ * can be inlined at the call site along with the throwing method.</p>
+ *
+ * <p>As with chainers, all instances of {@link Error} and {@link
+ * RuntimeException} are thrown as is. Recovered and rethrown failures are
+ * reported to the metrics of the chainer, if it is {@link
+ * Chainer#instrumented(String) instrumented}, and to {@link FailureListener}s,
+ * as the policies of the chainer do.</p>
+ *
+ * @param <N> type parameter of the non throwing interface
+ */
+public final class PolicyCompiler<N>
+{
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodHandle IS_UNCHECKED;
+    private static final MethodHandle DO_NOTHING;
+    private static final MethodHandle APPLY;
+    private static final MethodHandle FALLBACK_TAKEN;
+    private static final MethodHandle RETHROWN;
+
+    static {
+        try {
+            IS_UNCHECKED = LOOKUP.findStatic(PolicyCompiler.class,
+                "isUnchecked", MethodType.methodType(boolean.class,
+                    Throwable.class));
+            DO_NOTHING = LOOKUP.findStatic(PolicyCompiler.class, "doNothing",
+                MethodType.methodType(void.class));
+            APPLY = LOOKUP.findVirtual(Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class));
+            final MethodType hookType = MethodType.methodType(void.class,
+                String.class, Throwable.class);
+            FALLBACK_TAKEN = LOOKUP.findVirtual(Chainer.class,
+                "fallbackTaken", hookType);
+            RETHROWN = LOOKUP.findVirtual(Chainer.class, "rethrown",
+                hookType);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final ClassValue<Shape> SHAPES = new ClassValue<Shape>()
+    {
+        @Override
+        protected Shape computeValue(final Class<?> type)
+        {
+            return new Shape(type);
+        }
+    };
+
+    private final Chainer<N, ?, ?> chainer;
+    private final Shape shape;
+    private final MethodHandle target;
+
+    PolicyCompiler(final Chainer<N, ?, ?> chainer)
+    {
+        this.chainer = chainer;
+        shape = SHAPES.get(chainer.getClass());
+        target = shape.throwing.bindTo(chainer);
+    }
+
+    /**
+     * Compile a policy rethrowing checked exceptions using a custom
+     * (unchecked!) exception class
+     *
+     * @param exclass the exception class
+     * @param <E> type parameter of the exception class
+     * @return a non throwing instance
+     *
+     * @see Chainer#orThrow(Class)
+     */
+    public <E extends RuntimeException> N orThrow(final Class<E> exclass)
+    {
+        Objects.requireNonNull(exclass);
+        return orThrow(throwable -> ConstructionSite.attach(
+            Chainer.rethrow(exclass, throwable), chainer));
+    }
+
+    /**
+     * Compile a policy rethrowing checked exceptions using an (unchecked!)
+     * exception built by a factory
+     *
+     * @param factory the exception factory
+     * @param <E> type parameter of the exception class
+     * @return a non throwing instance
+     *
+     * @see Chainer#orThrow(Function)
+     */
+    public <E extends RuntimeException> N orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        Objects.requireNonNull(factory);
+        final MethodHandle build = APPLY.bindTo(factory).asType(
+            MethodType.methodType(RuntimeException.class, Throwable.class));
+        final MethodHandle thrower = MethodHandles.throwException(
+            shape.type.returnType(), RuntimeException.class);
+        return compile(RETHROWN, "orThrow",
+            MethodHandles.filterReturnValue(build, thrower));
+    }
+
+    /**
+     * Compile a policy falling back to a non throwing instance
+     *
+     * @param fallback the fallback instance
+     * @return a non throwing instance
+     *
+     * @see Chainer#fallbackTo(Object)
+     */
+    public N fallbackTo(final N fallback)
+    {
+        Objects.requireNonNull(fallback);
+        return compile(FALLBACK_TAKEN, "fallbackTo",
+            MethodHandles.dropArguments(shape.nonThrowing.bindTo(fallback), 0,
+                Throwable.class));
+    }
+
+    /**
+     * Compile a policy returning a fixed value
+     *
+     * @param retval the value to return
+     * @return a non throwing instance
+     * @throws IllegalStateException the interface does not return a value
+     * @throws ClassCastException value is not of the appropriate type
+     */
+    public N orReturn(final Object retval)
+    {
+        final Class<?> returnType = shape.type.returnType();
+        if (returnType == void.class)
+            throw new IllegalStateException("interface does not return a "
+                + "value");
+        return compile(FALLBACK_TAKEN, "orReturn",
+            MethodHandles.dropArguments(MethodHandles.constant(returnType,
+                retval), 0, Throwable.class));
+    }
+
+    /**
+     * Compile a policy doing nothing
+     *
+     * @return a non throwing instance
+     * @throws IllegalStateException the interface returns a value
+     */
+    public N orDoNothing()
+    {
+        if (shape.type.returnType() != void.class)
+            throw new IllegalStateException("interface returns a value");
+        return compile(FALLBACK_TAKEN, "orDoNothing",
+            MethodHandles.dropArguments(DO_NOTHING, 0, Throwable.class));
+    }
+
+    /**
+     * Compile a sneaky throw policy
+     *
+     * @return a non throwing instance
+     *
+     * @see Chainer#sneakyThrow()
+     */
+    public N sneakyThrow()
+    {
+        return compile(RETHROWN, "sneakyThrow", MethodHandles.throwException(
+            shape.type.returnType(), Throwable.class));
+    }
+
+    /*
+     * The recovery handle takes the exception as its first argument; the
+     * arguments of the call can be omitted. The hook is one of the reporting
+     * methods of Chainer, called with the policy name before recovering.
+     */
+    private N compile(final MethodHandle hook, final String policy,
+        final MethodHandle recovery)
+    {
+        final MethodType type = shape.type;
+        final MethodType handlerType = type.insertParameterTypes(0,
+            Throwable.class);
+        final MethodHandle rethrow = MethodHandles.throwException(
+            type.returnType(), Throwable.class);
+        final MethodHandle report = MethodHandles.foldArguments(
+            withType(recovery, handlerType),
+            MethodHandles.insertArguments(hook, 0, chainer, policy));
+        final MethodHandle handler = MethodHandles.guardWithTest(IS_UNCHECKED,
+            withType(rethrow, handlerType), report);
+        final MethodHandle handle = MethodHandles.catchException(target,
+            Throwable.class, handler);
+        return Adapters.adapt(shape.nonThrowingClass, handle);
+    }
+
+    /*
+     * Append the missing trailing arguments to a handle
+     */
+    private static MethodHandle withType(final MethodHandle handle,
+        final MethodType type)
+    {
+        final int count = handle.type().parameterCount();
+        return MethodHandles.dropArguments(handle, count,
+            type.parameterList().subList(count, type.parameterCount()));
+    }
+
+    private static boolean isUnchecked(final Throwable throwable)
+    {
+        return throwable instanceof Error
+            || throwable instanceof RuntimeException;
+    }
+
+    private static void doNothing()
+    {
+    }
+
+    /*
+     * Description of a chainer class: its throwing and non throwing interfaces
+     * and the method handles to invoke them
+     */
+    private static final class Shape
+    {
+        private final Class<?> nonThrowingClass;
+        private final MethodType type;
+        private final MethodHandle throwing;
+        private final MethodHandle nonThrowing;
+
+        private Shape(final Class<?> chainerClass)
+        {
+            final Type[] args = chainerArguments(chainerClass);
+            nonThrowingClass = rawType(args[0]);
+            final Class<?> throwingClass = rawType(args[1]);
+
+            final Method nonThrowingMethod
+                = abstractMethod(nonThrowingClass.getMethods());
+            final Method throwingMethod
+                = abstractMethod(throwingClass.getDeclaredMethods());
+
+            type = MethodType.methodType(nonThrowingMethod.getReturnType(),
+                nonThrowingMethod.getParameterTypes());
+
+            try {
+                throwing = LOOKUP.unreflect(throwingMethod);
+                nonThrowing = LOOKUP.unreflect(nonThrowingMethod);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!throwing.type().dropParameterTypes(0, 1).equals(type))
+                throw new IllegalStateException("method " + throwingMethod
+                    + " does not match " + nonThrowingMethod);
+        }
+
+        private static Type[] chainerArguments(final Class<?> chainerClass)
+        {
+            Class<?> c = chainerClass;
+
+            while (c.getSuperclass() != Chainer.class)
+                c = c.getSuperclass();
+
+            final Type type = c.getGenericSuperclass();
+            if (!(type instanceof ParameterizedType))
+                throw new IllegalStateException("cannot determine interfaces "
+                    + "of " + chainerClass.getName());
+            return ((ParameterizedType) type).getActualTypeArguments();
+        }
+
+        private static Class<?> rawType(final Type type)
+        {
+            if (type instanceof Class)
+                return (Class<?>) type;
+            if (type instanceof ParameterizedType)
+                return (Class<?>) ((ParameterizedType) type).getRawType();
+            throw new IllegalStateException("cannot determine raw type of "
+                + type);
+        }
+
+        private static Method abstractMethod(final Method[] methods)
+        {
+            Method ret = null;
+
+            for (final Method method: methods) {
+                if (!Modifier.isAbstract(method.getModifiers()))
+                    continue;
+                if (isObjectMethod(method))
+                    continue;
+                if (ret != null)
+                    throw new IllegalStateException("more than one abstract "
+                        + "method in " + method.getDeclaringClass().getName());
+                ret = method;
+            }
+
+            if (ret == null)
+                throw new IllegalStateException("no abstract method found");
+            return ret;
+        }
+
+        private static boolean isObjectMethod(final Method method)
+        {
+            try {
+                Object.class.getMethod(method.getName(),
+                    method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                return false;
+            }
+        }
+    }
+}
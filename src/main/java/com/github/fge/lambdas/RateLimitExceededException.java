@@ -0,0 +1,37 @@
+package com.github.fge.lambdas;
+
+/**
+ * Exception thrown by chainers whose rate limiter rejects an invocation
+ *
+ * <p>This is a checked exception, so that the policies of the chainer apply
+ * to it: with {@link Chainer#fallbackTo(Object)}, for instance, a rejected
+ * invocation goes straight to the fallback.</p>
+ *
+ * <p>Each rate limiter throws a single, preallocated instance of this class,
+ * which has no stack trace and no suppressed exceptions.</p>
+ *
+ * @see Chainer#rateLimited(RateLimiter, int, java.time.Duration)
+ */
+public final class RateLimitExceededException
+    extends Exception
+{
+    private static final long serialVersionUID = 1L;
+
+    private final transient RateLimiter limiter;
+
+    RateLimitExceededException(final RateLimiter limiter)
+    {
+        super("rate limit exceeded", null, false, false);
+        this.limiter = limiter;
+    }
+
+    /**
+     * Get the rate limiter which rejected the invocation
+     *
+     * @return the rate limiter
+     */
+    public RateLimiter getRateLimiter()
+    {
+        return limiter;
+    }
+}
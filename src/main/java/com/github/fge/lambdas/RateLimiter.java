@@ -0,0 +1,203 @@
+package com.github.fge.lambdas;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket
+ *
+ * <p>A rate limiter is installed on a chain using {@link
+ * Chainer#rateLimited(RateLimiter, int, Duration)}; it may be shared by
+ * several chains calling the same rate limited service. The bucket is refilled
+ * at a given rate, and holds at most a given number of permits (the burst).
+ * An invocation takes one or more permits; if they are not available, it
+ * either waits for them, or is rejected.</p>
+ *
+ * <p>The whole state of the bucket is a single {@link AtomicLong}: the time at
+ * which the bucket would be full if no permit were taken until then (this is
+ * the generic cell rate algorithm). Taking permits is a compare-and-set of
+ * this time; an invocation which has to wait reserves its permits first, then
+ * sleeps until they are due, so that waiting invocations are served in order.
+ * Sleeping threads are not blocked on a monitor: virtual threads do not pin
+ * their carrier thread.</p>
+ *
+ * <p>This time is counted in permits since the creation of the rate limiter,
+ * not in nanoseconds, so that the interval between two permits need not be a
+ * whole number of nanoseconds: taking permits adds exactly their number, and
+ * rounding only occurs when converting from and to the clock.</p>
+ *
+ * <p>A thread interrupted while waiting fails with an {@link
+ * InterruptedException}; its interrupt status is set again, since policies
+ * may recover from this exception. The permits it reserved are lost.</p>
+ */
+public final class RateLimiter
+{
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final double interval;
+    private final int burst;
+    private final LongSupplier clock;
+    private final long origin;
+    private final AtomicLong fullAt;
+    private final RateLimitExceededException exceeded
+        = new RateLimitExceededException(this);
+
+    /**
+     * Create a new rate limiter
+     *
+     * <p>The bucket of the new rate limiter is full.</p>
+     *
+     * @param permitsPerSecond the rate at which the bucket is refilled
+     * @param burst the capacity of the bucket
+     * @throws IllegalArgumentException the rate is not strictly positive, or
+     * greater than one permit per nanosecond; or the burst is not strictly
+     * positive
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst)
+    {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    RateLimiter(final double permitsPerSecond, final int burst,
+        final LongSupplier clock)
+    {
+        if (!(permitsPerSecond > 0.0 && permitsPerSecond <= NANOS_PER_SECOND))
+            throw new IllegalArgumentException("illegal rate "
+                + permitsPerSecond);
+        if (burst <= 0)
+            throw new IllegalArgumentException("illegal burst " + burst);
+        interval = NANOS_PER_SECOND / permitsPerSecond;
+        this.burst = burst;
+        this.clock = clock;
+        origin = clock.getAsLong();
+        fullAt = new AtomicLong(0L);
+    }
+
+    public int getBurst()
+    {
+        return burst;
+    }
+
+    /**
+     * Take permits if they are available
+     *
+     * @param permits the number of permits
+     * @return true if the permits were taken
+     * @throws IllegalArgumentException the number of permits is not between
+     * 1 and the burst
+     */
+    public boolean tryAcquire(final int permits)
+    {
+        checkPermits(permits);
+        return reserve(permits, 0L) == 0L;
+    }
+
+    /**
+     * Take permits, waiting for them as long as necessary
+     *
+     * @param permits the number of permits
+     * @throws InterruptedException interrupted while waiting
+     * @throws IllegalArgumentException the number of permits is not between
+     * 1 and the burst
+     */
+    public void acquire(final int permits)
+        throws InterruptedException
+    {
+        checkPermits(permits);
+        sleep(reserve(permits, Long.MAX_VALUE));
+    }
+
+    /**
+     * Return a guard taking permits for each invocation
+     *
+     * @param permits the number of permits per invocation
+     * @param maxWait the maximum time to wait for permits
+     * @return a guard
+     */
+    Guard guard(final int permits, final Duration maxWait)
+    {
+        checkPermits(permits);
+        final long maxWaitNanos = toNanos(maxWait);
+        return new Guard()
+        {
+            @Override
+            public long enter()
+                throws RateLimitExceededException, InterruptedException
+            {
+                final long wait = reserve(permits, maxWaitNanos);
+                if (wait < 0L)
+                    throw exceeded;
+                sleep(wait);
+                return 0L;
+            }
+
+            @Override
+            public void onSuccess(final long token)
+            {
+            }
+
+            @Override
+            public Throwable onFailure(final long token,
+                final Throwable throwable)
+            {
+                return throwable;
+            }
+        };
+    }
+
+    /*
+     * Reserve permits if they are due within the given time
+     *
+     * Returns the time to wait until they are due, or -1 if they are not due
+     * soon enough (in which case nothing is reserved).
+     */
+    private long reserve(final int permits, final long maxWaitNanos)
+    {
+        while (true) {
+            final long elapsed = clock.getAsLong() - origin;
+            final long current = fullAt.get();
+            final long refilled = (long) (elapsed / interval);
+            final long next = Math.max(current, refilled) + permits;
+            final long wait
+                = (long) Math.ceil((next - burst) * interval - elapsed);
+            if (wait > maxWaitNanos)
+                return -1L;
+            if (fullAt.compareAndSet(current, next))
+                return Math.max(wait, 0L);
+        }
+    }
+
+    private void checkPermits(final int permits)
+    {
+        if (permits <= 0 || permits > burst)
+            throw new IllegalArgumentException("illegal number of permits "
+                + permits + " (burst is " + burst + ')');
+    }
+
+    private static long toNanos(final Duration duration)
+    {
+        if (Objects.requireNonNull(duration).isNegative())
+            throw new IllegalArgumentException("illegal wait " + duration);
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException ignored) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static void sleep(final long nanos)
+        throws InterruptedException
+    {
+        if (nanos == 0L)
+            return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.fge.lambdas;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cap on the number of retries, relative to the number of invocations
+ *
+ * <p>A budget is a token bucket shared by all threads, and by all the chains
+ * whose {@link RetryPolicy} uses it. Each invocation deposits a fraction of a
+ * token (the given percentage); each retry withdraws one token, and is not
+ * performed if no token is left. Over time, retries are therefore capped at
+ * the given percentage of invocations, so that retries cannot multiply the
+ * load on a failing dependency.</p>
+ *
+ * <p>The bucket starts full, and holds at most a given number of tokens (the
+ * reserve); this allows bursts of retries after a period of calm, but not
+ * after a long one.</p>
+ *
+ * <p>The balance is a single {@link AtomicLong}. While the bucket is full
+ * (that is, while retries are rare), deposits only read it.</p>
+ */
+public final class RetryBudget
+{
+    /*
+     * Units per token: a deposit of n percent is n units
+     */
+    private static final long UNITS = 100L;
+
+    private final int percent;
+    private final int reserve;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * Create a new budget
+     *
+     * @param percent the percentage of invocations which may be retried
+     * @param reserve the maximum number of tokens
+     * @throws IllegalArgumentException percentage is not between 1 and 100,
+     * or reserve is not strictly positive
+     */
+    public RetryBudget(final int percent, final int reserve)
+    {
+        if (percent < 1 || percent > 100)
+            throw new IllegalArgumentException("illegal percentage "
+                + percent);
+        if (reserve <= 0)
+            throw new IllegalArgumentException("illegal reserve " + reserve);
+        this.percent = percent;
+        this.reserve = reserve;
+        capacity = reserve * UNITS;
+        balance = new AtomicLong(capacity);
+    }
+
+    public int getPercent()
+    {
+        return percent;
+    }
+
+    public int getReserve()
+    {
+        return reserve;
+    }
+
+    /**
+     * Get the number of retries which may be performed right now
+     *
+     * @return the number of whole tokens in the bucket
+     */
+    public long getAvailableRetries()
+    {
+        return balance.get() / UNITS;
+    }
+
+    void deposit()
+    {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity)
+                return;
+        } while (!balance.compareAndSet(current,
+            Math.min(capacity, current + percent)));
+    }
+
+    boolean withdraw()
+    {
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNITS)
+                return false;
+        } while (!balance.compareAndSet(current, current - UNITS));
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.fge.lambdas;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable retry policy for chainers
+ *
+ * <p>A policy is installed on a chain using {@link
+ * Chainer#retry(RetryPolicy)}. Start from {@link #defaults()}; each method of
+ * this class returns a modified copy. For instance:</p>
+ *
+ * <pre>
+ *     final RetryPolicy policy = RetryPolicy.defaults()
+ *         .maxAttempts(5)
+ *         .retryOn(SocketTimeoutException.class)
+ *         .budget(new RetryBudget(10, 20));
+ * </pre>
+ *
+ * <p>A failed attempt is retried if all of the following hold:</p>
+ *
+ * <ul>
+ *     <li>it failed with a checked exception (unchecked exceptions are
+ *     thrown as is, as with all other policies), of one of the retryable
+ *     classes;</li>
+ *     <li>the maximum number of attempts is not reached;</li>
+ *     <li>the {@link RetryBudget budget} of the policy, if any, is not
+ *     exhausted.</li>
+ * </ul>
+ *
+ * <p>Otherwise, the exception of the last attempt is handled by the
+ * alternatives and policies set on the chain.</p>
+ *
+ * <p>Before retrying, the invoking thread sleeps. The backoff grows
+ * exponentially with the number of attempts, up to a maximum; jitter then
+ * takes a random part of it off, so that clients failing at the same time do
+ * not retry at the same time. A thread interrupted while sleeping stops
+ * retrying: the exception of the last attempt is thrown, and its interrupt
+ * status is set again.</p>
+ *
+ * <p>By default, a policy makes at most 3 attempts, with a backoff starting
+ * at 100 milliseconds, doubling up to 10 seconds, with full jitter, and
+ * without a budget. It retries all checked exceptions except rejections by
+ * the other policies of this library ({@link BulkheadFullException}, {@link
+ * CircuitBreakerOpenException}, {@link RateLimitExceededException} and {@link
+ * ConcurrencyLimitExceededException}): retrying them would only add load to
+ * a resource which is already refusing it.</p>
+ */
+public final class RetryPolicy
+{
+    private static final RetryPolicy DEFAULTS = new RetryPolicy(3,
+        Duration.ofMillis(100L).toNanos(), Duration.ofSeconds(10L).toNanos(),
+        2.0, 1.0, null, null);
+
+    private static final ExceptionFilter REJECTIONS = ExceptionFilter.of(
+        new Class<?>[] { BulkheadFullException.class,
+        CircuitBreakerOpenException.class, RateLimitExceededException.class,
+        ConcurrencyLimitExceededException.class });
+
+    private final int maxAttempts;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final double multiplier;
+    private final double jitter;
+    private final ExceptionFilter retryable;
+    private final RetryBudget budget;
+
+    private RetryPolicy(final int maxAttempts, final long initialBackoff,
+        final long maxBackoff, final double multiplier, final double jitter,
+        final ExceptionFilter retryable, final RetryBudget budget)
+    {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryable = retryable;
+        this.budget = budget;
+    }
+
+    /**
+     * Get the default policy
+     *
+     * @return the default policy
+     */
+    public static RetryPolicy defaults()
+    {
+        return DEFAULTS;
+    }
+
+    /**
+     * Set the maximum number of attempts, including the first one
+     *
+     * @param attempts the number of attempts
+     * @return a new policy
+     * @throws IllegalArgumentException number is not strictly positive
+     */
+    public RetryPolicy maxAttempts(final int attempts)
+    {
+        if (attempts <= 0)
+            throw new IllegalArgumentException("illegal number of attempts "
+                + attempts);
+        return new RetryPolicy(attempts, initialBackoff, maxBackoff,
+            multiplier, jitter, retryable, budget);
+    }
+
+    /**
+     * Set the backoff before the first retry, and the maximum backoff
+     *
+     * @param initial the backoff before the first retry
+     * @param max the maximum backoff
+     * @return a new policy
+     * @throws IllegalArgumentException a duration is negative, or the maximum
+     * is less than the initial backoff
+     */
+    public RetryPolicy backoff(final Duration initial, final Duration max)
+    {
+        if (initial.isNegative() || max.compareTo(initial) < 0)
+            throw new IllegalArgumentException("illegal backoff: initial "
+                + initial + ", max " + max);
+        return new RetryPolicy(maxAttempts, initial.toNanos(), max.toNanos(),
+            multiplier, jitter, retryable, budget);
+    }
+
+    /**
+     * Set the factor by which the backoff grows after each retry
+     *
+     * @param factor the factor
+     * @return a new policy
+     * @throws IllegalArgumentException factor is less than 1
+     */
+    public RetryPolicy multiplier(final double factor)
+    {
+        if (!(factor >= 1.0))
+            throw new IllegalArgumentException("illegal factor " + factor);
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff,
+            factor, jitter, retryable, budget);
+    }
+
+    /**
+     * Set the maximum part of the backoff taken off at random
+     *
+     * <p>0 disables jitter; 1 (the default) means that the backoff is random
+     * between 0 and its nominal value.</p>
+     *
+     * @param ratio the part of the backoff
+     * @return a new policy
+     * @throws IllegalArgumentException ratio is not between 0 and 1
+     */
+    public RetryPolicy jitter(final double ratio)
+    {
+        if (!(ratio >= 0.0 && ratio <= 1.0))
+            throw new IllegalArgumentException("illegal jitter " + ratio);
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff,
+            multiplier, ratio, retryable, budget);
+    }
+
+    /**
+     * Only retry exceptions which are instances of the given classes
+     *
+     * <p>This replaces the default set of retryable exceptions: rejections
+     * by other policies are retried if they are instances of one of the
+     * classes.</p>
+     *
+     * @param first the first exception class
+     * @param others the other exception classes, if any
+     * @return a new policy
+     */
+    @SafeVarargs
+    public final RetryPolicy retryOn(final Class<? extends Throwable> first,
+        final Class<? extends Throwable>... others)
+    {
+        final Class<?>[] classes = new Class<?>[others.length + 1];
+        classes[0] = first;
+        for (int i = 0; i < others.length; i++)
+            classes[i + 1] = others[i];
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff,
+            multiplier, jitter, ExceptionFilter.of(classes), budget);
+    }
+
+    /**
+     * Cap retries using a budget
+     *
+     * <p>Budgets are mutable and thread safe: all policies using the same
+     * budget share it.</p>
+     *
+     * @param budget the budget
+     * @return a new policy
+     */
+    public RetryPolicy budget(final RetryBudget budget)
+    {
+        return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff,
+            multiplier, jitter, retryable, Objects.requireNonNull(budget));
+    }
+
+    /*
+     * Called once per invocation of a retried chain
+     */
+    void invoked()
+    {
+        if (budget != null)
+            budget.deposit();
+    }
+
+    /*
+     * Tell whether a failed attempt should be retried; takes a token from the
+     * budget if so
+     */
+    boolean retries(final int attempt, final Throwable throwable)
+    {
+        if (attempt >= maxAttempts)
+            return false;
+        if (throwable instanceof Error || throwable instanceof RuntimeException)
+            return false;
+        if (retryable == null ? REJECTIONS.matches(throwable)
+            : !retryable.matches(throwable))
+            return false;
+        return budget == null || budget.withdraw();
+    }
+
+    /*
+     * Backoff after the given number of failed attempts, in nanoseconds
+     */
+    long backoff(final int attempt)
+    {
+        final double nominal = Math.min((double) maxBackoff,
+            initialBackoff * Math.pow(multiplier, attempt - 1));
+        final double random = ThreadLocalRandom.current().nextDouble();
+        return (long) (nominal * (1.0 - jitter * random));
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.fge.lambdas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Approximate count of events over the last seconds
+ *
+ * Events are counted in one bucket per second; a bucket is reset the first
+ * time it is used in a new second. Increments racing with a reset may be lost,
+ * which is acceptable for a rate meant for monitoring.
+ */
+final class SlidingWindowCounter
+{
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int seconds;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray counts;
+
+    SlidingWindowCounter(final int seconds)
+    {
+        this.seconds = seconds;
+        epochs = new AtomicLongArray(seconds);
+        counts = new AtomicLongArray(seconds);
+        for (int i = 0; i < seconds; i++)
+            epochs.set(i, Long.MIN_VALUE);
+    }
+
+    void increment(final long nanoTime)
+    {
+        final long second = Math.floorDiv(nanoTime, NANOS_PER_SECOND);
+        final int index = (int) Math.floorMod(second, (long) seconds);
+        final long epoch = epochs.get(index);
+        if (epoch != second && epochs.compareAndSet(index, epoch, second))
+            counts.set(index, 0L);
+        counts.incrementAndGet(index);
+    }
+
+    /*
+     * Number of events over the window
+     */
+    long sum(final long nanoTime)
+    {
+        final long second = Math.floorDiv(nanoTime, NANOS_PER_SECOND);
+        long total = 0L;
+        for (int i = 0; i < seconds; i++)
+            if (second - epochs.get(i) < seconds)
+                total += counts.get(i);
+        return total;
+    }
+
+    /*
+     * Average number of events per second over the window
+     */
+    double rate(final long nanoTime)
+    {
+        return (double) sum(nanoTime) / seconds;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.fge.lambdas;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+
+/**
+ * Define private copies of template classes
+ *
+ * <p>The JIT compiler profiles the receiver types of a call site per class:
+ * all copies of a template share its bytecode, but each has its own profile.
+ * </p>
+ *
+ * <p>Copies are defined by {@link ClassDefiner}, and unloaded once
+ * unreachable. The only case where the template class itself is used is a
+ * JVM offering no way to define classes (see {@link
+ * Chainer#isSpecializationSupported()}); any other failure to define a copy
+ * is thrown.</p>
+ *
+ * @see Chainer#specialized()
+ */
+final class Specializer
+{
+    private static final MethodType CONSTRUCTOR
+        = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<byte[]> BYTECODE
+        = new ClassValue<byte[]>()
+    {
+        @Override
+        protected byte[] computeValue(final Class<?> type)
+        {
+            final String name = type.getName();
+            final String resource
+                = name.substring(name.lastIndexOf('.') + 1) + ".class";
+            try (
+                final InputStream in = type.getResourceAsStream(resource);
+            ) {
+                if (in == null)
+                    return null;
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buf = new byte[4096];
+                int count;
+                while ((count = in.read(buf)) != -1)
+                    out.write(buf, 0, count);
+                return out.toByteArray();
+            } catch (IOException ignored) {
+                return null;
+            }
+        }
+    };
+
+    private Specializer()
+    {
+        throw new Error("nice try!");
+    }
+
+    /**
+     * Instantiate a copy of a template class
+     *
+     * @param lookup a lookup with full access on a class of the package of
+     * the template
+     * @param template the template class
+     * @param target the first argument of the constructor
+     * @param source the second argument of the constructor
+     * @return a new instance
+     * @throws IllegalStateException the copy cannot be defined or
+     * instantiated
+     */
+    static Object specialize(final Lookup lookup, final Class<?> template,
+        final Object target, final Object source)
+    {
+        Lookup definer = lookup;
+        Class<?> type = template;
+
+        try {
+            if (ClassDefiner.isSupported()) {
+                final byte[] bytecode = BYTECODE.get(template);
+                if (bytecode == null)
+                    throw new IllegalStateException("cannot read bytecode of "
+                        + template.getName());
+                definer = ClassDefiner.define(lookup, bytecode);
+                type = definer.lookupClass();
+            }
+            final MethodHandle constructor
+                = definer.findConstructor(type, CONSTRUCTOR);
+            return constructor.invoke(target, source);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("cannot specialize "
+                + template.getName(), throwable);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.fge.lambdas;
+
+/**
+ * Stack walking
+ *
+ * <p>This implementation fills in the stack trace of a throwable; the jar
+ * ships a version using {@code StackWalker} for Java 9 and later.</p>
+ */
+final class StackFrames
+{
+    private StackFrames()
+    {
+        throw new Error("nice try!");
+    }
+
+    /**
+     * Find the frame calling into a class from the outside
+     *
+     * <p>Walking the stack of the current thread from its top, the frame
+     * returned is the first one following frames of the given class.</p>
+     *
+     * @param className the name of the class
+     * @return the frame; null if the class is not in the stack
+     */
+    static StackTraceElement callerOf(final String className)
+    {
+        final StackTraceElement[] trace = new Throwable().getStackTrace();
+        boolean inClass = false;
+        for (final StackTraceElement element: trace) {
+            if (element.getClassName().equals(className))
+                inClass = true;
+            else if (inClass)
+                return element;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.fge.lambdas;
+
+/**
+ * Policy governing the stack traces of exceptions built by this package
+ *
+ * <p>Filling in the stack trace is by far the most expensive part of building
+ * an exception; when a lot of elements of a stream fail, it can dominate the
+ * cost of the whole pipeline. Two policies are available:</p>
+ *
+ * <ul>
+ *     <li>{@link #FULL}: the stack trace is filled in as usual (this is the
+ *     default);</li>
+ *     <li>{@link #NONE}: the stack trace is never filled in.</li>
+ * </ul>
+ *
+ * <p>There is no policy retaining only the topmost frames: neither trimming a
+ * full stack trace nor walking the topmost frames with {@code StackWalker} is
+ * cheaper than filling in the full stack trace, whose frames are only turned
+ * into {@link StackTraceElement}s if and when it is printed, serialized or
+ * queried.</p>
+ *
+ * <p>The policy in effect is global; see {@link
+ * ThrownByLambdaException#setStackTracePolicy(StackTracePolicy)}. It applies
+ * to instances of {@link ThrownByLambdaException}, and to exceptions built by
+ * {@link Chainer#orThrow(Class)} when their class allows it.</p>
+ */
+public final class StackTracePolicy
+{
+    /**
+     * Full stack traces (the default)
+     */
+    public static final StackTracePolicy FULL = new StackTracePolicy(true);
+
+    /**
+     * No stack traces at all
+     */
+    public static final StackTracePolicy NONE = new StackTracePolicy(false);
+
+    private final boolean writable;
+
+    private StackTracePolicy(final boolean writable)
+    {
+        this.writable = writable;
+    }
+
+    /**
+     * Tell whether an exception built under this policy should have a
+     * writable stack trace
+     *
+     * @return true unless this policy is {@link #NONE}
+     */
+    boolean isWritable()
+    {
+        return writable;
+    }
+
+    @Override
+    public String toString()
+    {
+        return writable ? "FULL" : "NONE";
+    }
+}
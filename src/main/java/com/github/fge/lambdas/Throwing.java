@@ -81,6 +81,9 @@ import com.github.fge.lambdas.supplier.ThrowingIntSupplier;
 import com.github.fge.lambdas.supplier.ThrowingLongSupplier;
 import com.github.fge.lambdas.supplier.ThrowingSupplier;
 
+import java.util.Objects;
+import java.util.function.Supplier;
+
 /**
  * Class to invoke throwing instance chains
  *
@@ -107,7 +110,7 @@ public class Throwing
     public static <T> ComparatorChainer<T> comparator(
         final ThrowingComparator<T> comparator)
     {
-        return new ComparatorChainer<>(comparator);
+        return ConstructionSite.capture(new ComparatorChainer<>(comparator));
     }
 
     /*
@@ -116,49 +119,50 @@ public class Throwing
     public static <T> ConsumerChainer<T> consumer(
         final ThrowingConsumer<T> consumer)
     {
-        return new ConsumerChainer<>(consumer);
+        return ConstructionSite.capture(new ConsumerChainer<>(consumer));
     }
 
     public static <T, U> BiConsumerChainer<T, U> biConsumer(
         final ThrowingBiConsumer<T, U> consumer)
     {
-        return new BiConsumerChainer<>(consumer);
+        return ConstructionSite.capture(new BiConsumerChainer<>(consumer));
     }
 
     public static DoubleConsumerChainer doubleConsumer(
         final ThrowingDoubleConsumer consumer)
     {
-        return new DoubleConsumerChainer(consumer);
+        return ConstructionSite.capture(new DoubleConsumerChainer(consumer));
     }
 
     public static IntConsumerChainer intConsumer(
         final ThrowingIntConsumer consumer)
     {
-        return new IntConsumerChainer(consumer);
+        return ConstructionSite.capture(new IntConsumerChainer(consumer));
     }
 
     public static LongConsumerChainer longConsumer(
         final ThrowingLongConsumer consumer)
     {
-        return new LongConsumerChainer(consumer);
+        return ConstructionSite.capture(new LongConsumerChainer(consumer));
     }
 
     public static <T>ObjDoubleConsumerChainer<T> objDoubleConsumer(
         final ThrowingObjDoubleConsumer<T> consumer)
     {
-        return new ObjDoubleConsumerChainer<>(consumer);
+        return ConstructionSite.capture(
+            new ObjDoubleConsumerChainer<>(consumer));
     }
 
     public static <T>ObjIntConsumerChainer<T> objIntConsumer(
         final ThrowingObjIntConsumer<T> consumer)
     {
-        return new ObjIntConsumerChainer<>(consumer);
+        return ConstructionSite.capture(new ObjIntConsumerChainer<>(consumer));
     }
 
     public static <T>ObjLongConsumerChainer<T> objLongConsumer(
         final ThrowingObjLongConsumer<T> consumer)
     {
-        return new ObjLongConsumerChainer<>(consumer);
+        return ConstructionSite.capture(new ObjLongConsumerChainer<>(consumer));
     }
 
     /*
@@ -167,133 +171,152 @@ public class Throwing
     public static <T, R> FunctionChainer<T, R> function(
         final ThrowingFunction<T, R> function)
     {
-        return new FunctionChainer<>(function);
+        return ConstructionSite.capture(new FunctionChainer<>(function));
     }
 
     public static <T, U, R> BiFunctionChainer<T, U, R> biFunction(
         final ThrowingBiFunction<T, U, R> biFunction)
     {
-        return new BiFunctionChainer<>(biFunction);
+        return ConstructionSite.capture(new BiFunctionChainer<>(biFunction));
     }
 
     public static <T> ToDoubleFunctionChainer<T> toDoubleFunction(
         final ThrowingToDoubleFunction<T> toDoubleFunction)
     {
-        return new ToDoubleFunctionChainer<>(toDoubleFunction);
+        return ConstructionSite.capture(
+            new ToDoubleFunctionChainer<>(toDoubleFunction));
     }
 
     public static <T> ToIntFunctionChainer<T> toIntFunction(
         final ThrowingToIntFunction<T> intFunction)
     {
-        return new ToIntFunctionChainer<>(intFunction);
+        return ConstructionSite.capture(
+            new ToIntFunctionChainer<>(intFunction));
     }
 
     public static <T> ToLongFunctionChainer<T> toLongFunction(
         final ThrowingToLongFunction<T> toLongFunction)
     {
-        return new ToLongFunctionChainer<>(toLongFunction);
+        return ConstructionSite.capture(
+            new ToLongFunctionChainer<>(toLongFunction));
     }
 
     public static <R> DoubleFunctionChainer<R> doubleFunction(
         final ThrowingDoubleFunction<R> doubleFunction)
     {
-        return new DoubleFunctionChainer<>(doubleFunction);
+        return ConstructionSite.capture(
+            new DoubleFunctionChainer<>(doubleFunction));
     }
 
     public static DoubleToIntFunctionChainer doubleToIntFunction(
         final ThrowingDoubleToIntFunction doubleToIntFunction)
     {
-        return new DoubleToIntFunctionChainer(doubleToIntFunction);
+        return ConstructionSite.capture(
+            new DoubleToIntFunctionChainer(doubleToIntFunction));
     }
 
     public static DoubleToLongFunctionChainer doubleToLongFunction(
         final ThrowingDoubleToLongFunction doubleToLongFunction)
     {
-        return new DoubleToLongFunctionChainer(doubleToLongFunction);
+        return ConstructionSite.capture(
+            new DoubleToLongFunctionChainer(doubleToLongFunction));
     }
 
     public static <R> IntFunctionChainer<R> intFunction(
         final ThrowingIntFunction<R> intFunction)
     {
-        return new IntFunctionChainer<>(intFunction);
+        return ConstructionSite.capture(new IntFunctionChainer<>(intFunction));
     }
 
     public static IntToDoubleFunctionChainer intToDoubleFunction(
         final ThrowingIntToDoubleFunction intToDoubleFunction)
     {
-        return new IntToDoubleFunctionChainer(intToDoubleFunction);
+        return ConstructionSite.capture(
+            new IntToDoubleFunctionChainer(intToDoubleFunction));
     }
 
     public static IntToLongFunctionChainer intToLongFunction(
         final ThrowingIntToLongFunction intToLongFunction)
     {
-        return new IntToLongFunctionChainer(intToLongFunction);
+        return ConstructionSite.capture(
+            new IntToLongFunctionChainer(intToLongFunction));
     }
 
     public static <R> LongFunctionChainer<R> longFunction(
         final ThrowingLongFunction<R> longFunction)
     {
-        return new LongFunctionChainer<>(longFunction);
+        return ConstructionSite.capture(
+            new LongFunctionChainer<>(longFunction));
     }
 
     public static LongToDoubleFunctionChainer longToDoubleFunction(
         final ThrowingLongToDoubleFunction longToDoubleFunction)
     {
-        return new LongToDoubleFunctionChainer(longToDoubleFunction);
+        return ConstructionSite.capture(
+            new LongToDoubleFunctionChainer(longToDoubleFunction));
     }
 
     public static LongToIntFunctionChainer longToIntFunction(
         final ThrowingLongToIntFunction longToIntFunction)
     {
-        return new LongToIntFunctionChainer(longToIntFunction);
+        return ConstructionSite.capture(
+            new LongToIntFunctionChainer(longToIntFunction));
     }
 
     public static <T> BinaryOperatorChainer<T> binaryOperator(
         final ThrowingBinaryOperator<T> binaryOperator)
     {
-        return new BinaryOperatorChainer<>(binaryOperator);
+        return ConstructionSite.capture(
+            new BinaryOperatorChainer<>(binaryOperator));
     }
 
     public static DoubleBinaryOperatorChainer doubleBinaryOperator(
         final ThrowingDoubleBinaryOperator doubleBinaryOperator)
     {
-        return new DoubleBinaryOperatorChainer(doubleBinaryOperator);
+        return ConstructionSite.capture(
+            new DoubleBinaryOperatorChainer(doubleBinaryOperator));
     }
 
     public static DoubleUnaryOperatorChainer doubleUnaryOperator(
         final ThrowingDoubleUnaryOperator doubleUnaryOperator)
     {
-        return new DoubleUnaryOperatorChainer(doubleUnaryOperator);
+        return ConstructionSite.capture(
+            new DoubleUnaryOperatorChainer(doubleUnaryOperator));
     }
 
     public static IntBinaryOperatorChainer intBinaryOperator(
         final ThrowingIntBinaryOperator intBinaryOperator)
     {
-        return new IntBinaryOperatorChainer(intBinaryOperator);
+        return ConstructionSite.capture(
+            new IntBinaryOperatorChainer(intBinaryOperator));
     }
 
     public static IntUnaryOperatorChainer intUnaryOperator(
         final ThrowingIntUnaryOperator intUnaryOperator)
     {
-        return new IntUnaryOperatorChainer(intUnaryOperator);
+        return ConstructionSite.capture(
+            new IntUnaryOperatorChainer(intUnaryOperator));
     }
 
     public static LongBinaryOperatorChainer longBinaryOperator(
         final ThrowingLongBinaryOperator longBinaryOperator)
     {
-        return new LongBinaryOperatorChainer(longBinaryOperator);
+        return ConstructionSite.capture(
+            new LongBinaryOperatorChainer(longBinaryOperator));
     }
 
     public static LongUnaryOperatorChainer longUnaryOperator(
         final ThrowingLongUnaryOperator longUnaryOperator)
     {
-        return new LongUnaryOperatorChainer(longUnaryOperator);
+        return ConstructionSite.capture(
+            new LongUnaryOperatorChainer(longUnaryOperator));
     }
 
     public static <T> UnaryOperatorChainer<T> unaryOperator(
         final ThrowingUnaryOperator<T> unaryOperator)
     {
-        return new UnaryOperatorChainer<>(unaryOperator);
+        return ConstructionSite.capture(
+            new UnaryOperatorChainer<>(unaryOperator));
     }
 
     /*
@@ -302,25 +325,27 @@ public class Throwing
     public static <T> PredicateChainer<T> predicate(
         final ThrowingPredicate<T> predicate)
     {
-        return new PredicateChainer<>(predicate);
+        return ConstructionSite.capture(new PredicateChainer<>(predicate));
     }
 
     public static IntPredicateChainer intPredicate(
         final ThrowingIntPredicate intPredicate)
     {
-        return new IntPredicateChainer(intPredicate);
+        return ConstructionSite.capture(new IntPredicateChainer(intPredicate));
     }
 
     public static DoublePredicateChainer doublePredicate(
         final ThrowingDoublePredicate doublePredicate)
     {
-        return new DoublePredicateChainer(doublePredicate);
+        return ConstructionSite.capture(
+            new DoublePredicateChainer(doublePredicate));
     }
 
     public static LongPredicateChainer longPredicate(
         final ThrowingLongPredicate longPredicate)
     {
-        return new LongPredicateChainer(longPredicate);
+        return ConstructionSite.capture(
+            new LongPredicateChainer(longPredicate));
     }
 
     /*
@@ -329,29 +354,110 @@ public class Throwing
     public static <T> SupplierChainer<T> supplier(
         final ThrowingSupplier<T> supplier)
     {
-        return new SupplierChainer<>(supplier);
+        return ConstructionSite.capture(new SupplierChainer<>(supplier));
     }
 
     public static DoubleSupplierChainer doubleSupplier(
         final ThrowingDoubleSupplier doubleSupplier)
     {
-        return new DoubleSupplierChainer(doubleSupplier);
+        return ConstructionSite.capture(
+            new DoubleSupplierChainer(doubleSupplier));
     }
 
     public static IntSupplierChainer intSupplier(
         final ThrowingIntSupplier intSupplier)
     {
-        return new IntSupplierChainer(intSupplier);
+        return ConstructionSite.capture(new IntSupplierChainer(intSupplier));
     }
 
     public static LongSupplierChainer longSupplier(
         final ThrowingLongSupplier longSupplier)
     {
-        return new LongSupplierChainer(longSupplier);
+        return ConstructionSite.capture(new LongSupplierChainer(longSupplier));
     }
 
     public static RunnableChainer runnable(final ThrowingRunnable runnable)
     {
-        return new RunnableChainer(runnable);
+        return ConstructionSite.capture(new RunnableChainer(runnable));
+    }
+
+    /*
+     * Tunnels
+     */
+
+    /**
+     * Run a computation, restoring a checked exception at its boundary
+     *
+     * <p>This is meant to be used along with {@link Chainer#sneakyThrow()}: the
+     * computation (for instance, a stream pipeline) may throw the checked
+     * exception "sneakily", and this method rethrows it as is, without any
+     * wrapping, while declaring it.</p>
+     *
+     * <p>If the computation throws a {@link ThrownByLambdaException} whose
+     * cause is an instance of the given exception class, this cause is
+     * thrown instead. All other exceptions are thrown as is.</p>
+     *
+     * @param exclass the class of the checked exception
+     * @param computation the computation
+     * @param <R> type parameter of the result
+     * @param <E> type parameter of the exception
+     * @return the result of the computation
+     * @throws E the checked exception thrown by the computation, if any
+     */
+    public static <R, E extends Exception> R tunnel(final Class<E> exclass,
+        final Supplier<R> computation)
+        throws E
+    {
+        Objects.requireNonNull(exclass);
+        Objects.requireNonNull(computation);
+
+        try {
+            return computation.get();
+        } catch (Throwable throwable) {
+            throw unwrap(exclass, throwable);
+        }
+    }
+
+    /**
+     * Run a computation with no result, restoring a checked exception at its
+     * boundary
+     *
+     * @param exclass the class of the checked exception
+     * @param computation the computation
+     * @param <E> type parameter of the exception
+     * @throws E the checked exception thrown by the computation, if any
+     *
+     * @see #tunnel(Class, Supplier)
+     */
+    public static <E extends Exception> void tunnel(final Class<E> exclass,
+        final Runnable computation)
+        throws E
+    {
+        Objects.requireNonNull(exclass);
+        Objects.requireNonNull(computation);
+
+        try {
+            computation.run();
+        } catch (Throwable throwable) {
+            throw unwrap(exclass, throwable);
+        }
+    }
+
+    /*
+     * Return the exception to throw: either the tunneled exception, or the
+     * original throwable; the latter may be a checked exception thrown
+     * sneakily, in which case it is rethrown sneakily as well
+     */
+    private static <E extends Exception> E unwrap(final Class<E> exclass,
+        final Throwable throwable)
+    {
+        if (exclass.isInstance(throwable))
+            return exclass.cast(throwable);
+        if (throwable instanceof ThrownByLambdaException) {
+            final Throwable cause = throwable.getCause();
+            if (exclass.isInstance(cause))
+                return exclass.cast(cause);
+        }
+        throw Chainer.doSneakyThrow(throwable);
     }
 }
@@ -1,13 +1,71 @@
 package com.github.fge.lambdas;
 
+import java.util.Objects;
+
 /**
  * Default exception thrown when a lambda throws a checked exception
+ *
+ * <p>Whether the stack trace of instances of this class is filled in depends
+ * on the current {@link StackTracePolicy}.</p>
  */
 public final class ThrownByLambdaException
     extends RuntimeException
 {
+    private static volatile StackTracePolicy policy = StackTracePolicy.FULL;
+
+    /**
+     * Set the stack trace policy for all future instances of this class
+     *
+     * <p>This policy also applies to exceptions built by {@link
+     * Chainer#orThrow(Class)}, see this method for details.</p>
+     *
+     * @param policy the policy
+     */
+    public static void setStackTracePolicy(final StackTracePolicy policy)
+    {
+        ThrownByLambdaException.policy = Objects.requireNonNull(policy);
+    }
+
+    /**
+     * Get the current stack trace policy
+     *
+     * @return the policy
+     */
+    public static StackTracePolicy getStackTracePolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * Build an exception for the failure of a throwing instance
+     *
+     * <p>If the instance is a chainer whose construction site is known, this
+     * site is attached to the returned exception (see {@link
+     * ConstructionSite}). Installed {@link FailureListener}s are notified.</p>
+     *
+     * @param source the throwing instance
+     * @param cause the exception thrown by the instance
+     * @return a new exception
+     */
+    public static ThrownByLambdaException of(final Object source,
+        final Throwable cause)
+    {
+        if (FailureListeners.INSTANCE != null)
+            FailureListeners.INSTANCE.onFailure(cause, source.getClass(),
+                FailureListener.WRAPPED);
+        return ConstructionSite.attach(new ThrownByLambdaException(cause),
+            source);
+    }
+
     public ThrownByLambdaException(final Throwable cause)
     {
-        super(cause);
+        this(cause, policy);
+    }
+
+    private ThrownByLambdaException(final Throwable cause,
+        final StackTracePolicy policy)
+    {
+        super(cause == null ? null : cause.toString(), cause, true,
+            policy.isWritable());
     }
 }
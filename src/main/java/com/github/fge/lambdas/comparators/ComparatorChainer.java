@@ -1,94 +1,290 @@
 package com.github.fge.lambdas.comparators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.Comparator;
+import java.util.function.Function;
 
 public class ComparatorChainer<T>
     extends Chainer<Comparator<T>, ThrowingComparator<T>, ComparatorChainer<T>>
     implements ThrowingComparator<T>
 {
+    private final ThrowingComparator<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ComparatorChainer(final ThrowingComparator<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingComparator[] { throwing }, null, null, null);
     }
 
-    @Override
-    public int doCompare(final T o1, final T o2)
-        throws Throwable
+    private ComparatorChainer(final ThrowingComparator<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doCompare(o1, o2);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public ComparatorChainer<T> orTryWith(final ThrowingComparator<T> other)
+    public int doCompare(final T o1, final T o2)
+        throws Throwable
     {
-        final ThrowingComparator<T> comparator = (o1, o2) -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doCompare(o1, o2);
+                return alternatives[i].doCompare(o1, o2);
             } catch (Error | RuntimeException e) {
                 throw e;
             } catch (Throwable throwable) {
-                return other.doCompare(o1, o2);
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doCompare(o1, o2);
+    }
+
+    @Override
+    public ComparatorChainer<T> orTryWith(final ThrowingComparator<T> other)
+    {
+        return derived(new ComparatorChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ComparatorChainer<>(comparator);
+    @Override
+    protected ComparatorChainer<T> guardedBy(final Guard guard)
+    {
+        return new ComparatorChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private int compareGuarded(final Guard guard, final T o1, final T o2)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final int ret;
+        try {
+            ret = doCompare(o1, o2);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingComparator<T> orThrow(
-        final Class<E> exclass)
+    protected ComparatorChainer<T> retriedBy(final RetryPolicy policy)
+    {
+        return new ComparatorChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private int compareRetried(final RetryPolicy policy, final T o1, final T o2)
+        throws Throwable
     {
-        return (o1, o2) -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doCompare(o1, o2);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doCompare(o1, o2);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ComparatorChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new ComparatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ComparatorChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ComparatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ComparatorChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new ComparatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingComparator<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private int compareOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T o1,
+        final T o2)
+    {
+        try {
+            return doCompare(o1, o2);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public Comparator<T> fallbackTo(final Comparator<T> fallback)
     {
-        return (o1, o2) -> {
-            try {
-                return throwing.doCompare(o1, o2);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.compare(o1, o2);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private int compareFallbackTo(final Comparator<T> fallback, final T o1,
+        final T o2)
+    {
+        try {
+            return doCompare(o1, o2);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.compare(o1, o2);
+        }
     }
 
     @Override
     public Comparator<T> sneakyThrow()
     {
-        return (o1, o2) -> {
-            try {
-                return throwing.doCompare(o1, o2);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private int compareSneakyThrow(final T o1, final T o2)
+    {
+        try {
+            return doCompare(o1, o2);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public Comparator<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public Comparator<T> orReturn(final int retval)
     {
-        return (o1, o2) -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private int compareOrReturn(final int retval, final T o1, final T o2)
+    {
+        try {
+            return doCompare(o1, o2);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingComparator<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final ComparatorChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ComparatorChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int doCompare(final T o1, final T o2)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.compareGuarded((Guard) argument, o1, o2);
+                case RETRIED:
+                    return chainer.compareRetried((RetryPolicy) argument, o1,
+                        o2);
+                default:
+                    return compare(o1, o2);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compare(final T o1, final T o2)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.compareOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, o1,
+                        o2);
+                case FALLBACK_TO:
+                    return chainer.compareFallbackTo((Comparator<T>) argument,
+                        o1, o2);
+                case SNEAKY_THROW:
+                    return chainer.compareSneakyThrow(o1, o2);
+                case OR_RETURN:
+                    return chainer.compareOrReturn((Integer) argument, o1, o2);
+                default:
+                    return ThrowingComparator.super.compare(o1, o2);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements Comparator<T>
+    {
+        private final ThrowingComparator<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingComparator<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public int compare(final T o1, final T o2)
+        {
             try {
                 return throwing.doCompare(o1, o2);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -24,7 +24,7 @@ public interface ThrowingComparator<T>
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable throwable) {
-            throw new ThrownByLambdaException(throwable);
+            throw ThrownByLambdaException.of(this, throwable);
         }
     }
 }
@@ -1,94 +1,292 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public class BiConsumerChainer<T, U>
     extends Chainer<BiConsumer<T, U>, ThrowingBiConsumer<T, U>, BiConsumerChainer<T, U>>
     implements ThrowingBiConsumer<T, U>
 {
+    private final ThrowingBiConsumer<T, U>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public BiConsumerChainer(final ThrowingBiConsumer<T, U> throwing)
     {
-        super(throwing);
+        this(new ThrowingBiConsumer[] { throwing }, null, null, null);
     }
 
-    @Override
-    public void doAccept(final T t, final U u)
-        throws Throwable
+    private BiConsumerChainer(final ThrowingBiConsumer<T, U>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        throwing.doAccept(t, u);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public BiConsumerChainer<T, U> orTryWith(final ThrowingBiConsumer<T, U> other)
+    public void doAccept(final T t, final U u)
+        throws Throwable
     {
-        final ThrowingBiConsumer<T, U> consumer = (t, u) -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                throwing.doAccept(t, u);
+                alternatives[i].doAccept(t, u);
+                return;
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(t, u);
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        alternatives[last].doAccept(t, u);
+    }
+
+    @Override
+    public BiConsumerChainer<T, U> orTryWith(final ThrowingBiConsumer<T, U> other)
+    {
+        return derived(new BiConsumerChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new BiConsumerChainer<>(consumer);
+    @Override
+    protected BiConsumerChainer<T, U> guardedBy(final Guard guard)
+    {
+        return new BiConsumerChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final T t, final U u)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(t, u);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingBiConsumer<T, U> orThrow(
-        final Class<E> exclass)
+    protected BiConsumerChainer<T, U> retriedBy(final RetryPolicy policy)
     {
-        return (t, u) -> {
+        return new BiConsumerChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final T t, final U u)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(t, u);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected BiConsumerChainer<T, U> withMetrics(final ChainerMetrics metrics)
+    {
+        return new BiConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected BiConsumerChainer<T, U> withSite(final ConstructionSite site)
+    {
+        return new BiConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected BiConsumerChainer<T, U> withFilter(final ExceptionFilter filter)
+    {
+        return new BiConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingBiConsumer<T, U> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T t,
+        final U u)
+    {
+        try {
+            doAccept(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public BiConsumer<T, U> fallbackTo(final BiConsumer<T, U> fallback)
     {
-        return (t, u) -> {
-            try {
-                throwing.doAccept(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(t, u);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final BiConsumer<T, U> fallback, final T t,
+        final U u)
+    {
+        try {
+            doAccept(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(t, u);
+        }
     }
 
     @Override
     public BiConsumer<T, U> sneakyThrow()
     {
-        return (t, u) -> {
-            try {
-                throwing.doAccept(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final T t, final U u)
+    {
+        try {
+            doAccept(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public BiConsumer<T, U> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public BiConsumer<T, U> orDoNothing()
     {
-        return (t, u) -> {
+        return new Policy<>(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final T t, final U u)
+    {
+        try {
+            doAccept(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T, U>
+        implements ThrowingBiConsumer<T, U>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final BiConsumerChainer<T, U> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final BiConsumerChainer<T, U> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final T t, final U u)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, t, u);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, t, u);
+                    return;
+                default:
+                    accept(t, u);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final T t, final U u)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t, u);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((BiConsumer<T, U>) argument, t, u);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(t, u);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(t, u);
+                    return;
+                default:
+                    ThrowingBiConsumer.super.accept(t, u);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T, U>
+        implements BiConsumer<T, U>
+    {
+        private final ThrowingBiConsumer<T, U> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingBiConsumer<T, U>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final T t, final U u)
+        {
             try {
                 throwing.doAccept(t, u);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,94 +1,289 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class ConsumerChainer<T>
     extends Chainer<Consumer<T>, ThrowingConsumer<T>, ConsumerChainer<T>>
     implements ThrowingConsumer<T>
 {
+    private final ThrowingConsumer<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ConsumerChainer(final ThrowingConsumer<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingConsumer[] { throwing }, null, null, null);
     }
 
-    @Override
-    public void doAccept(final T t)
-        throws Throwable
+    private ConsumerChainer(final ThrowingConsumer<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        throwing.doAccept(t);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public ConsumerChainer<T> orTryWith(final ThrowingConsumer<T> other)
+    public void doAccept(final T t)
+        throws Throwable
     {
-        final ThrowingConsumer<T> consumer = t -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                throwing.doAccept(t);
+                alternatives[i].doAccept(t);
+                return;
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(t);
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        alternatives[last].doAccept(t);
+    }
+
+    @Override
+    public ConsumerChainer<T> orTryWith(final ThrowingConsumer<T> other)
+    {
+        return derived(new ConsumerChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ConsumerChainer<>(consumer);
+    @Override
+    protected ConsumerChainer<T> guardedBy(final Guard guard)
+    {
+        return new ConsumerChainer<>(new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final T t)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(t);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingConsumer<T> orThrow(
-        final Class<E> exclass)
+    protected ConsumerChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return t -> {
+        return new ConsumerChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final T t)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(t);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ConsumerChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new ConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ConsumerChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ConsumerChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new ConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingConsumer<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T t)
+    {
+        try {
+            doAccept(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public Consumer<T> fallbackTo(final Consumer<T> fallback)
     {
-        return t -> {
-            try {
-                throwing.doAccept(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(t);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final Consumer<T> fallback, final T t)
+    {
+        try {
+            doAccept(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(t);
+        }
     }
 
     @Override
     public Consumer<T> sneakyThrow()
     {
-        return t -> {
-            try {
-                throwing.doAccept(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final T t)
+    {
+        try {
+            doAccept(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public Consumer<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public Consumer<T> orDoNothing()
     {
-        return t -> {
+        return new Policy<>(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final T t)
+    {
+        try {
+            doAccept(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingConsumer<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final ConsumerChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ConsumerChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final T t)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, t);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, t);
+                    return;
+                default:
+                    accept(t);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final T t)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((Consumer<T>) argument, t);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(t);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(t);
+                    return;
+                default:
+                    ThrowingConsumer.super.accept(t);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements Consumer<T>
+    {
+        private final ThrowingConsumer<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingConsumer<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final T t)
+        {
             try {
                 throwing.doAccept(t);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,95 +1,291 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleConsumer;
+import java.util.function.Function;
 
 public class DoubleConsumerChainer
     extends Chainer<DoubleConsumer, ThrowingDoubleConsumer, DoubleConsumerChainer>
     implements ThrowingDoubleConsumer
 {
+    private final ThrowingDoubleConsumer[] alternatives;
+
     public DoubleConsumerChainer(final ThrowingDoubleConsumer throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleConsumer[] { throwing }, null, null, null);
+    }
+
+    private DoubleConsumerChainer(final ThrowingDoubleConsumer[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public void doAccept(final double value)
         throws Throwable
     {
-        throwing.doAccept(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                alternatives[i].doAccept(value);
+                return;
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        alternatives[last].doAccept(value);
     }
 
     @Override
     public DoubleConsumerChainer orTryWith(
         final ThrowingDoubleConsumer other)
     {
-        final ThrowingDoubleConsumer consumer = value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(value);
-            }
-        };
+        return derived(new DoubleConsumerChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new DoubleConsumerChainer(consumer);
+    @Override
+    protected DoubleConsumerChainer guardedBy(final Guard guard)
+    {
+        return new DoubleConsumerChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final double value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleConsumer orThrow(
-        final Class<E> exclass)
+    protected DoubleConsumerChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new DoubleConsumerChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final double value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(value);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleConsumerChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new DoubleConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleConsumerChainer withSite(final ConstructionSite site)
+    {
+        return new DoubleConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleConsumerChainer withFilter(final ExceptionFilter filter)
+    {
+        return new DoubleConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleConsumer orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final double value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleConsumer fallbackTo(final DoubleConsumer fallback)
     {
-        return value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final DoubleConsumer fallback,
+        final double value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(value);
+        }
     }
 
     @Override
     public DoubleConsumer sneakyThrow()
     {
-        return value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final double value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleConsumer specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleConsumer orDoNothing()
     {
-        return value -> {
+        return new Policy(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final double value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingDoubleConsumer
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final DoubleConsumerChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleConsumerChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final double value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, value);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, value);
+                    return;
+                default:
+                    accept(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final double value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((DoubleConsumer) argument, value);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(value);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(value);
+                    return;
+                default:
+                    ThrowingDoubleConsumer.super.accept(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements DoubleConsumer
+    {
+        private final ThrowingDoubleConsumer throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleConsumer) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final double value)
+        {
             try {
                 throwing.doAccept(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
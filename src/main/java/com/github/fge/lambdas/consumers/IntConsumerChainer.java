@@ -1,95 +1,288 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.IntConsumer;
 
 public class IntConsumerChainer
     extends Chainer<IntConsumer, ThrowingIntConsumer, IntConsumerChainer>
     implements ThrowingIntConsumer
 {
+    private final ThrowingIntConsumer[] alternatives;
+
     public IntConsumerChainer(final ThrowingIntConsumer throwing)
     {
-        super(throwing);
+        this(new ThrowingIntConsumer[] { throwing }, null, null, null);
+    }
+
+    private IntConsumerChainer(final ThrowingIntConsumer[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public void doAccept(final int value)
         throws Throwable
     {
-        throwing.doAccept(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                alternatives[i].doAccept(value);
+                return;
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        alternatives[last].doAccept(value);
     }
 
     @Override
     public IntConsumerChainer orTryWith(
         final ThrowingIntConsumer other)
     {
-        final ThrowingIntConsumer consumer = value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(value);
-            }
-        };
+        return derived(new IntConsumerChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new IntConsumerChainer(consumer);
+    @Override
+    protected IntConsumerChainer guardedBy(final Guard guard)
+    {
+        return new IntConsumerChainer(new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final int value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingIntConsumer orThrow(
-        final Class<E> exclass)
+    protected IntConsumerChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new IntConsumerChainer(new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final int value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(value);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected IntConsumerChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new IntConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntConsumerChainer withSite(final ConstructionSite site)
+    {
+        return new IntConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntConsumerChainer withFilter(final ExceptionFilter filter)
+    {
+        return new IntConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingIntConsumer orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final int value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public IntConsumer fallbackTo(final IntConsumer fallback)
     {
-        return value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final IntConsumer fallback, final int value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(value);
+        }
     }
 
     @Override
     public IntConsumer sneakyThrow()
     {
-        return value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final int value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public IntConsumer specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public IntConsumer orDoNothing()
     {
-        return value -> {
+        return new Policy(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final int value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingIntConsumer
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final IntConsumerChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final IntConsumerChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final int value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, value);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, value);
+                    return;
+                default:
+                    accept(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final int value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((IntConsumer) argument, value);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(value);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(value);
+                    return;
+                default:
+                    ThrowingIntConsumer.super.accept(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements IntConsumer
+    {
+        private final ThrowingIntConsumer throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingIntConsumer) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final int value)
+        {
             try {
                 throwing.doAccept(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
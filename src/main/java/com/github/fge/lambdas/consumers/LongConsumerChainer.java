@@ -1,95 +1,289 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongConsumer;
 
 public class LongConsumerChainer
     extends Chainer<LongConsumer, ThrowingLongConsumer, LongConsumerChainer>
     implements ThrowingLongConsumer
 {
+    private final ThrowingLongConsumer[] alternatives;
+
     public LongConsumerChainer(final ThrowingLongConsumer throwing)
     {
-        super(throwing);
+        this(new ThrowingLongConsumer[] { throwing }, null, null, null);
+    }
+
+    private LongConsumerChainer(final ThrowingLongConsumer[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public void doAccept(final long value)
         throws Throwable
     {
-        throwing.doAccept(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                alternatives[i].doAccept(value);
+                return;
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        alternatives[last].doAccept(value);
     }
 
     @Override
     public LongConsumerChainer orTryWith(
         final ThrowingLongConsumer other)
     {
-        final ThrowingLongConsumer consumer = value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(value);
-            }
-        };
+        return derived(new LongConsumerChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new LongConsumerChainer(consumer);
+    @Override
+    protected LongConsumerChainer guardedBy(final Guard guard)
+    {
+        return new LongConsumerChainer(new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final long value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongConsumer orThrow(
-        final Class<E> exclass)
+    protected LongConsumerChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new LongConsumerChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final long value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(value);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongConsumerChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new LongConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongConsumerChainer withSite(final ConstructionSite site)
+    {
+        return new LongConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongConsumerChainer withFilter(final ExceptionFilter filter)
+    {
+        return new LongConsumerChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongConsumer orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final long value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongConsumer fallbackTo(final LongConsumer fallback)
     {
-        return value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final LongConsumer fallback, final long value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(value);
+        }
     }
 
     @Override
     public LongConsumer sneakyThrow()
     {
-        return value -> {
-            try {
-                throwing.doAccept(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final long value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongConsumer specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongConsumer orDoNothing()
     {
-        return value -> {
+        return new Policy(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final long value)
+    {
+        try {
+            doAccept(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingLongConsumer
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final LongConsumerChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongConsumerChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final long value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, value);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, value);
+                    return;
+                default:
+                    accept(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final long value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((LongConsumer) argument, value);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(value);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(value);
+                    return;
+                default:
+                    ThrowingLongConsumer.super.accept(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements LongConsumer
+    {
+        private final ThrowingLongConsumer throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongConsumer) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final long value)
+        {
             try {
                 throwing.doAccept(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,96 +1,303 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.ObjDoubleConsumer;
 
 public class ObjDoubleConsumerChainer<T>
     extends Chainer<ObjDoubleConsumer<T>, ThrowingObjDoubleConsumer<T>, ObjDoubleConsumerChainer<T>>
     implements ThrowingObjDoubleConsumer<T>
 {
+    private final ThrowingObjDoubleConsumer<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ObjDoubleConsumerChainer(
         final ThrowingObjDoubleConsumer<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingObjDoubleConsumer[] { throwing }, null, null, null);
+    }
+
+    private ObjDoubleConsumerChainer(
+        final ThrowingObjDoubleConsumer<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public void doAccept(final T t, final double value)
         throws Throwable
     {
-        throwing.doAccept(t, value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                alternatives[i].doAccept(t, value);
+                return;
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        alternatives[last].doAccept(t, value);
     }
 
     @Override
     public ObjDoubleConsumerChainer<T> orTryWith(
         final ThrowingObjDoubleConsumer<T> other)
     {
-        final ThrowingObjDoubleConsumer<T> consumer = (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(t, value);
-            }
-        };
+        return derived(new ObjDoubleConsumerChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ObjDoubleConsumerChainer<>(consumer);
+    @Override
+    protected ObjDoubleConsumerChainer<T> guardedBy(final Guard guard)
+    {
+        return new ObjDoubleConsumerChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final T t, final double value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(t, value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingObjDoubleConsumer<T> orThrow(
-        final Class<E> exclass)
+    protected ObjDoubleConsumerChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return (t, value) -> {
+        return new ObjDoubleConsumerChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final T t,
+        final double value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(t, value);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ObjDoubleConsumerChainer<T> withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new ObjDoubleConsumerChainer<>(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ObjDoubleConsumerChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ObjDoubleConsumerChainer<>(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ObjDoubleConsumerChainer<T> withFilter(
+        final ExceptionFilter filter)
+    {
+        return new ObjDoubleConsumerChainer<>(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingObjDoubleConsumer<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T t,
+        final double value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public ObjDoubleConsumer<T> fallbackTo(final ObjDoubleConsumer<T> fallback)
     {
-        return (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(t, value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final ObjDoubleConsumer<T> fallback,
+        final T t, final double value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(t, value);
+        }
     }
 
     @Override
     public ObjDoubleConsumer<T> sneakyThrow()
     {
-        return (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final T t, final double value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public ObjDoubleConsumer<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public ObjDoubleConsumer<T> orDoNothing()
     {
-        return (t, value) -> {
+        return new Policy<>(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final T t, final double value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingObjDoubleConsumer<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final ObjDoubleConsumerChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ObjDoubleConsumerChainer<T> chainer,
+            final int kind, final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final T t, final double value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, t, value);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, t, value);
+                    return;
+                default:
+                    accept(t, value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final T t, final double value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t,
+                        value);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((ObjDoubleConsumer<T>) argument, t,
+                        value);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(t, value);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(t, value);
+                    return;
+                default:
+                    ThrowingObjDoubleConsumer.super.accept(t, value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements ObjDoubleConsumer<T>
+    {
+        private final ThrowingObjDoubleConsumer<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingObjDoubleConsumer<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final T t, final double value)
+        {
             try {
                 throwing.doAccept(t, value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
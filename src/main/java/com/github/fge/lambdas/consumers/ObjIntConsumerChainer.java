@@ -1,96 +1,298 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.ObjIntConsumer;
 
 public class ObjIntConsumerChainer<T>
     extends Chainer<ObjIntConsumer<T>, ThrowingObjIntConsumer<T>, ObjIntConsumerChainer<T>>
     implements ThrowingObjIntConsumer<T>
 {
+    private final ThrowingObjIntConsumer<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ObjIntConsumerChainer(
         final ThrowingObjIntConsumer<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingObjIntConsumer[] { throwing }, null, null, null);
+    }
+
+    private ObjIntConsumerChainer(
+        final ThrowingObjIntConsumer<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public void doAccept(final T t, final int value)
         throws Throwable
     {
-        throwing.doAccept(t, value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                alternatives[i].doAccept(t, value);
+                return;
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        alternatives[last].doAccept(t, value);
     }
 
     @Override
     public ObjIntConsumerChainer<T> orTryWith(
         final ThrowingObjIntConsumer<T> other)
     {
-        final ThrowingObjIntConsumer<T> consumer = (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(t, value);
-            }
-        };
+        return derived(new ObjIntConsumerChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ObjIntConsumerChainer<>(consumer);
+    @Override
+    protected ObjIntConsumerChainer<T> guardedBy(final Guard guard)
+    {
+        return new ObjIntConsumerChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final T t, final int value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(t, value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingObjIntConsumer<T> orThrow(
-        final Class<E> exclass)
+    protected ObjIntConsumerChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return (t, value) -> {
+        return new ObjIntConsumerChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final T t,
+        final int value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(t, value);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ObjIntConsumerChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new ObjIntConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ObjIntConsumerChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ObjIntConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ObjIntConsumerChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new ObjIntConsumerChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingObjIntConsumer<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T t,
+        final int value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public ObjIntConsumer<T> fallbackTo(final ObjIntConsumer<T> fallback)
     {
-        return (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(t, value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final ObjIntConsumer<T> fallback, final T t,
+        final int value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(t, value);
+        }
     }
 
     @Override
     public ObjIntConsumer<T> sneakyThrow()
     {
-        return (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final T t, final int value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public ObjIntConsumer<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public ObjIntConsumer<T> orDoNothing()
     {
-        return (t, value) -> {
+        return new Policy<>(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final T t, final int value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingObjIntConsumer<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final ObjIntConsumerChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ObjIntConsumerChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final T t, final int value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, t, value);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, t, value);
+                    return;
+                default:
+                    accept(t, value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final T t, final int value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t,
+                        value);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((ObjIntConsumer<T>) argument, t,
+                        value);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(t, value);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(t, value);
+                    return;
+                default:
+                    ThrowingObjIntConsumer.super.accept(t, value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements ObjIntConsumer<T>
+    {
+        private final ThrowingObjIntConsumer<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingObjIntConsumer<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final T t, final int value)
+        {
             try {
                 throwing.doAccept(t, value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,96 +1,302 @@
 package com.github.fge.lambdas.consumers;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.ObjLongConsumer;
 
 public class ObjLongConsumerChainer<T>
     extends Chainer<ObjLongConsumer<T>, ThrowingObjLongConsumer<T>, ObjLongConsumerChainer<T>>
     implements ThrowingObjLongConsumer<T>
 {
+    private final ThrowingObjLongConsumer<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ObjLongConsumerChainer(
         final ThrowingObjLongConsumer<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingObjLongConsumer[] { throwing }, null, null, null);
+    }
+
+    private ObjLongConsumerChainer(
+        final ThrowingObjLongConsumer<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public void doAccept(final T t, final long value)
         throws Throwable
     {
-        throwing.doAccept(t, value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                alternatives[i].doAccept(t, value);
+                return;
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        alternatives[last].doAccept(t, value);
     }
 
     @Override
     public ObjLongConsumerChainer<T> orTryWith(
         final ThrowingObjLongConsumer<T> other)
     {
-        final ThrowingObjLongConsumer<T> consumer = (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                other.doAccept(t, value);
-            }
-        };
+        return derived(new ObjLongConsumerChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ObjLongConsumerChainer<>(consumer);
+    @Override
+    protected ObjLongConsumerChainer<T> guardedBy(final Guard guard)
+    {
+        return new ObjLongConsumerChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private void acceptGuarded(final Guard guard, final T t, final long value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doAccept(t, value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingObjLongConsumer<T> orThrow(
-        final Class<E> exclass)
+    protected ObjLongConsumerChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return (t, value) -> {
+        return new ObjLongConsumerChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private void acceptRetried(final RetryPolicy policy, final T t,
+        final long value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doAccept(t, value);
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ObjLongConsumerChainer<T> withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new ObjLongConsumerChainer<>(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ObjLongConsumerChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ObjLongConsumerChainer<>(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ObjLongConsumerChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new ObjLongConsumerChainer<>(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingObjLongConsumer<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private void acceptOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T t,
+        final long value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public ObjLongConsumer<T> fallbackTo(final ObjLongConsumer<T> fallback)
     {
-        return (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.accept(t, value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void acceptFallbackTo(final ObjLongConsumer<T> fallback, final T t,
+        final long value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.accept(t, value);
+        }
     }
 
     @Override
     public ObjLongConsumer<T> sneakyThrow()
     {
-        return (t, value) -> {
-            try {
-                throwing.doAccept(t, value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void acceptSneakyThrow(final T t, final long value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public ObjLongConsumer<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public ObjLongConsumer<T> orDoNothing()
     {
-        return (t, value) -> {
+        return new Policy<>(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void acceptOrDoNothing(final T t, final long value)
+    {
+        try {
+            doAccept(t, value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingObjLongConsumer<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final ObjLongConsumerChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ObjLongConsumerChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doAccept(final T t, final long value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.acceptGuarded((Guard) argument, t, value);
+                    return;
+                case RETRIED:
+                    chainer.acceptRetried((RetryPolicy) argument, t, value);
+                    return;
+                default:
+                    accept(t, value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(final T t, final long value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.acceptOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t,
+                        value);
+                    return;
+                case FALLBACK_TO:
+                    chainer.acceptFallbackTo((ObjLongConsumer<T>) argument, t,
+                        value);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.acceptSneakyThrow(t, value);
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.acceptOrDoNothing(t, value);
+                    return;
+                default:
+                    ThrowingObjLongConsumer.super.accept(t, value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements ObjLongConsumer<T>
+    {
+        private final ThrowingObjLongConsumer<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingObjLongConsumer<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void accept(final T t, final long value)
+        {
             try {
                 throwing.doAccept(t, value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
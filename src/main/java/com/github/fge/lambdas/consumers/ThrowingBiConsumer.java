@@ -25,7 +25,7 @@ public interface ThrowingBiConsumer<T, U>
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable throwable) {
-            throw new ThrownByLambdaException(throwable);
+            throw ThrownByLambdaException.of(this, throwable);
         }
     }
 }
@@ -23,7 +23,7 @@ public interface ThrowingConsumer<T>
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable throwable) {
-            throw new ThrownByLambdaException(throwable);
+            throw ThrownByLambdaException.of(this, throwable);
         }
     }
 }
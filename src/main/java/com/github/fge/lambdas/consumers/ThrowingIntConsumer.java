@@ -22,7 +22,7 @@ public interface ThrowingIntConsumer
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable throwable) {
-            throw new ThrownByLambdaException(throwable);
+            throw ThrownByLambdaException.of(this, throwable);
         }
     }
 }
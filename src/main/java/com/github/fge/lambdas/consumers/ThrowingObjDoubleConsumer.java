@@ -24,7 +24,7 @@ public interface ThrowingObjDoubleConsumer<T>
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable tooBad) {
-            throw new ThrownByLambdaException(tooBad);
+            throw ThrownByLambdaException.of(this, tooBad);
         }
     }
 }
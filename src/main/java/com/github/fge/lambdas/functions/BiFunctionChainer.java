@@ -1,95 +1,290 @@
 package com.github.fge.lambdas.functions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class BiFunctionChainer<T, U, R>
     extends Chainer<BiFunction<T, U, R>, ThrowingBiFunction<T, U, R>, BiFunctionChainer<T, U, R>>
     implements ThrowingBiFunction<T, U, R>
 {
+    private final ThrowingBiFunction<T, U, R>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public BiFunctionChainer(final ThrowingBiFunction<T, U, R> throwing)
     {
-        super(throwing);
+        this(new ThrowingBiFunction[] { throwing }, null, null, null);
+    }
+
+    private BiFunctionChainer(final ThrowingBiFunction<T, U, R>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public R doApply(final T t, final U u)
         throws Throwable
     {
-        return throwing.doApply(t, u);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApply(t, u);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApply(t, u);
     }
 
     @Override
     public BiFunctionChainer<T, U, R> orTryWith(
         final ThrowingBiFunction<T, U, R> other)
     {
-        final ThrowingBiFunction<T, U, R> biFunction = (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApply(t, u);
-            }
-        };
+        return derived(new BiFunctionChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new BiFunctionChainer<>(biFunction);
+    @Override
+    protected BiFunctionChainer<T, U, R> guardedBy(final Guard guard)
+    {
+        return new BiFunctionChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private R applyGuarded(final Guard guard, final T t, final U u)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final R ret;
+        try {
+            ret = doApply(t, u);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingBiFunction<T, U, R> orThrow(
-        final Class<E> exclass)
+    protected BiFunctionChainer<T, U, R> retriedBy(final RetryPolicy policy)
     {
-        return (t, u) -> {
+        return new BiFunctionChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private R applyRetried(final RetryPolicy policy, final T t, final U u)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApply(t, u);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected BiFunctionChainer<T, U, R> withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new BiFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected BiFunctionChainer<T, U, R> withSite(final ConstructionSite site)
+    {
+        return new BiFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected BiFunctionChainer<T, U, R> withFilter(
+        final ExceptionFilter filter)
+    {
+        return new BiFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingBiFunction<T, U, R> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private R applyOrThrow(final Function<Throwable, RuntimeException> factory,
+        final T t, final U u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public BiFunction<T, U, R> fallbackTo(final BiFunction<T, U, R> fallback)
     {
-        return (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.apply(t, u);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private R applyFallbackTo(final BiFunction<T, U, R> fallback, final T t,
+        final U u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.apply(t, u);
+        }
     }
 
     @Override
     public BiFunction<T, U, R> sneakyThrow()
     {
-        return (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private R applySneakyThrow(final T t, final U u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public BiFunction<T, U, R> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public BiFunction<T, U, R> orReturn(final R retval)
     {
-        return (t, u) -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private R applyOrReturn(final R retval, final T t, final U u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T, U, R>
+        implements ThrowingBiFunction<T, U, R>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final BiFunctionChainer<T, U, R> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final BiFunctionChainer<T, U, R> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public R doApply(final T t, final U u)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyGuarded((Guard) argument, t, u);
+                case RETRIED:
+                    return chainer.applyRetried((RetryPolicy) argument, t, u);
+                default:
+                    return apply(t, u);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R apply(final T t, final U u)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t, u);
+                case FALLBACK_TO:
+                    return chainer.applyFallbackTo(
+                        (BiFunction<T, U, R>) argument, t, u);
+                case SNEAKY_THROW:
+                    return chainer.applySneakyThrow(t, u);
+                case OR_RETURN:
+                    return chainer.applyOrReturn((R) argument, t, u);
+                default:
+                    return ThrowingBiFunction.super.apply(t, u);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T, U, R>
+        implements BiFunction<T, U, R>
+    {
+        private final ThrowingBiFunction<T, U, R> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingBiFunction<T, U, R>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public R apply(final T t, final U u)
+        {
             try {
                 return throwing.doApply(t, u);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
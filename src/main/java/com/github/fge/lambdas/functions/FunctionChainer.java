@@ -1,95 +1,285 @@
 package com.github.fge.lambdas.functions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.Function;
 
 public class FunctionChainer<T, R>
     extends Chainer<Function<T, R>, ThrowingFunction<T, R>, FunctionChainer<T, R>>
     implements ThrowingFunction<T, R>
 {
+    private final ThrowingFunction<T, R>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public FunctionChainer(final ThrowingFunction<T, R> function)
     {
-        super(function);
+        this(new ThrowingFunction[] { function }, null, null, null);
+    }
+
+    private FunctionChainer(final ThrowingFunction<T, R>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public R doApply(final T t)
         throws Throwable
     {
-        return throwing.doApply(t);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApply(t);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApply(t);
     }
 
     @Override
     public FunctionChainer<T, R> orTryWith(
         final ThrowingFunction<T, R> other)
     {
-        final ThrowingFunction<T, R> function = t -> {
-            try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApply(t);
-            }
-        };
+        return derived(new FunctionChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new FunctionChainer<>(function);
+    @Override
+    protected FunctionChainer<T, R> guardedBy(final Guard guard)
+    {
+        return new FunctionChainer<>(new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private R applyGuarded(final Guard guard, final T t)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final R ret;
+        try {
+            ret = doApply(t);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingFunction<T, R> orThrow(
-        final Class<E> exclass)
+    protected FunctionChainer<T, R> retriedBy(final RetryPolicy policy)
+    {
+        return new FunctionChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private R applyRetried(final RetryPolicy policy, final T t)
+        throws Throwable
     {
-        return t -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApply(t);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected FunctionChainer<T, R> withMetrics(final ChainerMetrics metrics)
+    {
+        return new FunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected FunctionChainer<T, R> withSite(final ConstructionSite site)
+    {
+        return new FunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected FunctionChainer<T, R> withFilter(final ExceptionFilter filter)
+    {
+        return new FunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingFunction<T, R> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private R applyOrThrow(final Function<Throwable, RuntimeException> factory,
+        final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public Function<T, R> fallbackTo(final Function<T, R> fallback)
     {
-        return t -> {
-            try {
-                return doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.apply(t);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private R applyFallbackTo(final Function<T, R> fallback, final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.apply(t);
+        }
     }
 
     @Override
     public Function<T, R> sneakyThrow()
     {
-        return t -> {
-            try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private R applySneakyThrow(final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public Function<T, R> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public Function<T, R> orReturn(final R retval)
     {
-        return t -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private R applyOrReturn(final R retval, final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T, R>
+        implements ThrowingFunction<T, R>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final FunctionChainer<T, R> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final FunctionChainer<T, R> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public R doApply(final T t)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyGuarded((Guard) argument, t);
+                case RETRIED:
+                    return chainer.applyRetried((RetryPolicy) argument, t);
+                default:
+                    return apply(t);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R apply(final T t)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t);
+                case FALLBACK_TO:
+                    return chainer.applyFallbackTo((Function<T, R>) argument,
+                        t);
+                case SNEAKY_THROW:
+                    return chainer.applySneakyThrow(t);
+                case OR_RETURN:
+                    return chainer.applyOrReturn((R) argument, t);
+                default:
+                    return ThrowingFunction.super.apply(t);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T, R>
+        implements Function<T, R>
+    {
+        private final ThrowingFunction<T, R> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingFunction<T, R>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public R apply(final T t)
+        {
             try {
-                return doApply(t);
+                return throwing.doApply(t);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
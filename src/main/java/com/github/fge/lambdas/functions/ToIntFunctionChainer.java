@@ -1,96 +1,292 @@
 package com.github.fge.lambdas.functions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.ToIntFunction;
 
 public class ToIntFunctionChainer<T>
     extends Chainer<ToIntFunction<T>, ThrowingToIntFunction<T>, ToIntFunctionChainer<T>>
     implements ThrowingToIntFunction<T>
 {
+    private final ThrowingToIntFunction<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ToIntFunctionChainer(
         final ThrowingToIntFunction<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingToIntFunction[] { throwing }, null, null, null);
+    }
+
+    private ToIntFunctionChainer(final ThrowingToIntFunction<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public int doApplyAsInt(final T value)
         throws Throwable
     {
-        return throwing.doApplyAsInt(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsInt(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsInt(value);
     }
 
     @Override
     public ToIntFunctionChainer<T> orTryWith(
         final ThrowingToIntFunction<T> other)
     {
-        final ThrowingToIntFunction<T> toIntFunction = value -> {
-            try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsInt(value);
-            }
-        };
+        return derived(new ToIntFunctionChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ToIntFunctionChainer<>(toIntFunction);
+    @Override
+    protected ToIntFunctionChainer<T> guardedBy(final Guard guard)
+    {
+        return new ToIntFunctionChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private int applyAsIntGuarded(final Guard guard, final T value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final int ret;
+        try {
+            ret = doApplyAsInt(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingToIntFunction<T> orThrow(
-        final Class<E> exclass)
+    protected ToIntFunctionChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new ToIntFunctionChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private int applyAsIntRetried(final RetryPolicy policy, final T value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsInt(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ToIntFunctionChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new ToIntFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ToIntFunctionChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ToIntFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ToIntFunctionChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new ToIntFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingToIntFunction<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private int applyAsIntOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public ToIntFunction<T> fallbackTo(final ToIntFunction<T> fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsInt(value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private int applyAsIntFallbackTo(final ToIntFunction<T> fallback,
+        final T value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsInt(value);
+        }
     }
 
     @Override
     public ToIntFunction<T> sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private int applyAsIntSneakyThrow(final T value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public ToIntFunction<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public ToIntFunction<T> orReturn(final int retval)
     {
-        return value -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private int applyAsIntOrReturn(final int retval, final T value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingToIntFunction<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final ToIntFunctionChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ToIntFunctionChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int doApplyAsInt(final T value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsIntGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyAsIntRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsInt(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int applyAsInt(final T value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsIntOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsIntFallbackTo(
+                        (ToIntFunction<T>) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsIntSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsIntOrReturn((Integer) argument,
+                        value);
+                default:
+                    return ThrowingToIntFunction.super.applyAsInt(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements ToIntFunction<T>
+    {
+        private final ThrowingToIntFunction<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingToIntFunction<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public int applyAsInt(final T value)
+        {
             try {
                 return throwing.doApplyAsInt(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,96 +1,292 @@
 package com.github.fge.lambdas.functions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.ToLongFunction;
 
 public class ToLongFunctionChainer<T>
     extends Chainer<ToLongFunction<T>, ThrowingToLongFunction<T>, ToLongFunctionChainer<T>>
     implements ThrowingToLongFunction<T>
 {
+    private final ThrowingToLongFunction<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public ToLongFunctionChainer(
         final ThrowingToLongFunction<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingToLongFunction[] { throwing }, null, null, null);
+    }
+
+    private ToLongFunctionChainer(
+        final ThrowingToLongFunction<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public long doApplyAsLong(final T value)
         throws Throwable
     {
-        return throwing.doApplyAsLong(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsLong(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsLong(value);
     }
 
     @Override
     public ToLongFunctionChainer<T> orTryWith(
         final ThrowingToLongFunction<T> other)
     {
-        final ThrowingToLongFunction<T> toLongFunction = value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsLong(value);
-            }
-        };
+        return derived(new ToLongFunctionChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new ToLongFunctionChainer<>(toLongFunction);
+    @Override
+    protected ToLongFunctionChainer<T> guardedBy(final Guard guard)
+    {
+        return new ToLongFunctionChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private long applyAsLongGuarded(final Guard guard, final T value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final long ret;
+        try {
+            ret = doApplyAsLong(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingToLongFunction<T> orThrow(
-        final Class<E> exclass)
+    protected ToLongFunctionChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new ToLongFunctionChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private long applyAsLongRetried(final RetryPolicy policy, final T value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsLong(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected ToLongFunctionChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new ToLongFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ToLongFunctionChainer<T> withSite(final ConstructionSite site)
+    {
+        return new ToLongFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected ToLongFunctionChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new ToLongFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingToLongFunction<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private long applyAsLongOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public ToLongFunction<T> fallbackTo(final ToLongFunction<T> fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsLong(value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private long applyAsLongFallbackTo(final ToLongFunction<T> fallback,
+        final T value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsLong(value);
+        }
     }
 
     @Override
     public ToLongFunction<T> sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private long applyAsLongSneakyThrow(final T value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public ToLongFunction<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public ToLongFunction<T> orReturn(final long retval)
     {
-        return value -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private long applyAsLongOrReturn(final long retval, final T value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingToLongFunction<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final ToLongFunctionChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final ToLongFunctionChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public long doApplyAsLong(final T value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsLongGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyAsLongRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsLong(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public long applyAsLong(final T value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsLongOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsLongFallbackTo(
+                        (ToLongFunction<T>) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsLongSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsLongOrReturn((Long) argument, value);
+                default:
+                    return ThrowingToLongFunction.super.applyAsLong(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements ToLongFunction<T>
+    {
+        private final ThrowingToLongFunction<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingToLongFunction<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public long applyAsLong(final T value)
+        {
             try {
                 return throwing.doApplyAsLong(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
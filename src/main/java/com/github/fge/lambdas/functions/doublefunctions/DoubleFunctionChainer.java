@@ -1,96 +1,291 @@
 package com.github.fge.lambdas.functions.doublefunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleFunction;
+import java.util.function.Function;
 
 public class DoubleFunctionChainer<R>
     extends Chainer<DoubleFunction<R>, ThrowingDoubleFunction<R>, DoubleFunctionChainer<R>>
     implements ThrowingDoubleFunction<R>
 {
+    private final ThrowingDoubleFunction<R>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public DoubleFunctionChainer(
         final ThrowingDoubleFunction<R> throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleFunction[] { throwing }, null, null, null);
+    }
+
+    private DoubleFunctionChainer(
+        final ThrowingDoubleFunction<R>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public R doApply(final double value)
         throws Throwable
     {
-        return throwing.doApply(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApply(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApply(value);
     }
 
     @Override
     public DoubleFunctionChainer<R> orTryWith(
         final ThrowingDoubleFunction<R> other)
     {
-        final ThrowingDoubleFunction doubleFunction = value -> {
-            try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApply(value);
-            }
-        };
+        return derived(new DoubleFunctionChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new DoubleFunctionChainer<>(doubleFunction);
+    @Override
+    protected DoubleFunctionChainer<R> guardedBy(final Guard guard)
+    {
+        return new DoubleFunctionChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private R applyGuarded(final Guard guard, final double value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final R ret;
+        try {
+            ret = doApply(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleFunction<R> orThrow(
-        final Class<E> exclass)
+    protected DoubleFunctionChainer<R> retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new DoubleFunctionChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private R applyRetried(final RetryPolicy policy, final double value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApply(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleFunctionChainer<R> withMetrics(final ChainerMetrics metrics)
+    {
+        return new DoubleFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleFunctionChainer<R> withSite(final ConstructionSite site)
+    {
+        return new DoubleFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleFunctionChainer<R> withFilter(final ExceptionFilter filter)
+    {
+        return new DoubleFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleFunction<R> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private R applyOrThrow(final Function<Throwable, RuntimeException> factory,
+        final double value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleFunction<R> fallbackTo(final DoubleFunction<R> fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.apply(value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private R applyFallbackTo(final DoubleFunction<R> fallback,
+        final double value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.apply(value);
+        }
     }
 
     @Override
     public DoubleFunction<R> sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private R applySneakyThrow(final double value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleFunction<R> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleFunction<R> orReturn(final R retval)
     {
-        return value -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private R applyOrReturn(final R retval, final double value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<R>
+        implements ThrowingDoubleFunction<R>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final DoubleFunctionChainer<R> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleFunctionChainer<R> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public R doApply(final double value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyRetried((RetryPolicy) argument, value);
+                default:
+                    return apply(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R apply(final double value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyFallbackTo((DoubleFunction<R>) argument,
+                        value);
+                case SNEAKY_THROW:
+                    return chainer.applySneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyOrReturn((R) argument, value);
+                default:
+                    return ThrowingDoubleFunction.super.apply(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<R>
+        implements DoubleFunction<R>
+    {
+        private final ThrowingDoubleFunction<R> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleFunction<R>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public R apply(final double value)
+        {
             try {
                 return throwing.doApply(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,96 +1,296 @@
 package com.github.fge.lambdas.functions.doublefunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleToIntFunction;
+import java.util.function.Function;
 
 public class DoubleToIntFunctionChainer
     extends Chainer<DoubleToIntFunction, ThrowingDoubleToIntFunction, DoubleToIntFunctionChainer>
     implements ThrowingDoubleToIntFunction
 {
+    private final ThrowingDoubleToIntFunction[] alternatives;
+
     public DoubleToIntFunctionChainer(
         final ThrowingDoubleToIntFunction throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleToIntFunction[] { throwing }, null, null, null);
+    }
+
+    private DoubleToIntFunctionChainer(
+        final ThrowingDoubleToIntFunction[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public int doApplyAsInt(final double value)
         throws Throwable
     {
-        return throwing.doApplyAsInt(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsInt(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsInt(value);
     }
 
     @Override
     public DoubleToIntFunctionChainer orTryWith(
         final ThrowingDoubleToIntFunction other)
     {
-        final ThrowingDoubleToIntFunction doubleToIntFunction = value -> {
-            try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsInt(value);
-            }
-        };
+        return derived(new DoubleToIntFunctionChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new DoubleToIntFunctionChainer(doubleToIntFunction);
+    @Override
+    protected DoubleToIntFunctionChainer guardedBy(final Guard guard)
+    {
+        return new DoubleToIntFunctionChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private int applyAsIntGuarded(final Guard guard, final double value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final int ret;
+        try {
+            ret = doApplyAsInt(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleToIntFunction orThrow(
-        final Class<E> exclass)
+    protected DoubleToIntFunctionChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new DoubleToIntFunctionChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private int applyAsIntRetried(final RetryPolicy policy, final double value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsInt(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleToIntFunctionChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new DoubleToIntFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleToIntFunctionChainer withSite(final ConstructionSite site)
+    {
+        return new DoubleToIntFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleToIntFunctionChainer withFilter(
+        final ExceptionFilter filter)
+    {
+        return new DoubleToIntFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleToIntFunction orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private int applyAsIntOrThrow(
+        final Function<Throwable, RuntimeException> factory, final double value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleToIntFunction fallbackTo(final DoubleToIntFunction fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsInt(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private int applyAsIntFallbackTo(final DoubleToIntFunction fallback,
+        final double value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsInt(value);
+        }
     }
 
     @Override
     public DoubleToIntFunction sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsInt(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private int applyAsIntSneakyThrow(final double value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleToIntFunction specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleToIntFunction orReturn(final int retval)
     {
-        return value -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private int applyAsIntOrReturn(final int retval, final double value)
+    {
+        try {
+            return doApplyAsInt(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingDoubleToIntFunction
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final DoubleToIntFunctionChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleToIntFunctionChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int doApplyAsInt(final double value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsIntGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyAsIntRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsInt(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int applyAsInt(final double value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsIntOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsIntFallbackTo(
+                        (DoubleToIntFunction) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsIntSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsIntOrReturn((Integer) argument,
+                        value);
+                default:
+                    return ThrowingDoubleToIntFunction.super.applyAsInt(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements DoubleToIntFunction
+    {
+        private final ThrowingDoubleToIntFunction throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleToIntFunction) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public int applyAsInt(final double value)
+        {
             try {
                 return throwing.doApplyAsInt(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
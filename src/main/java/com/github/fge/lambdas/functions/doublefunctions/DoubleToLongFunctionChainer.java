@@ -1,96 +1,297 @@
 package com.github.fge.lambdas.functions.doublefunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleToLongFunction;
+import java.util.function.Function;
 
 public class DoubleToLongFunctionChainer
     extends Chainer<DoubleToLongFunction, ThrowingDoubleToLongFunction, DoubleToLongFunctionChainer>
     implements ThrowingDoubleToLongFunction
 {
+    private final ThrowingDoubleToLongFunction[] alternatives;
+
     public DoubleToLongFunctionChainer(
         final ThrowingDoubleToLongFunction throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleToLongFunction[] { throwing }, null, null, null);
+    }
+
+    private DoubleToLongFunctionChainer(
+        final ThrowingDoubleToLongFunction[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public long doApplyAsLong(final double value)
         throws Throwable
     {
-        return throwing.doApplyAsLong(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsLong(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsLong(value);
     }
 
     @Override
     public DoubleToLongFunctionChainer orTryWith(
         final ThrowingDoubleToLongFunction other)
     {
-        final ThrowingDoubleToLongFunction doubleToLongFunction = value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsLong(value);
-            }
-        };
+        return derived(new DoubleToLongFunctionChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new DoubleToLongFunctionChainer(doubleToLongFunction);
+    @Override
+    protected DoubleToLongFunctionChainer guardedBy(final Guard guard)
+    {
+        return new DoubleToLongFunctionChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private long applyAsLongGuarded(final Guard guard, final double value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final long ret;
+        try {
+            ret = doApplyAsLong(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleToLongFunction orThrow(
-        final Class<E> exclass)
+    protected DoubleToLongFunctionChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new DoubleToLongFunctionChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private long applyAsLongRetried(final RetryPolicy policy,
+        final double value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsLong(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleToLongFunctionChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new DoubleToLongFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleToLongFunctionChainer withSite(final ConstructionSite site)
+    {
+        return new DoubleToLongFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleToLongFunctionChainer withFilter(
+        final ExceptionFilter filter)
+    {
+        return new DoubleToLongFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleToLongFunction orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private long applyAsLongOrThrow(
+        final Function<Throwable, RuntimeException> factory, final double value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleToLongFunction fallbackTo(final DoubleToLongFunction fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsLong(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private long applyAsLongFallbackTo(final DoubleToLongFunction fallback,
+        final double value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsLong(value);
+        }
     }
 
     @Override
     public DoubleToLongFunction sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private long applyAsLongSneakyThrow(final double value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleToLongFunction specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleToLongFunction orReturn(final long retval)
     {
-        return value -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private long applyAsLongOrReturn(final long retval, final double value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingDoubleToLongFunction
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final DoubleToLongFunctionChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleToLongFunctionChainer chainer,
+            final int kind, final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public long doApplyAsLong(final double value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsLongGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyAsLongRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsLong(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public long applyAsLong(final double value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsLongOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsLongFallbackTo(
+                        (DoubleToLongFunction) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsLongSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsLongOrReturn((Long) argument, value);
+                default:
+                    return ThrowingDoubleToLongFunction.super.applyAsLong(
+                        value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements DoubleToLongFunction
+    {
+        private final ThrowingDoubleToLongFunction throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleToLongFunction) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public long applyAsLong(final double value)
+        {
             try {
                 return throwing.doApplyAsLong(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,96 +1,299 @@
 package com.github.fge.lambdas.functions.intfunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.IntToDoubleFunction;
 
 public class IntToDoubleFunctionChainer
     extends Chainer<IntToDoubleFunction, ThrowingIntToDoubleFunction, IntToDoubleFunctionChainer>
     implements ThrowingIntToDoubleFunction
 {
+    private final ThrowingIntToDoubleFunction[] alternatives;
+
     public IntToDoubleFunctionChainer(
         final ThrowingIntToDoubleFunction throwing)
     {
-        super(throwing);
+        this(new ThrowingIntToDoubleFunction[] { throwing }, null, null, null);
+    }
+
+    private IntToDoubleFunctionChainer(
+        final ThrowingIntToDoubleFunction[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public double doApplyAsDouble(final int value)
         throws Throwable
     {
-        return throwing.doApplyAsDouble(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsDouble(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsDouble(value);
     }
 
     @Override
     public IntToDoubleFunctionChainer orTryWith(
         final ThrowingIntToDoubleFunction other)
     {
-        final ThrowingIntToDoubleFunction intToDoubleFunction = value -> {
-            try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsDouble(value);
-            }
-        };
+        return derived(new IntToDoubleFunctionChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new IntToDoubleFunctionChainer(intToDoubleFunction);
+    @Override
+    protected IntToDoubleFunctionChainer guardedBy(final Guard guard)
+    {
+        return new IntToDoubleFunctionChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private double applyAsDoubleGuarded(final Guard guard, final int value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final double ret;
+        try {
+            ret = doApplyAsDouble(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingIntToDoubleFunction orThrow(
-        final Class<E> exclass)
+    protected IntToDoubleFunctionChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new IntToDoubleFunctionChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private double applyAsDoubleRetried(final RetryPolicy policy,
+        final int value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsDouble(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected IntToDoubleFunctionChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new IntToDoubleFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntToDoubleFunctionChainer withSite(final ConstructionSite site)
+    {
+        return new IntToDoubleFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntToDoubleFunctionChainer withFilter(
+        final ExceptionFilter filter)
+    {
+        return new IntToDoubleFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingIntToDoubleFunction orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private double applyAsDoubleOrThrow(
+        final Function<Throwable, RuntimeException> factory, final int value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public IntToDoubleFunction fallbackTo(final IntToDoubleFunction fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsDouble(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private double applyAsDoubleFallbackTo(final IntToDoubleFunction fallback,
+        final int value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsDouble(value);
+        }
     }
 
     @Override
     public IntToDoubleFunction sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private double applyAsDoubleSneakyThrow(final int value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public IntToDoubleFunction specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public IntToDoubleFunction orReturn(final double retval)
     {
-        return value -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private double applyAsDoubleOrReturn(final double retval, final int value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingIntToDoubleFunction
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final IntToDoubleFunctionChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final IntToDoubleFunctionChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public double doApplyAsDouble(final int value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsDoubleGuarded((Guard) argument,
+                        value);
+                case RETRIED:
+                    return chainer.applyAsDoubleRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsDouble(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public double applyAsDouble(final int value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsDoubleOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsDoubleFallbackTo(
+                        (IntToDoubleFunction) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsDoubleSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsDoubleOrReturn((Double) argument,
+                        value);
+                default:
+                    return ThrowingIntToDoubleFunction.super.applyAsDouble(
+                        value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements IntToDoubleFunction
+    {
+        private final ThrowingIntToDoubleFunction throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingIntToDoubleFunction) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public double applyAsDouble(final int value)
+        {
             try {
                 return throwing.doApplyAsDouble(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
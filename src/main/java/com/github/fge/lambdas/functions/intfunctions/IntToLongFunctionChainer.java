@@ -1,96 +1,293 @@
 package com.github.fge.lambdas.functions.intfunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.IntToLongFunction;
 
 public class IntToLongFunctionChainer
     extends Chainer<IntToLongFunction, ThrowingIntToLongFunction, IntToLongFunctionChainer>
     implements ThrowingIntToLongFunction
 {
+    private final ThrowingIntToLongFunction[] alternatives;
+
     public IntToLongFunctionChainer(
         final ThrowingIntToLongFunction throwing)
     {
-        super(throwing);
+        this(new ThrowingIntToLongFunction[] { throwing }, null, null, null);
+    }
+
+    private IntToLongFunctionChainer(
+        final ThrowingIntToLongFunction[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public long doApplyAsLong(final int value)
         throws Throwable
     {
-        return throwing.doApplyAsLong(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsLong(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsLong(value);
     }
 
     @Override
     public IntToLongFunctionChainer orTryWith(
         final ThrowingIntToLongFunction other)
     {
-        final ThrowingIntToLongFunction intToLongFunction = value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsLong(value);
-            }
-        };
+        return derived(new IntToLongFunctionChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new IntToLongFunctionChainer(intToLongFunction);
+    @Override
+    protected IntToLongFunctionChainer guardedBy(final Guard guard)
+    {
+        return new IntToLongFunctionChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private long applyAsLongGuarded(final Guard guard, final int value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final long ret;
+        try {
+            ret = doApplyAsLong(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingIntToLongFunction orThrow(
-        final Class<E> exclass)
+    protected IntToLongFunctionChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new IntToLongFunctionChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private long applyAsLongRetried(final RetryPolicy policy, final int value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsLong(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected IntToLongFunctionChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new IntToLongFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntToLongFunctionChainer withSite(final ConstructionSite site)
+    {
+        return new IntToLongFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntToLongFunctionChainer withFilter(final ExceptionFilter filter)
+    {
+        return new IntToLongFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingIntToLongFunction orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private long applyAsLongOrThrow(
+        final Function<Throwable, RuntimeException> factory, final int value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public IntToLongFunction fallbackTo(final IntToLongFunction fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsLong(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private long applyAsLongFallbackTo(final IntToLongFunction fallback,
+        final int value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsLong(value);
+        }
     }
 
     @Override
     public IntToLongFunction sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsLong(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private long applyAsLongSneakyThrow(final int value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public IntToLongFunction specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public IntToLongFunction orReturn(final long retval)
     {
-        return value -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private long applyAsLongOrReturn(final long retval, final int value)
+    {
+        try {
+            return doApplyAsLong(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingIntToLongFunction
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final IntToLongFunctionChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final IntToLongFunctionChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public long doApplyAsLong(final int value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsLongGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyAsLongRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsLong(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public long applyAsLong(final int value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsLongOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsLongFallbackTo(
+                        (IntToLongFunction) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsLongSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsLongOrReturn((Long) argument, value);
+                default:
+                    return ThrowingIntToLongFunction.super.applyAsLong(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements IntToLongFunction
+    {
+        private final ThrowingIntToLongFunction throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingIntToLongFunction) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public long applyAsLong(final int value)
+        {
             try {
                 return throwing.doApplyAsLong(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
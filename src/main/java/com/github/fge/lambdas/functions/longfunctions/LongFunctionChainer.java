@@ -1,95 +1,288 @@
 package com.github.fge.lambdas.functions.longfunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongFunction;
 
 public class LongFunctionChainer<R>
     extends Chainer<LongFunction<R>, ThrowingLongFunction<R>, LongFunctionChainer<R>>
     implements ThrowingLongFunction<R>
 {
+    private final ThrowingLongFunction<R>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public LongFunctionChainer(
         final ThrowingLongFunction<R> throwing)
     {
-        super(throwing);
+        this(new ThrowingLongFunction[] { throwing }, null, null, null);
     }
 
-    @Override
-    public R doApply(final long value)
-        throws Throwable
+    private LongFunctionChainer(final ThrowingLongFunction<R>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doApply(value);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public LongFunctionChainer<R> orTryWith(final ThrowingLongFunction<R> other)
+    public R doApply(final long value)
+        throws Throwable
     {
-        final ThrowingLongFunction<R> longFunction = value -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doApply(value);
+                return alternatives[i].doApply(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doApply(value);
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doApply(value);
+    }
+
+    @Override
+    public LongFunctionChainer<R> orTryWith(final ThrowingLongFunction<R> other)
+    {
+        return derived(new LongFunctionChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new LongFunctionChainer<>(longFunction);
+    @Override
+    protected LongFunctionChainer<R> guardedBy(final Guard guard)
+    {
+        return new LongFunctionChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private R applyGuarded(final Guard guard, final long value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final R ret;
+        try {
+            ret = doApply(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongFunction<R> orThrow(
-        final Class<E> exclass)
+    protected LongFunctionChainer<R> retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new LongFunctionChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private R applyRetried(final RetryPolicy policy, final long value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApply(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongFunctionChainer<R> withMetrics(final ChainerMetrics metrics)
+    {
+        return new LongFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongFunctionChainer<R> withSite(final ConstructionSite site)
+    {
+        return new LongFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongFunctionChainer<R> withFilter(final ExceptionFilter filter)
+    {
+        return new LongFunctionChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongFunction<R> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private R applyOrThrow(final Function<Throwable, RuntimeException> factory,
+        final long value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongFunction<R> fallbackTo(final LongFunction<R> fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.apply(value);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private R applyFallbackTo(final LongFunction<R> fallback, final long value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.apply(value);
+        }
     }
 
     @Override
     public LongFunction<R> sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApply(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private R applySneakyThrow(final long value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongFunction<R> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongFunction<R> orReturn(final R retval)
     {
-        return value -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private R applyOrReturn(final R retval, final long value)
+    {
+        try {
+            return doApply(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<R>
+        implements ThrowingLongFunction<R>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final LongFunctionChainer<R> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongFunctionChainer<R> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public R doApply(final long value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.applyRetried((RetryPolicy) argument, value);
+                default:
+                    return apply(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R apply(final long value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyFallbackTo((LongFunction<R>) argument,
+                        value);
+                case SNEAKY_THROW:
+                    return chainer.applySneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyOrReturn((R) argument, value);
+                default:
+                    return ThrowingLongFunction.super.apply(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<R>
+        implements LongFunction<R>
+    {
+        private final ThrowingLongFunction<R> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongFunction<R>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public R apply(final long value)
+        {
             try {
                 return throwing.doApply(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,95 +1,298 @@
 package com.github.fge.lambdas.functions.longfunctions;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongToDoubleFunction;
 
 public class LongToDoubleFunctionChainer
     extends Chainer<LongToDoubleFunction, ThrowingLongToDoubleFunction, LongToDoubleFunctionChainer>
     implements ThrowingLongToDoubleFunction
 {
+    private final ThrowingLongToDoubleFunction[] alternatives;
+
     public LongToDoubleFunctionChainer(
         final ThrowingLongToDoubleFunction throwing)
     {
-        super(throwing);
+        this(new ThrowingLongToDoubleFunction[] { throwing }, null, null, null);
+    }
+
+    private LongToDoubleFunctionChainer(
+        final ThrowingLongToDoubleFunction[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public double doApplyAsDouble(final long value)
         throws Throwable
     {
-        return throwing.doApplyAsDouble(value);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsDouble(value);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsDouble(value);
     }
 
     @Override
     public LongToDoubleFunctionChainer orTryWith(
         final ThrowingLongToDoubleFunction other)
     {
-        final ThrowingLongToDoubleFunction longToDoubleFunction = value -> {
-            try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsDouble(value);
-            }
-        };
+        return derived(new LongToDoubleFunctionChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new LongToDoubleFunctionChainer(longToDoubleFunction);
+    @Override
+    protected LongToDoubleFunctionChainer guardedBy(final Guard guard)
+    {
+        return new LongToDoubleFunctionChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private double applyAsDoubleGuarded(final Guard guard, final long value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final double ret;
+        try {
+            ret = doApplyAsDouble(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongToDoubleFunction orThrow(
-        final Class<E> exclass)
+    protected LongToDoubleFunctionChainer retriedBy(final RetryPolicy policy)
     {
-        return value -> {
+        return new LongToDoubleFunctionChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private double applyAsDoubleRetried(final RetryPolicy policy,
+        final long value)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsDouble(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongToDoubleFunctionChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new LongToDoubleFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongToDoubleFunctionChainer withSite(final ConstructionSite site)
+    {
+        return new LongToDoubleFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongToDoubleFunctionChainer withFilter(
+        final ExceptionFilter filter)
+    {
+        return new LongToDoubleFunctionChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongToDoubleFunction orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private double applyAsDoubleOrThrow(
+        final Function<Throwable, RuntimeException> factory, final long value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongToDoubleFunction fallbackTo(final LongToDoubleFunction fallback)
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsDouble(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private double applyAsDoubleFallbackTo(final LongToDoubleFunction fallback,
+        final long value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsDouble(value);
+        }
     }
 
     @Override
     public LongToDoubleFunction sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doApplyAsDouble(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private double applyAsDoubleSneakyThrow(final long value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongToDoubleFunction specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongToDoubleFunction orReturn(final double retval) {
-        return value -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private double applyAsDoubleOrReturn(final double retval, final long value)
+    {
+        try {
+            return doApplyAsDouble(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingLongToDoubleFunction
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final LongToDoubleFunctionChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongToDoubleFunctionChainer chainer,
+            final int kind, final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public double doApplyAsDouble(final long value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsDoubleGuarded((Guard) argument,
+                        value);
+                case RETRIED:
+                    return chainer.applyAsDoubleRetried((RetryPolicy) argument,
+                        value);
+                default:
+                    return applyAsDouble(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public double applyAsDouble(final long value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsDoubleOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.applyAsDoubleFallbackTo(
+                        (LongToDoubleFunction) argument, value);
+                case SNEAKY_THROW:
+                    return chainer.applyAsDoubleSneakyThrow(value);
+                case OR_RETURN:
+                    return chainer.applyAsDoubleOrReturn((Double) argument,
+                        value);
+                default:
+                    return ThrowingLongToDoubleFunction.super.applyAsDouble(
+                        value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements LongToDoubleFunction
+    {
+        private final ThrowingLongToDoubleFunction throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongToDoubleFunction) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public double applyAsDouble(final long value)
+        {
             try {
                 return throwing.doApplyAsDouble(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
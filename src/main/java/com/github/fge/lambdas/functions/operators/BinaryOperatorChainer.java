@@ -1,122 +1,330 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.BinaryOperator;
+import java.util.function.Function;
 
 public class BinaryOperatorChainer<T>
     extends Chainer<BinaryOperator<T>, ThrowingBinaryOperator<T>, BinaryOperatorChainer<T>>
     implements ThrowingBinaryOperator<T>
 {
+    private final ThrowingBinaryOperator<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public BinaryOperatorChainer(
         final ThrowingBinaryOperator<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingBinaryOperator[] { throwing }, null, null, null);
+    }
+
+    private BinaryOperatorChainer(
+        final ThrowingBinaryOperator<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public T doApply(final T t, final T u)
         throws Throwable
     {
-        return throwing.doApply(t, u);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApply(t, u);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApply(t, u);
     }
 
     @Override
     public BinaryOperatorChainer<T> orTryWith(
         final ThrowingBinaryOperator<T> other)
     {
-        final ThrowingBinaryOperator<T> binaryOperator = (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApply(t, u);
-            }
-        };
+        return derived(new BinaryOperatorChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new BinaryOperatorChainer<>(binaryOperator);
+    @Override
+    protected BinaryOperatorChainer<T> guardedBy(final Guard guard)
+    {
+        return new BinaryOperatorChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private T applyGuarded(final Guard guard, final T t, final T u)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final T ret;
+        try {
+            ret = doApply(t, u);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingBinaryOperator<T> orThrow(
-        final Class<E> exclass)
+    protected BinaryOperatorChainer<T> retriedBy(final RetryPolicy policy)
+    {
+        return new BinaryOperatorChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private T applyRetried(final RetryPolicy policy, final T t, final T u)
+        throws Throwable
     {
-        return (t, u) -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApply(t, u);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected BinaryOperatorChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new BinaryOperatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected BinaryOperatorChainer<T> withSite(final ConstructionSite site)
+    {
+        return new BinaryOperatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected BinaryOperatorChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new BinaryOperatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingBinaryOperator<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private T applyOrThrow(final Function<Throwable, RuntimeException> factory,
+        final T t, final T u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public BinaryOperator<T> fallbackTo(final BinaryOperator<T> fallback)
     {
-        return (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.apply(t, u);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private T applyFallbackTo(final BinaryOperator<T> fallback, final T t,
+        final T u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.apply(t, u);
+        }
     }
 
     @Override
     public BinaryOperator<T> sneakyThrow()
     {
-        return (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private T applySneakyThrow(final T t, final T u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public BinaryOperator<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public BinaryOperator<T> orReturn(final T retval)
     {
-        return (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private T applyOrReturn(final T retval, final T t, final T u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public BinaryOperator<T> orReturnLeft()
     {
-        return (t, u) -> {
-            try {
-                return throwing.doApply(t, u);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return t;
-            }
-        };
+        return new Policy<>(this, Policy.OR_RETURN_LEFT, null);
+    }
+
+    private T applyOrReturnLeft(final T t, final T u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnLeft", throwable);
+            return t;
+        }
     }
 
     public BinaryOperator<T> orReturnRight()
     {
-        return (t, u) -> {
+        return new Policy<>(this, Policy.OR_RETURN_RIGHT, null);
+    }
+
+    private T applyOrReturnRight(final T t, final T u)
+    {
+        try {
+            return doApply(t, u);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnRight", throwable);
+            return u;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingBinaryOperator<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_LEFT = 6;
+        private static final int OR_RETURN_RIGHT = 7;
+
+        private final BinaryOperatorChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final BinaryOperatorChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public T doApply(final T t, final T u)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyGuarded((Guard) argument, t, u);
+                case RETRIED:
+                    return chainer.applyRetried((RetryPolicy) argument, t, u);
+                default:
+                    return apply(t, u);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T apply(final T t, final T u)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t, u);
+                case FALLBACK_TO:
+                    return chainer.applyFallbackTo((BinaryOperator<T>) argument,
+                        t, u);
+                case SNEAKY_THROW:
+                    return chainer.applySneakyThrow(t, u);
+                case OR_RETURN:
+                    return chainer.applyOrReturn((T) argument, t, u);
+                case OR_RETURN_LEFT:
+                    return chainer.applyOrReturnLeft(t, u);
+                case OR_RETURN_RIGHT:
+                    return chainer.applyOrReturnRight(t, u);
+                default:
+                    return ThrowingBinaryOperator.super.apply(t, u);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements BinaryOperator<T>
+    {
+        private final ThrowingBinaryOperator<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingBinaryOperator<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public T apply(final T t, final T u)
+        {
             try {
                 return throwing.doApply(t, u);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return u;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
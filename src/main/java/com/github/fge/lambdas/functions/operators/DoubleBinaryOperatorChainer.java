@@ -1,123 +1,345 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
 
 public class DoubleBinaryOperatorChainer
     extends Chainer<DoubleBinaryOperator, ThrowingDoubleBinaryOperator, DoubleBinaryOperatorChainer>
     implements ThrowingDoubleBinaryOperator
 {
+    private final ThrowingDoubleBinaryOperator[] alternatives;
+
     public DoubleBinaryOperatorChainer(
         final ThrowingDoubleBinaryOperator throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleBinaryOperator[] { throwing }, null, null, null);
+    }
+
+    private DoubleBinaryOperatorChainer(
+        final ThrowingDoubleBinaryOperator[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public double doApplyAsDouble(final double left, final double right)
         throws Throwable
     {
-        return throwing.doApplyAsDouble(left, right);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsDouble(left, right);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsDouble(left, right);
     }
 
     @Override
     public DoubleBinaryOperatorChainer orTryWith(
         final ThrowingDoubleBinaryOperator other)
     {
-        final ThrowingDoubleBinaryOperator doubleBinaryOperator
-            = (left, right) -> {
-                try {
-                    return throwing.doApplyAsDouble(left, right);
-                } catch (Error | RuntimeException e) {
-                    throw e;
-                } catch (Throwable ignored) {
-                    return other.doApplyAsDouble(left, right);
-                }
-            };
+        return derived(new DoubleBinaryOperatorChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new DoubleBinaryOperatorChainer(doubleBinaryOperator);
+    @Override
+    protected DoubleBinaryOperatorChainer guardedBy(final Guard guard)
+    {
+        return new DoubleBinaryOperatorChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private double applyAsDoubleGuarded(final Guard guard, final double left,
+        final double right)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final double ret;
+        try {
+            ret = doApplyAsDouble(left, right);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleBinaryOperator orThrow(
-        final Class<E> exclass)
+    protected DoubleBinaryOperatorChainer retriedBy(final RetryPolicy policy)
+    {
+        return new DoubleBinaryOperatorChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private double applyAsDoubleRetried(final RetryPolicy policy,
+        final double left, final double right)
+        throws Throwable
     {
-        return (left, right) -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsDouble(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsDouble(left, right);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleBinaryOperatorChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new DoubleBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleBinaryOperatorChainer withSite(final ConstructionSite site)
+    {
+        return new DoubleBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleBinaryOperatorChainer withFilter(
+        final ExceptionFilter filter)
+    {
+        return new DoubleBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleBinaryOperator orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private double applyAsDoubleOrThrow(
+        final Function<Throwable, RuntimeException> factory, final double left,
+        final double right)
+    {
+        try {
+            return doApplyAsDouble(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleBinaryOperator fallbackTo(final DoubleBinaryOperator fallback)
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsDouble(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsDouble(left, right);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private double applyAsDoubleFallbackTo(final DoubleBinaryOperator fallback,
+        final double left, final double right)
+    {
+        try {
+            return doApplyAsDouble(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsDouble(left, right);
+        }
     }
 
     @Override
     public DoubleBinaryOperator sneakyThrow()
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsDouble(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private double applyAsDoubleSneakyThrow(final double left,
+        final double right)
+    {
+        try {
+            return doApplyAsDouble(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleBinaryOperator specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleBinaryOperator orReturn(final double retval)
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsDouble(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private double applyAsDoubleOrReturn(final double retval, final double left,
+        final double right)
+    {
+        try {
+            return doApplyAsDouble(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public DoubleBinaryOperator orReturnLeft()
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsDouble(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return left;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN_LEFT, null);
+    }
+
+    private double applyAsDoubleOrReturnLeft(final double left,
+        final double right)
+    {
+        try {
+            return doApplyAsDouble(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnLeft", throwable);
+            return left;
+        }
     }
 
     public DoubleBinaryOperator orReturnRight()
     {
-        return (left, right) -> {
+        return new Policy(this, Policy.OR_RETURN_RIGHT, null);
+    }
+
+    private double applyAsDoubleOrReturnRight(final double left,
+        final double right)
+    {
+        try {
+            return doApplyAsDouble(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnRight", throwable);
+            return right;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingDoubleBinaryOperator
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_LEFT = 6;
+        private static final int OR_RETURN_RIGHT = 7;
+
+        private final DoubleBinaryOperatorChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleBinaryOperatorChainer chainer,
+            final int kind, final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public double doApplyAsDouble(final double left, final double right)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsDoubleGuarded((Guard) argument, left,
+                        right);
+                case RETRIED:
+                    return chainer.applyAsDoubleRetried((RetryPolicy) argument,
+                        left, right);
+                default:
+                    return applyAsDouble(left, right);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public double applyAsDouble(final double left, final double right)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsDoubleOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, left,
+                        right);
+                case FALLBACK_TO:
+                    return chainer.applyAsDoubleFallbackTo(
+                        (DoubleBinaryOperator) argument, left, right);
+                case SNEAKY_THROW:
+                    return chainer.applyAsDoubleSneakyThrow(left, right);
+                case OR_RETURN:
+                    return chainer.applyAsDoubleOrReturn((Double) argument,
+                        left, right);
+                case OR_RETURN_LEFT:
+                    return chainer.applyAsDoubleOrReturnLeft(left, right);
+                case OR_RETURN_RIGHT:
+                    return chainer.applyAsDoubleOrReturnRight(left, right);
+                default:
+                    return ThrowingDoubleBinaryOperator.super.applyAsDouble(
+                        left, right);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements DoubleBinaryOperator
+    {
+        private final ThrowingDoubleBinaryOperator throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleBinaryOperator) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public double applyAsDouble(final double left, final double right)
+        {
             try {
                 return throwing.doApplyAsDouble(left, right);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return right;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
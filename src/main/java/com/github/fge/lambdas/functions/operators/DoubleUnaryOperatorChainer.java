@@ -1,109 +1,321 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 
 public class DoubleUnaryOperatorChainer
     extends Chainer<DoubleUnaryOperator, ThrowingDoubleUnaryOperator, DoubleUnaryOperatorChainer>
     implements ThrowingDoubleUnaryOperator
 {
+    private final ThrowingDoubleUnaryOperator[] alternatives;
+
     public DoubleUnaryOperatorChainer(
         final ThrowingDoubleUnaryOperator throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleUnaryOperator[] { throwing }, null, null, null);
+    }
+
+    private DoubleUnaryOperatorChainer(
+        final ThrowingDoubleUnaryOperator[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public double doApplyAsDouble(final double operand)
         throws Throwable
     {
-        return throwing.doApplyAsDouble(operand);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsDouble(operand);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsDouble(operand);
     }
 
     @Override
     public DoubleUnaryOperatorChainer orTryWith(
         final ThrowingDoubleUnaryOperator other)
     {
-        final ThrowingDoubleUnaryOperator doubleUnaryOperator = operand -> {
-            try {
-                return throwing.doApplyAsDouble(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsDouble(operand);
-            }
-        };
+        return derived(new DoubleUnaryOperatorChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
+
+    @Override
+    protected DoubleUnaryOperatorChainer guardedBy(final Guard guard)
+    {
+        return new DoubleUnaryOperatorChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
 
-        return new DoubleUnaryOperatorChainer(doubleUnaryOperator);
+    private double applyAsDoubleGuarded(final Guard guard, final double operand)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final double ret;
+        try {
+            ret = doApplyAsDouble(operand);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleUnaryOperator orThrow(
-        final Class<E> exclass)
+    protected DoubleUnaryOperatorChainer retriedBy(final RetryPolicy policy)
+    {
+        return new DoubleUnaryOperatorChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private double applyAsDoubleRetried(final RetryPolicy policy,
+        final double operand)
+        throws Throwable
     {
-        return operand -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsDouble(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsDouble(operand);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleUnaryOperatorChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new DoubleUnaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleUnaryOperatorChainer withSite(final ConstructionSite site)
+    {
+        return new DoubleUnaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleUnaryOperatorChainer withFilter(
+        final ExceptionFilter filter)
+    {
+        return new DoubleUnaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleUnaryOperator orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private double applyAsDoubleOrThrow(
+        final Function<Throwable, RuntimeException> factory,
+        final double operand)
+    {
+        try {
+            return doApplyAsDouble(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleUnaryOperator fallbackTo(final DoubleUnaryOperator fallback)
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsDouble(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsDouble(operand);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private double applyAsDoubleFallbackTo(final DoubleUnaryOperator fallback,
+        final double operand)
+    {
+        try {
+            return doApplyAsDouble(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsDouble(operand);
+        }
     }
 
     @Override
     public DoubleUnaryOperator sneakyThrow()
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsDouble(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private double applyAsDoubleSneakyThrow(final double operand)
+    {
+        try {
+            return doApplyAsDouble(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleUnaryOperator specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleUnaryOperator orReturn(final double retval)
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsDouble(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private double applyAsDoubleOrReturn(final double retval,
+        final double operand)
+    {
+        try {
+            return doApplyAsDouble(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public DoubleUnaryOperator orReturnSelf()
     {
-        return operand -> {
+        return new Policy(this, Policy.OR_RETURN_SELF, null);
+    }
+
+    private double applyAsDoubleOrReturnSelf(final double operand)
+    {
+        try {
+            return doApplyAsDouble(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnSelf", throwable);
+            return operand;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingDoubleUnaryOperator
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_SELF = 6;
+
+        private final DoubleUnaryOperatorChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleUnaryOperatorChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public double doApplyAsDouble(final double operand)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsDoubleGuarded((Guard) argument,
+                        operand);
+                case RETRIED:
+                    return chainer.applyAsDoubleRetried((RetryPolicy) argument,
+                        operand);
+                default:
+                    return applyAsDouble(operand);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public double applyAsDouble(final double operand)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsDoubleOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        operand);
+                case FALLBACK_TO:
+                    return chainer.applyAsDoubleFallbackTo(
+                        (DoubleUnaryOperator) argument, operand);
+                case SNEAKY_THROW:
+                    return chainer.applyAsDoubleSneakyThrow(operand);
+                case OR_RETURN:
+                    return chainer.applyAsDoubleOrReturn((Double) argument,
+                        operand);
+                case OR_RETURN_SELF:
+                    return chainer.applyAsDoubleOrReturnSelf(operand);
+                default:
+                    return ThrowingDoubleUnaryOperator.super.applyAsDouble(
+                        operand);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements DoubleUnaryOperator
+    {
+        private final ThrowingDoubleUnaryOperator throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleUnaryOperator) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public double applyAsDouble(final double operand)
+        {
             try {
                 return throwing.doApplyAsDouble(operand);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return operand;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,122 +1,340 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.IntBinaryOperator;
 
 public class IntBinaryOperatorChainer
     extends Chainer<IntBinaryOperator, ThrowingIntBinaryOperator, IntBinaryOperatorChainer>
     implements ThrowingIntBinaryOperator
 {
+    private final ThrowingIntBinaryOperator[] alternatives;
+
     public IntBinaryOperatorChainer(
         final ThrowingIntBinaryOperator throwing)
     {
-        super(throwing);
+        this(new ThrowingIntBinaryOperator[] { throwing }, null, null, null);
+    }
+
+    private IntBinaryOperatorChainer(
+        final ThrowingIntBinaryOperator[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public int doApplyAsInt(final int left, final int right)
         throws Throwable
     {
-        return throwing.doApplyAsInt(left, right);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsInt(left, right);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsInt(left, right);
     }
 
     @Override
     public IntBinaryOperatorChainer orTryWith(
         final ThrowingIntBinaryOperator other)
     {
-        final ThrowingIntBinaryOperator intBinaryOperator = (left, right) -> {
-            try {
-                return throwing.doApplyAsInt(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsInt(left, right);
-            }
-        };
+        return derived(new IntBinaryOperatorChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new IntBinaryOperatorChainer(intBinaryOperator);
+    @Override
+    protected IntBinaryOperatorChainer guardedBy(final Guard guard)
+    {
+        return new IntBinaryOperatorChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private int applyAsIntGuarded(final Guard guard, final int left,
+        final int right)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final int ret;
+        try {
+            ret = doApplyAsInt(left, right);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingIntBinaryOperator orThrow(
-        final Class<E> exclass)
+    protected IntBinaryOperatorChainer retriedBy(final RetryPolicy policy)
+    {
+        return new IntBinaryOperatorChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private int applyAsIntRetried(final RetryPolicy policy, final int left,
+        final int right)
+        throws Throwable
     {
-        return (left, right) -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsInt(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsInt(left, right);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected IntBinaryOperatorChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new IntBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntBinaryOperatorChainer withSite(final ConstructionSite site)
+    {
+        return new IntBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntBinaryOperatorChainer withFilter(final ExceptionFilter filter)
+    {
+        return new IntBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingIntBinaryOperator orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private int applyAsIntOrThrow(
+        final Function<Throwable, RuntimeException> factory, final int left,
+        final int right)
+    {
+        try {
+            return doApplyAsInt(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public IntBinaryOperator fallbackTo(final IntBinaryOperator fallback)
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsInt(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsInt(left, right);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private int applyAsIntFallbackTo(final IntBinaryOperator fallback,
+        final int left, final int right)
+    {
+        try {
+            return doApplyAsInt(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsInt(left, right);
+        }
     }
 
     @Override
     public IntBinaryOperator sneakyThrow()
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsInt(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private int applyAsIntSneakyThrow(final int left, final int right)
+    {
+        try {
+            return doApplyAsInt(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public IntBinaryOperator specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public IntBinaryOperator orReturn(final int retval)
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsInt(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private int applyAsIntOrReturn(final int retval, final int left,
+        final int right)
+    {
+        try {
+            return doApplyAsInt(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public IntBinaryOperator orReturnLeft()
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsInt(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return left;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN_LEFT, null);
+    }
+
+    private int applyAsIntOrReturnLeft(final int left, final int right)
+    {
+        try {
+            return doApplyAsInt(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnLeft", throwable);
+            return left;
+        }
     }
 
     public IntBinaryOperator orReturnRight()
     {
-        return (left, right) -> {
+        return new Policy(this, Policy.OR_RETURN_RIGHT, null);
+    }
+
+    private int applyAsIntOrReturnRight(final int left, final int right)
+    {
+        try {
+            return doApplyAsInt(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnRight", throwable);
+            return right;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingIntBinaryOperator
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_LEFT = 6;
+        private static final int OR_RETURN_RIGHT = 7;
+
+        private final IntBinaryOperatorChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final IntBinaryOperatorChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int doApplyAsInt(final int left, final int right)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsIntGuarded((Guard) argument, left,
+                        right);
+                case RETRIED:
+                    return chainer.applyAsIntRetried((RetryPolicy) argument,
+                        left, right);
+                default:
+                    return applyAsInt(left, right);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int applyAsInt(final int left, final int right)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsIntOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, left,
+                        right);
+                case FALLBACK_TO:
+                    return chainer.applyAsIntFallbackTo(
+                        (IntBinaryOperator) argument, left, right);
+                case SNEAKY_THROW:
+                    return chainer.applyAsIntSneakyThrow(left, right);
+                case OR_RETURN:
+                    return chainer.applyAsIntOrReturn((Integer) argument, left,
+                        right);
+                case OR_RETURN_LEFT:
+                    return chainer.applyAsIntOrReturnLeft(left, right);
+                case OR_RETURN_RIGHT:
+                    return chainer.applyAsIntOrReturnRight(left, right);
+                default:
+                    return ThrowingIntBinaryOperator.super.applyAsInt(left,
+                        right);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements IntBinaryOperator
+    {
+        private final ThrowingIntBinaryOperator throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingIntBinaryOperator) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public int applyAsInt(final int left, final int right)
+        {
             try {
                 return throwing.doApplyAsInt(left, right);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return right;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,109 +1,311 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.IntUnaryOperator;
 
 public class IntUnaryOperatorChainer
     extends Chainer<IntUnaryOperator, ThrowingIntUnaryOperator, IntUnaryOperatorChainer>
     implements ThrowingIntUnaryOperator
 {
+    private final ThrowingIntUnaryOperator[] alternatives;
+
     public IntUnaryOperatorChainer(
         final ThrowingIntUnaryOperator throwing)
     {
-        super(throwing);
+        this(new ThrowingIntUnaryOperator[] { throwing }, null, null, null);
+    }
+
+    private IntUnaryOperatorChainer(
+        final ThrowingIntUnaryOperator[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public int doApplyAsInt(final int operand)
         throws Throwable
     {
-        return throwing.doApplyAsInt(operand);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsInt(operand);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsInt(operand);
     }
 
     @Override
     public IntUnaryOperatorChainer orTryWith(
         final ThrowingIntUnaryOperator other)
     {
-        final ThrowingIntUnaryOperator intUnaryOperator = operand -> {
-            try {
-                return throwing.doApplyAsInt(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsInt(operand);
-            }
-        };
+        return derived(new IntUnaryOperatorChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
+
+    @Override
+    protected IntUnaryOperatorChainer guardedBy(final Guard guard)
+    {
+        return new IntUnaryOperatorChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
 
-        return new IntUnaryOperatorChainer(intUnaryOperator);
+    private int applyAsIntGuarded(final Guard guard, final int operand)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final int ret;
+        try {
+            ret = doApplyAsInt(operand);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingIntUnaryOperator orThrow(
-        final Class<E> exclass)
+    protected IntUnaryOperatorChainer retriedBy(final RetryPolicy policy)
+    {
+        return new IntUnaryOperatorChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private int applyAsIntRetried(final RetryPolicy policy, final int operand)
+        throws Throwable
     {
-        return operand -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsInt(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsInt(operand);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected IntUnaryOperatorChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new IntUnaryOperatorChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntUnaryOperatorChainer withSite(final ConstructionSite site)
+    {
+        return new IntUnaryOperatorChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntUnaryOperatorChainer withFilter(final ExceptionFilter filter)
+    {
+        return new IntUnaryOperatorChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingIntUnaryOperator orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private int applyAsIntOrThrow(
+        final Function<Throwable, RuntimeException> factory, final int operand)
+    {
+        try {
+            return doApplyAsInt(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public IntUnaryOperator fallbackTo(final IntUnaryOperator fallback)
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsInt(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsInt(operand);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private int applyAsIntFallbackTo(final IntUnaryOperator fallback,
+        final int operand)
+    {
+        try {
+            return doApplyAsInt(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsInt(operand);
+        }
     }
 
     @Override
     public IntUnaryOperator sneakyThrow()
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsInt(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private int applyAsIntSneakyThrow(final int operand)
+    {
+        try {
+            return doApplyAsInt(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public IntUnaryOperator specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public IntUnaryOperator orReturn(final int retval)
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsInt(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private int applyAsIntOrReturn(final int retval, final int operand)
+    {
+        try {
+            return doApplyAsInt(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public IntUnaryOperator orReturnSelf()
     {
-        return operand -> {
+        return new Policy(this, Policy.OR_RETURN_SELF, null);
+    }
+
+    private int applyAsIntOrReturnSelf(final int operand)
+    {
+        try {
+            return doApplyAsInt(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnSelf", throwable);
+            return operand;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingIntUnaryOperator
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_SELF = 6;
+
+        private final IntUnaryOperatorChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final IntUnaryOperatorChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int doApplyAsInt(final int operand)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsIntGuarded((Guard) argument, operand);
+                case RETRIED:
+                    return chainer.applyAsIntRetried((RetryPolicy) argument,
+                        operand);
+                default:
+                    return applyAsInt(operand);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int applyAsInt(final int operand)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsIntOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        operand);
+                case FALLBACK_TO:
+                    return chainer.applyAsIntFallbackTo(
+                        (IntUnaryOperator) argument, operand);
+                case SNEAKY_THROW:
+                    return chainer.applyAsIntSneakyThrow(operand);
+                case OR_RETURN:
+                    return chainer.applyAsIntOrReturn((Integer) argument,
+                        operand);
+                case OR_RETURN_SELF:
+                    return chainer.applyAsIntOrReturnSelf(operand);
+                default:
+                    return ThrowingIntUnaryOperator.super.applyAsInt(operand);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements IntUnaryOperator
+    {
+        private final ThrowingIntUnaryOperator throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingIntUnaryOperator) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public int applyAsInt(final int operand)
+        {
             try {
                 return throwing.doApplyAsInt(operand);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return operand;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,122 +1,341 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongBinaryOperator;
 
 public class LongBinaryOperatorChainer
     extends Chainer<LongBinaryOperator, ThrowingLongBinaryOperator, LongBinaryOperatorChainer>
     implements ThrowingLongBinaryOperator
 {
+    private final ThrowingLongBinaryOperator[] alternatives;
+
     public LongBinaryOperatorChainer(
         final ThrowingLongBinaryOperator throwing)
     {
-        super(throwing);
+        this(new ThrowingLongBinaryOperator[] { throwing }, null, null, null);
+    }
+
+    private LongBinaryOperatorChainer(
+        final ThrowingLongBinaryOperator[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public long doApplyAsLong(final long left, final long right)
         throws Throwable
     {
-        return throwing.doApplyAsLong(left, right);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsLong(left, right);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsLong(left, right);
     }
 
     @Override
     public LongBinaryOperatorChainer orTryWith(
         final ThrowingLongBinaryOperator other)
     {
-        final ThrowingLongBinaryOperator longBinaryOperator = (left, right) -> {
-            try {
-                return throwing.doApplyAsLong(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsLong(left, right);
-            }
-        };
+        return derived(new LongBinaryOperatorChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new LongBinaryOperatorChainer(longBinaryOperator);
+    @Override
+    protected LongBinaryOperatorChainer guardedBy(final Guard guard)
+    {
+        return new LongBinaryOperatorChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private long applyAsLongGuarded(final Guard guard, final long left,
+        final long right)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final long ret;
+        try {
+            ret = doApplyAsLong(left, right);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongBinaryOperator orThrow(
-        final Class<E> exclass)
+    protected LongBinaryOperatorChainer retriedBy(final RetryPolicy policy)
+    {
+        return new LongBinaryOperatorChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private long applyAsLongRetried(final RetryPolicy policy, final long left,
+        final long right)
+        throws Throwable
     {
-        return (left, right) -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsLong(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsLong(left, right);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongBinaryOperatorChainer withMetrics(
+        final ChainerMetrics metrics)
+    {
+        return new LongBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongBinaryOperatorChainer withSite(final ConstructionSite site)
+    {
+        return new LongBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongBinaryOperatorChainer withFilter(final ExceptionFilter filter)
+    {
+        return new LongBinaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongBinaryOperator orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private long applyAsLongOrThrow(
+        final Function<Throwable, RuntimeException> factory, final long left,
+        final long right)
+    {
+        try {
+            return doApplyAsLong(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongBinaryOperator fallbackTo(final LongBinaryOperator fallback)
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsLong(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsLong(left, right);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private long applyAsLongFallbackTo(final LongBinaryOperator fallback,
+        final long left, final long right)
+    {
+        try {
+            return doApplyAsLong(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsLong(left, right);
+        }
     }
 
     @Override
     public LongBinaryOperator sneakyThrow()
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsLong(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private long applyAsLongSneakyThrow(final long left, final long right)
+    {
+        try {
+            return doApplyAsLong(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongBinaryOperator specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongBinaryOperator orReturn(final long retval)
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsLong(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private long applyAsLongOrReturn(final long retval, final long left,
+        final long right)
+    {
+        try {
+            return doApplyAsLong(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public LongBinaryOperator orReturnLeft()
     {
-        return (left, right) -> {
-            try {
-                return throwing.doApplyAsLong(left, right);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return left;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN_LEFT, null);
+    }
+
+    private long applyAsLongOrReturnLeft(final long left, final long right)
+    {
+        try {
+            return doApplyAsLong(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnLeft", throwable);
+            return left;
+        }
     }
 
     public LongBinaryOperator orReturnRight()
     {
-        return (left, right) -> {
+        return new Policy(this, Policy.OR_RETURN_RIGHT, null);
+    }
+
+    private long applyAsLongOrReturnRight(final long left, final long right)
+    {
+        try {
+            return doApplyAsLong(left, right);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnRight", throwable);
+            return right;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingLongBinaryOperator
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_LEFT = 6;
+        private static final int OR_RETURN_RIGHT = 7;
+
+        private final LongBinaryOperatorChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongBinaryOperatorChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public long doApplyAsLong(final long left, final long right)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsLongGuarded((Guard) argument, left,
+                        right);
+                case RETRIED:
+                    return chainer.applyAsLongRetried((RetryPolicy) argument,
+                        left, right);
+                default:
+                    return applyAsLong(left, right);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public long applyAsLong(final long left, final long right)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsLongOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, left,
+                        right);
+                case FALLBACK_TO:
+                    return chainer.applyAsLongFallbackTo(
+                        (LongBinaryOperator) argument, left, right);
+                case SNEAKY_THROW:
+                    return chainer.applyAsLongSneakyThrow(left, right);
+                case OR_RETURN:
+                    return chainer.applyAsLongOrReturn((Long) argument, left,
+                        right);
+                case OR_RETURN_LEFT:
+                    return chainer.applyAsLongOrReturnLeft(left, right);
+                case OR_RETURN_RIGHT:
+                    return chainer.applyAsLongOrReturnRight(left, right);
+                default:
+                    return ThrowingLongBinaryOperator.super.applyAsLong(left,
+                        right);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements LongBinaryOperator
+    {
+        private final ThrowingLongBinaryOperator throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongBinaryOperator) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public long applyAsLong(final long left, final long right)
+        {
             try {
                 return throwing.doApplyAsLong(left, right);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return right;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,109 +1,316 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongUnaryOperator;
 
 public class LongUnaryOperatorChainer
     extends Chainer<LongUnaryOperator, ThrowingLongUnaryOperator, LongUnaryOperatorChainer>
     implements ThrowingLongUnaryOperator
 {
+    private final ThrowingLongUnaryOperator[] alternatives;
+
     public LongUnaryOperatorChainer(
         final ThrowingLongUnaryOperator throwing)
     {
-        super(throwing);
+        this(new ThrowingLongUnaryOperator[] { throwing }, null, null, null);
+    }
+
+    private LongUnaryOperatorChainer(
+        final ThrowingLongUnaryOperator[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
+    {
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
     public long doApplyAsLong(final long operand)
         throws Throwable
     {
-        return throwing.doApplyAsLong(operand);
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
+            try {
+                return alternatives[i].doApplyAsLong(operand);
+            } catch (Error | RuntimeException e) {
+                throw e;
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
+            }
+        }
+        return alternatives[last].doApplyAsLong(operand);
     }
 
     @Override
     public LongUnaryOperatorChainer orTryWith(
         final ThrowingLongUnaryOperator other)
     {
-        final ThrowingLongUnaryOperator longUnaryOperator = operand -> {
-            try {
-                return throwing.doApplyAsLong(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return other.doApplyAsLong(operand);
-            }
-        };
+        return derived(new LongUnaryOperatorChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
+
+    @Override
+    protected LongUnaryOperatorChainer guardedBy(final Guard guard)
+    {
+        return new LongUnaryOperatorChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
 
-        return new LongUnaryOperatorChainer(longUnaryOperator);
+    private long applyAsLongGuarded(final Guard guard, final long operand)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final long ret;
+        try {
+            ret = doApplyAsLong(operand);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongUnaryOperator orThrow(
-        final Class<E> exclass)
+    protected LongUnaryOperatorChainer retriedBy(final RetryPolicy policy)
+    {
+        return new LongUnaryOperatorChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private long applyAsLongRetried(final RetryPolicy policy,
+        final long operand)
+        throws Throwable
     {
-        return operand -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApplyAsLong(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApplyAsLong(operand);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongUnaryOperatorChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new LongUnaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongUnaryOperatorChainer withSite(final ConstructionSite site)
+    {
+        return new LongUnaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongUnaryOperatorChainer withFilter(final ExceptionFilter filter)
+    {
+        return new LongUnaryOperatorChainer(
+            alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongUnaryOperator orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private long applyAsLongOrThrow(
+        final Function<Throwable, RuntimeException> factory, final long operand)
+    {
+        try {
+            return doApplyAsLong(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongUnaryOperator fallbackTo(final LongUnaryOperator fallback)
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsLong(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.applyAsLong(operand);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private long applyAsLongFallbackTo(final LongUnaryOperator fallback,
+        final long operand)
+    {
+        try {
+            return doApplyAsLong(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.applyAsLong(operand);
+        }
     }
 
     @Override
     public LongUnaryOperator sneakyThrow()
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsLong(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private long applyAsLongSneakyThrow(final long operand)
+    {
+        try {
+            return doApplyAsLong(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongUnaryOperator specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongUnaryOperator orReturn(final long retval)
     {
-        return operand -> {
-            try {
-                return throwing.doApplyAsLong(operand);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private long applyAsLongOrReturn(final long retval, final long operand)
+    {
+        try {
+            return doApplyAsLong(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public LongUnaryOperator orReturnSelf()
     {
-        return operand -> {
+        return new Policy(this, Policy.OR_RETURN_SELF, null);
+    }
+
+    private long applyAsLongOrReturnSelf(final long operand)
+    {
+        try {
+            return doApplyAsLong(operand);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnSelf", throwable);
+            return operand;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingLongUnaryOperator
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_SELF = 6;
+
+        private final LongUnaryOperatorChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongUnaryOperatorChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public long doApplyAsLong(final long operand)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyAsLongGuarded((Guard) argument,
+                        operand);
+                case RETRIED:
+                    return chainer.applyAsLongRetried((RetryPolicy) argument,
+                        operand);
+                default:
+                    return applyAsLong(operand);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public long applyAsLong(final long operand)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyAsLongOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        operand);
+                case FALLBACK_TO:
+                    return chainer.applyAsLongFallbackTo(
+                        (LongUnaryOperator) argument, operand);
+                case SNEAKY_THROW:
+                    return chainer.applyAsLongSneakyThrow(operand);
+                case OR_RETURN:
+                    return chainer.applyAsLongOrReturn((Long) argument,
+                        operand);
+                case OR_RETURN_SELF:
+                    return chainer.applyAsLongOrReturnSelf(operand);
+                default:
+                    return ThrowingLongUnaryOperator.super.applyAsLong(operand);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements LongUnaryOperator
+    {
+        private final ThrowingLongUnaryOperator throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongUnaryOperator) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public long applyAsLong(final long operand)
+        {
             try {
                 return throwing.doApplyAsLong(operand);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return operand;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -22,7 +22,7 @@ public interface ThrowingLongUnaryOperator
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable tooBad) {
-            throw new ThrownByLambdaException(tooBad);
+            throw ThrownByLambdaException.of(this, tooBad);
         }
     }
 }
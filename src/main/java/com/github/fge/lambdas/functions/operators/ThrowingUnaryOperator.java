@@ -25,7 +25,7 @@ public interface ThrowingUnaryOperator<T>
         } catch (Error | RuntimeException e) {
             throw e;
         } catch (Throwable tooBad) {
-            throw new ThrownByLambdaException(tooBad);
+            throw ThrownByLambdaException.of(this, tooBad);
         }
     }
 }
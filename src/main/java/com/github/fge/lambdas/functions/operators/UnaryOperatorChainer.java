@@ -1,108 +1,307 @@
 package com.github.fge.lambdas.functions.operators;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 public class UnaryOperatorChainer<T>
     extends Chainer<UnaryOperator<T>, ThrowingUnaryOperator<T>, UnaryOperatorChainer<T>>
     implements ThrowingUnaryOperator<T>
 {
+    private final ThrowingUnaryOperator<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public UnaryOperatorChainer(
         final ThrowingUnaryOperator<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingUnaryOperator[] { throwing }, null, null, null);
     }
 
-    @Override
-    public T doApply(final T t)
-        throws Throwable
+    private UnaryOperatorChainer(final ThrowingUnaryOperator<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doApply(t);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public UnaryOperatorChainer<T> orTryWith(final ThrowingUnaryOperator<T> other)
+    public T doApply(final T t)
+        throws Throwable
     {
-        final ThrowingUnaryOperator<T> unaryOperator = t -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doApply(t);
+                return alternatives[i].doApply(t);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doApply(t);
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doApply(t);
+    }
+
+    @Override
+    public UnaryOperatorChainer<T> orTryWith(final ThrowingUnaryOperator<T> other)
+    {
+        return derived(new UnaryOperatorChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
+
+    @Override
+    protected UnaryOperatorChainer<T> guardedBy(final Guard guard)
+    {
+        return new UnaryOperatorChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
 
-        return new UnaryOperatorChainer<>(unaryOperator);
+    private T applyGuarded(final Guard guard, final T t)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final T ret;
+        try {
+            ret = doApply(t);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingUnaryOperator<T> orThrow(
-        final Class<E> exclass)
+    protected UnaryOperatorChainer<T> retriedBy(final RetryPolicy policy)
+    {
+        return new UnaryOperatorChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private T applyRetried(final RetryPolicy policy, final T t)
+        throws Throwable
     {
-        return t -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doApply(t);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected UnaryOperatorChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new UnaryOperatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected UnaryOperatorChainer<T> withSite(final ConstructionSite site)
+    {
+        return new UnaryOperatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected UnaryOperatorChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new UnaryOperatorChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingUnaryOperator<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private T applyOrThrow(final Function<Throwable, RuntimeException> factory,
+        final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public UnaryOperator<T> fallbackTo(final UnaryOperator<T> fallback)
     {
-        return t -> {
-            try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.apply(t);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private T applyFallbackTo(final UnaryOperator<T> fallback, final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.apply(t);
+        }
     }
 
     @Override
     public UnaryOperator<T> sneakyThrow()
     {
-        return t -> {
-            try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private T applySneakyThrow(final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public UnaryOperator<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public UnaryOperator<T> orReturn(final T retval)
     {
-        return t -> {
-            try {
-                return throwing.doApply(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return retval;
-            }
-        };
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private T applyOrReturn(final T retval, final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
     }
 
     public UnaryOperator<T> orReturnSelf()
     {
-        return t -> {
+        return new Policy<>(this, Policy.OR_RETURN_SELF, null);
+    }
+
+    private T applyOrReturnSelf(final T t)
+    {
+        try {
+            return doApply(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnSelf", throwable);
+            return t;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingUnaryOperator<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+        private static final int OR_RETURN_SELF = 6;
+
+        private final UnaryOperatorChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final UnaryOperatorChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public T doApply(final T t)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.applyGuarded((Guard) argument, t);
+                case RETRIED:
+                    return chainer.applyRetried((RetryPolicy) argument, t);
+                default:
+                    return apply(t);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T apply(final T t)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.applyOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t);
+                case FALLBACK_TO:
+                    return chainer.applyFallbackTo((UnaryOperator<T>) argument,
+                        t);
+                case SNEAKY_THROW:
+                    return chainer.applySneakyThrow(t);
+                case OR_RETURN:
+                    return chainer.applyOrReturn((T) argument, t);
+                case OR_RETURN_SELF:
+                    return chainer.applyOrReturnSelf(t);
+                default:
+                    return ThrowingUnaryOperator.super.apply(t);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements UnaryOperator<T>
+    {
+        private final ThrowingUnaryOperator<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingUnaryOperator<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public T apply(final T t)
+        {
             try {
                 return throwing.doApply(t);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return t;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,108 +1,307 @@
 package com.github.fge.lambdas.predicates;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongPredicate;
 
 public class LongPredicateChainer
     extends Chainer<LongPredicate, ThrowingLongPredicate, LongPredicateChainer>
     implements ThrowingLongPredicate
 {
+    private final ThrowingLongPredicate[] alternatives;
+
     public LongPredicateChainer(
         final ThrowingLongPredicate throwing)
     {
-        super(throwing);
+        this(new ThrowingLongPredicate[] { throwing }, null, null, null);
     }
 
-    @Override
-    public boolean doTest(final long value)
-        throws Throwable
+    private LongPredicateChainer(final ThrowingLongPredicate[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doTest(value);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public LongPredicateChainer orTryWith(final ThrowingLongPredicate other)
+    public boolean doTest(final long value)
+        throws Throwable
     {
-        final ThrowingLongPredicate longPredicate = value -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doTest(value);
+                return alternatives[i].doTest(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doTest(value);
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doTest(value);
+    }
+
+    @Override
+    public LongPredicateChainer orTryWith(final ThrowingLongPredicate other)
+    {
+        return derived(new LongPredicateChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
+
+    @Override
+    protected LongPredicateChainer guardedBy(final Guard guard)
+    {
+        return new LongPredicateChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
 
-        return new LongPredicateChainer(longPredicate);
+    private boolean testGuarded(final Guard guard, final long value)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final boolean ret;
+        try {
+            ret = doTest(value);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongPredicate orThrow(
-        final Class<E> exclass)
+    protected LongPredicateChainer retriedBy(final RetryPolicy policy)
+    {
+        return new LongPredicateChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private boolean testRetried(final RetryPolicy policy, final long value)
+        throws Throwable
     {
-        return value -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doTest(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doTest(value);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongPredicateChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new LongPredicateChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongPredicateChainer withSite(final ConstructionSite site)
+    {
+        return new LongPredicateChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongPredicateChainer withFilter(final ExceptionFilter filter)
+    {
+        return new LongPredicateChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongPredicate orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private boolean testOrThrow(
+        final Function<Throwable, RuntimeException> factory, final long value)
+    {
+        try {
+            return doTest(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongPredicate fallbackTo(final LongPredicate fallback)
     {
-        return value -> {
-            try {
-                return throwing.doTest(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.test(value);
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private boolean testFallbackTo(final LongPredicate fallback,
+        final long value)
+    {
+        try {
+            return doTest(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.test(value);
+        }
     }
 
     @Override
     public LongPredicate sneakyThrow()
     {
-        return value -> {
-            try {
-                return throwing.doTest(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private boolean testSneakyThrow(final long value)
+    {
+        try {
+            return doTest(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongPredicate specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongPredicate orReturnTrue()
     {
-        return value -> {
-            try {
-                return throwing.doTest(value);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return true;
-            }
-        };
+        return new Policy(this, Policy.OR_RETURN_TRUE, null);
+    }
+
+    private boolean testOrReturnTrue(final long value)
+    {
+        try {
+            return doTest(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnTrue", throwable);
+            return true;
+        }
     }
 
     public LongPredicate orReturnFalse()
     {
-        return value -> {
+        return new Policy(this, Policy.OR_RETURN_FALSE, null);
+    }
+
+    private boolean testOrReturnFalse(final long value)
+    {
+        try {
+            return doTest(value);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnFalse", throwable);
+            return false;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingLongPredicate
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN_TRUE = 5;
+        private static final int OR_RETURN_FALSE = 6;
+
+        private final LongPredicateChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongPredicateChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean doTest(final long value)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.testGuarded((Guard) argument, value);
+                case RETRIED:
+                    return chainer.testRetried((RetryPolicy) argument, value);
+                default:
+                    return test(value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean test(final long value)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.testOrThrow(
+                        (Function<Throwable, RuntimeException>) argument,
+                        value);
+                case FALLBACK_TO:
+                    return chainer.testFallbackTo((LongPredicate) argument,
+                        value);
+                case SNEAKY_THROW:
+                    return chainer.testSneakyThrow(value);
+                case OR_RETURN_TRUE:
+                    return chainer.testOrReturnTrue(value);
+                case OR_RETURN_FALSE:
+                    return chainer.testOrReturnFalse(value);
+                default:
+                    return ThrowingLongPredicate.super.test(value);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements LongPredicate
+    {
+        private final ThrowingLongPredicate throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongPredicate) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public boolean test(final long value)
+        {
             try {
                 return throwing.doTest(value);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return false;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
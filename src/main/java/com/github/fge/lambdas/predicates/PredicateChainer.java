@@ -1,108 +1,306 @@
 package com.github.fge.lambdas.predicates;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class PredicateChainer<T>
     extends Chainer<Predicate<T>, ThrowingPredicate<T>, PredicateChainer<T>>
     implements ThrowingPredicate<T>
 {
+    private final ThrowingPredicate<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public PredicateChainer(
         final ThrowingPredicate<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingPredicate[] { throwing }, null, null, null);
     }
 
-    @Override
-    public boolean doTest(final T t)
-        throws Throwable
+    private PredicateChainer(final ThrowingPredicate<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doTest(t);
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public PredicateChainer<T> orTryWith(final ThrowingPredicate<T> other)
+    public boolean doTest(final T t)
+        throws Throwable
     {
-        final ThrowingPredicate<T> predicate = t -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doTest(t);
+                return alternatives[i].doTest(t);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doTest(t);
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doTest(t);
+    }
+
+    @Override
+    public PredicateChainer<T> orTryWith(final ThrowingPredicate<T> other)
+    {
+        return derived(new PredicateChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
+
+    @Override
+    protected PredicateChainer<T> guardedBy(final Guard guard)
+    {
+        return new PredicateChainer<>(
+            new Policy<>(this, Policy.GUARDED, guard));
+    }
 
-        return new PredicateChainer<>(predicate);
+    private boolean testGuarded(final Guard guard, final T t)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final boolean ret;
+        try {
+            ret = doTest(t);
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingPredicate<T> orThrow(
-        final Class<E> exclass)
+    protected PredicateChainer<T> retriedBy(final RetryPolicy policy)
+    {
+        return new PredicateChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private boolean testRetried(final RetryPolicy policy, final T t)
+        throws Throwable
     {
-        return t -> {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doTest(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doTest(t);
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected PredicateChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new PredicateChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected PredicateChainer<T> withSite(final ConstructionSite site)
+    {
+        return new PredicateChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected PredicateChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new PredicateChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingPredicate<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private boolean testOrThrow(
+        final Function<Throwable, RuntimeException> factory, final T t)
+    {
+        try {
+            return doTest(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public Predicate<T> fallbackTo(final Predicate<T> fallback)
     {
-        return t -> {
-            try {
-                return throwing.doTest(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.test(t);
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private boolean testFallbackTo(final Predicate<T> fallback, final T t)
+    {
+        try {
+            return doTest(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.test(t);
+        }
     }
 
     @Override
     public Predicate<T> sneakyThrow()
     {
-        return t -> {
-            try {
-                return throwing.doTest(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private boolean testSneakyThrow(final T t)
+    {
+        try {
+            return doTest(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public Predicate<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public Predicate<T> orReturnTrue()
     {
-        return t -> {
-            try {
-                return throwing.doTest(t);
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return true;
-            }
-        };
+        return new Policy<>(this, Policy.OR_RETURN_TRUE, null);
+    }
+
+    private boolean testOrReturnTrue(final T t)
+    {
+        try {
+            return doTest(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnTrue", throwable);
+            return true;
+        }
     }
 
     public Predicate<T> orReturnFalse()
     {
-        return t -> {
+        return new Policy<>(this, Policy.OR_RETURN_FALSE, null);
+    }
+
+    private boolean testOrReturnFalse(final T t)
+    {
+        try {
+            return doTest(t);
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturnFalse", throwable);
+            return false;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingPredicate<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN_TRUE = 5;
+        private static final int OR_RETURN_FALSE = 6;
+
+        private final PredicateChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final PredicateChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public boolean doTest(final T t)
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.testGuarded((Guard) argument, t);
+                case RETRIED:
+                    return chainer.testRetried((RetryPolicy) argument, t);
+                default:
+                    return test(t);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean test(final T t)
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.testOrThrow(
+                        (Function<Throwable, RuntimeException>) argument, t);
+                case FALLBACK_TO:
+                    return chainer.testFallbackTo((Predicate<T>) argument, t);
+                case SNEAKY_THROW:
+                    return chainer.testSneakyThrow(t);
+                case OR_RETURN_TRUE:
+                    return chainer.testOrReturnTrue(t);
+                case OR_RETURN_FALSE:
+                    return chainer.testOrReturnFalse(t);
+                default:
+                    return ThrowingPredicate.super.test(t);
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements Predicate<T>
+    {
+        private final ThrowingPredicate<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingPredicate<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public boolean test(final T t)
+        {
             try {
                 return throwing.doTest(t);
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return false;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,92 +1,284 @@
 package com.github.fge.lambdas.runnable;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
+
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 
 public class RunnableChainer
     extends Chainer<Runnable, ThrowingRunnable, RunnableChainer>
     implements ThrowingRunnable
 {
+    private final ThrowingRunnable[] alternatives;
+
     public RunnableChainer(final ThrowingRunnable throwing)
     {
-        super(throwing);
+        this(new ThrowingRunnable[] { throwing }, null, null, null);
     }
 
-    @Override
-    public void doRun()
-        throws Throwable
+    private RunnableChainer(final ThrowingRunnable[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        throwing.doRun();
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public RunnableChainer orTryWith(final ThrowingRunnable other)
+    public void doRun()
+        throws Throwable
     {
-        final ThrowingRunnable runnable = () -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                throwing.doRun();
+                alternatives[i].doRun();
+                return;
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                other.doRun();
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        alternatives[last].doRun();
+    }
 
-        return new RunnableChainer(runnable);
+    @Override
+    public RunnableChainer orTryWith(final ThrowingRunnable other)
+    {
+        return derived(new RunnableChainer(
+            append(alternatives, other), metrics, site, filter));
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingRunnable orThrow(
-        final Class<E> exclass)
+    protected RunnableChainer guardedBy(final Guard guard)
+    {
+        return new RunnableChainer(new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private void runGuarded(final Guard guard)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        try {
+            doRun();
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+    }
+
+    @Override
+    protected RunnableChainer retriedBy(final RetryPolicy policy)
     {
-        return () -> {
+        return new RunnableChainer(new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private void runRetried(final RetryPolicy policy)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                throwing.doRun();
-            } catch (Error | RuntimeException e) {
-                throw e;
+                doRun();
+                return;
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected RunnableChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new RunnableChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected RunnableChainer withSite(final ConstructionSite site)
+    {
+        return new RunnableChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected RunnableChainer withFilter(final ExceptionFilter filter)
+    {
+        return new RunnableChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingRunnable orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private void runOrThrow(final Function<Throwable, RuntimeException> factory)
+    {
+        try {
+            doRun();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public Runnable fallbackTo(final Runnable fallback)
     {
-        return () -> {
-            try {
-                throwing.doRun();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                fallback.run();
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private void runFallbackTo(final Runnable fallback)
+    {
+        try {
+            doRun();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            fallback.run();
+        }
     }
 
     @Override
     public Runnable sneakyThrow()
     {
-        return () -> {
-            try {
-                throwing.doRun();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private void runSneakyThrow()
+    {
+        try {
+            doRun();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public Runnable specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public Runnable orDoNothing()
     {
-        return () -> {
+        return new Policy(this, Policy.OR_DO_NOTHING, null);
+    }
+
+    private void runOrDoNothing()
+    {
+        try {
+            doRun();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orDoNothing", throwable);
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingRunnable
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_DO_NOTHING = 5;
+
+        private final RunnableChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final RunnableChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public void doRun()
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    chainer.runGuarded((Guard) argument);
+                    return;
+                case RETRIED:
+                    chainer.runRetried((RetryPolicy) argument);
+                    return;
+                default:
+                    run();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void run()
+        {
+            switch (kind) {
+                case OR_THROW:
+                    chainer.runOrThrow(
+                        (Function<Throwable, RuntimeException>) argument);
+                    return;
+                case FALLBACK_TO:
+                    chainer.runFallbackTo((Runnable) argument);
+                    return;
+                case SNEAKY_THROW:
+                    chainer.runSneakyThrow();
+                    return;
+                case OR_DO_NOTHING:
+                    chainer.runOrDoNothing();
+                    return;
+                default:
+                    ThrowingRunnable.super.run();
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements Runnable
+    {
+        private final ThrowingRunnable throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingRunnable) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public void run()
+        {
             try {
                 throwing.doRun();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                // nothing
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,94 +1,284 @@
 package com.github.fge.lambdas.supplier;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
 import java.util.function.DoubleSupplier;
+import java.util.function.Function;
 
 public class DoubleSupplierChainer
     extends Chainer<DoubleSupplier, ThrowingDoubleSupplier, DoubleSupplierChainer>
     implements ThrowingDoubleSupplier
 {
+    private final ThrowingDoubleSupplier[] alternatives;
+
     public DoubleSupplierChainer(final ThrowingDoubleSupplier throwing)
     {
-        super(throwing);
+        this(new ThrowingDoubleSupplier[] { throwing }, null, null, null);
     }
 
-    @Override
-    public double doGetAsDouble()
-        throws Throwable
+    private DoubleSupplierChainer(final ThrowingDoubleSupplier[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doGetAsDouble();
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public DoubleSupplierChainer orTryWith(final ThrowingDoubleSupplier other)
+    public double doGetAsDouble()
+        throws Throwable
     {
-        final ThrowingDoubleSupplier doubleSupplier = () -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doGetAsDouble();
+                return alternatives[i].doGetAsDouble();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doGetAsDouble();
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doGetAsDouble();
+    }
+
+    @Override
+    public DoubleSupplierChainer orTryWith(final ThrowingDoubleSupplier other)
+    {
+        return derived(new DoubleSupplierChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new DoubleSupplierChainer(doubleSupplier);
+    @Override
+    protected DoubleSupplierChainer guardedBy(final Guard guard)
+    {
+        return new DoubleSupplierChainer(
+            new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private double getAsDoubleGuarded(final Guard guard)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final double ret;
+        try {
+            ret = doGetAsDouble();
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingDoubleSupplier orThrow(
-        final Class<E> exclass)
+    protected DoubleSupplierChainer retriedBy(final RetryPolicy policy)
     {
-        return () -> {
+        return new DoubleSupplierChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private double getAsDoubleRetried(final RetryPolicy policy)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doGetAsDouble();
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doGetAsDouble();
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected DoubleSupplierChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new DoubleSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleSupplierChainer withSite(final ConstructionSite site)
+    {
+        return new DoubleSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected DoubleSupplierChainer withFilter(final ExceptionFilter filter)
+    {
+        return new DoubleSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingDoubleSupplier orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private double getAsDoubleOrThrow(
+        final Function<Throwable, RuntimeException> factory)
+    {
+        try {
+            return doGetAsDouble();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public DoubleSupplier fallbackTo(final DoubleSupplier fallback)
     {
-        return () -> {
-            try {
-                return throwing.doGetAsDouble();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.getAsDouble();
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private double getAsDoubleFallbackTo(final DoubleSupplier fallback)
+    {
+        try {
+            return doGetAsDouble();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.getAsDouble();
+        }
     }
 
     @Override
     public DoubleSupplier sneakyThrow()
     {
-        return () -> {
-            try {
-                return throwing.doGetAsDouble();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private double getAsDoubleSneakyThrow()
+    {
+        try {
+            return doGetAsDouble();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public DoubleSupplier specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public DoubleSupplier orReturn(final double retval)
     {
-        return () -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private double getAsDoubleOrReturn(final double retval)
+    {
+        try {
+            return doGetAsDouble();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingDoubleSupplier
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final DoubleSupplierChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final DoubleSupplierChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public double doGetAsDouble()
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.getAsDoubleGuarded((Guard) argument);
+                case RETRIED:
+                    return chainer.getAsDoubleRetried((RetryPolicy) argument);
+                default:
+                    return getAsDouble();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public double getAsDouble()
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.getAsDoubleOrThrow(
+                        (Function<Throwable, RuntimeException>) argument);
+                case FALLBACK_TO:
+                    return chainer.getAsDoubleFallbackTo(
+                        (DoubleSupplier) argument);
+                case SNEAKY_THROW:
+                    return chainer.getAsDoubleSneakyThrow();
+                case OR_RETURN:
+                    return chainer.getAsDoubleOrReturn((Double) argument);
+                default:
+                    return ThrowingDoubleSupplier.super.getAsDouble();
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements DoubleSupplier
+    {
+        private final ThrowingDoubleSupplier throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingDoubleSupplier) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public double getAsDouble()
+        {
             try {
                 return throwing.doGetAsDouble();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,94 +1,281 @@
 package com.github.fge.lambdas.supplier;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.IntSupplier;
 
 public class IntSupplierChainer
     extends Chainer<IntSupplier, ThrowingIntSupplier, IntSupplierChainer>
     implements ThrowingIntSupplier
 {
+    private final ThrowingIntSupplier[] alternatives;
+
     public IntSupplierChainer(final ThrowingIntSupplier throwing)
     {
-        super(throwing);
+        this(new ThrowingIntSupplier[] { throwing }, null, null, null);
     }
 
-    @Override
-    public int doGetAsInt()
-        throws Throwable
+    private IntSupplierChainer(final ThrowingIntSupplier[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doGetAsInt();
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public IntSupplierChainer orTryWith(final ThrowingIntSupplier other)
+    public int doGetAsInt()
+        throws Throwable
     {
-        final ThrowingIntSupplier intSupplier = () -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doGetAsInt();
+                return alternatives[i].doGetAsInt();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doGetAsInt();
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doGetAsInt();
+    }
+
+    @Override
+    public IntSupplierChainer orTryWith(final ThrowingIntSupplier other)
+    {
+        return derived(new IntSupplierChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new IntSupplierChainer(intSupplier);
+    @Override
+    protected IntSupplierChainer guardedBy(final Guard guard)
+    {
+        return new IntSupplierChainer(new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private int getAsIntGuarded(final Guard guard)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final int ret;
+        try {
+            ret = doGetAsInt();
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingIntSupplier orThrow(
-        final Class<E> exclass)
+    protected IntSupplierChainer retriedBy(final RetryPolicy policy)
     {
-        return () -> {
+        return new IntSupplierChainer(new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private int getAsIntRetried(final RetryPolicy policy)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doGetAsInt();
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doGetAsInt();
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected IntSupplierChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new IntSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntSupplierChainer withSite(final ConstructionSite site)
+    {
+        return new IntSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected IntSupplierChainer withFilter(final ExceptionFilter filter)
+    {
+        return new IntSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingIntSupplier orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private int getAsIntOrThrow(
+        final Function<Throwable, RuntimeException> factory)
+    {
+        try {
+            return doGetAsInt();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public IntSupplier fallbackTo(final IntSupplier fallback)
     {
-        return () -> {
-            try {
-                return throwing.doGetAsInt();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.getAsInt();
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private int getAsIntFallbackTo(final IntSupplier fallback)
+    {
+        try {
+            return doGetAsInt();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.getAsInt();
+        }
     }
 
     @Override
     public IntSupplier sneakyThrow()
     {
-        return () -> {
-            try {
-                return throwing.doGetAsInt();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private int getAsIntSneakyThrow()
+    {
+        try {
+            return doGetAsInt();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public IntSupplier specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public IntSupplier orReturn(final int retval)
     {
-        return () -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private int getAsIntOrReturn(final int retval)
+    {
+        try {
+            return doGetAsInt();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingIntSupplier
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final IntSupplierChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final IntSupplierChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int doGetAsInt()
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.getAsIntGuarded((Guard) argument);
+                case RETRIED:
+                    return chainer.getAsIntRetried((RetryPolicy) argument);
+                default:
+                    return getAsInt();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int getAsInt()
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.getAsIntOrThrow(
+                        (Function<Throwable, RuntimeException>) argument);
+                case FALLBACK_TO:
+                    return chainer.getAsIntFallbackTo((IntSupplier) argument);
+                case SNEAKY_THROW:
+                    return chainer.getAsIntSneakyThrow();
+                case OR_RETURN:
+                    return chainer.getAsIntOrReturn((Integer) argument);
+                default:
+                    return ThrowingIntSupplier.super.getAsInt();
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements IntSupplier
+    {
+        private final ThrowingIntSupplier throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingIntSupplier) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public int getAsInt()
+        {
             try {
                 return throwing.doGetAsInt();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -1,94 +1,282 @@
 package com.github.fge.lambdas.supplier;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 
 public class LongSupplierChainer
     extends Chainer<LongSupplier, ThrowingLongSupplier, LongSupplierChainer>
     implements ThrowingLongSupplier
 {
+    private final ThrowingLongSupplier[] alternatives;
+
     public LongSupplierChainer(final ThrowingLongSupplier throwing)
     {
-        super(throwing);
+        this(new ThrowingLongSupplier[] { throwing }, null, null, null);
     }
 
-    @Override
-    public long doGetAsLong()
-        throws Throwable
+    private LongSupplierChainer(final ThrowingLongSupplier[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doGetAsLong();
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public LongSupplierChainer orTryWith(final ThrowingLongSupplier other)
+    public long doGetAsLong()
+        throws Throwable
     {
-        final ThrowingLongSupplier longSupplier = () -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doGetAsLong();
+                return alternatives[i].doGetAsLong();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doGetAsLong();
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doGetAsLong();
+    }
+
+    @Override
+    public LongSupplierChainer orTryWith(final ThrowingLongSupplier other)
+    {
+        return derived(new LongSupplierChainer(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new LongSupplierChainer(longSupplier);
+    @Override
+    protected LongSupplierChainer guardedBy(final Guard guard)
+    {
+        return new LongSupplierChainer(new Policy(this, Policy.GUARDED, guard));
+    }
+
+    private long getAsLongGuarded(final Guard guard)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final long ret;
+        try {
+            ret = doGetAsLong();
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingLongSupplier orThrow(
-        final Class<E> exclass)
+    protected LongSupplierChainer retriedBy(final RetryPolicy policy)
     {
-        return () -> {
+        return new LongSupplierChainer(
+            new Policy(this, Policy.RETRIED, policy));
+    }
+
+    private long getAsLongRetried(final RetryPolicy policy)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doGetAsLong();
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doGetAsLong();
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected LongSupplierChainer withMetrics(final ChainerMetrics metrics)
+    {
+        return new LongSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongSupplierChainer withSite(final ConstructionSite site)
+    {
+        return new LongSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected LongSupplierChainer withFilter(final ExceptionFilter filter)
+    {
+        return new LongSupplierChainer(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingLongSupplier orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy(this, Policy.OR_THROW, factory);
+    }
+
+    private long getAsLongOrThrow(
+        final Function<Throwable, RuntimeException> factory)
+    {
+        try {
+            return doGetAsLong();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public LongSupplier fallbackTo(final LongSupplier fallback)
     {
-        return () -> {
-            try {
-                return throwing.doGetAsLong();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.getAsLong();
-            }
-        };
+        return new Policy(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private long getAsLongFallbackTo(final LongSupplier fallback)
+    {
+        try {
+            return doGetAsLong();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.getAsLong();
+        }
     }
 
     @Override
     public LongSupplier sneakyThrow()
     {
-        return () -> {
-            try {
-                return throwing.doGetAsLong();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private long getAsLongSneakyThrow()
+    {
+        try {
+            return doGetAsLong();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public LongSupplier specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public LongSupplier orReturn(final long retval)
     {
-        return () -> {
+        return new Policy(this, Policy.OR_RETURN, retval);
+    }
+
+    private long getAsLongOrReturn(final long retval)
+    {
+        try {
+            return doGetAsLong();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy
+        implements ThrowingLongSupplier
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final LongSupplierChainer chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final LongSupplierChainer chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public long doGetAsLong()
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.getAsLongGuarded((Guard) argument);
+                case RETRIED:
+                    return chainer.getAsLongRetried((RetryPolicy) argument);
+                default:
+                    return getAsLong();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public long getAsLong()
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.getAsLongOrThrow(
+                        (Function<Throwable, RuntimeException>) argument);
+                case FALLBACK_TO:
+                    return chainer.getAsLongFallbackTo((LongSupplier) argument);
+                case SNEAKY_THROW:
+                    return chainer.getAsLongSneakyThrow();
+                case OR_RETURN:
+                    return chainer.getAsLongOrReturn((Long) argument);
+                default:
+                    return ThrowingLongSupplier.super.getAsLong();
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized
+        implements LongSupplier
+    {
+        private final ThrowingLongSupplier throwing;
+        private final Object source;
+
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingLongSupplier) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public long getAsLong()
+        {
             try {
                 return throwing.doGetAsLong();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
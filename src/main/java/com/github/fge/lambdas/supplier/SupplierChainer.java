@@ -1,95 +1,284 @@
 package com.github.fge.lambdas.supplier;
 
 import com.github.fge.lambdas.Chainer;
+import com.github.fge.lambdas.ChainerMetrics;
+import com.github.fge.lambdas.ConstructionSite;
+import com.github.fge.lambdas.ExceptionFilter;
+import com.github.fge.lambdas.Guard;
+import com.github.fge.lambdas.RetryPolicy;
+import com.github.fge.lambdas.ThrownByLambdaException;
 
+import java.lang.invoke.MethodHandles;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class SupplierChainer<T>
     extends Chainer<Supplier<T>, ThrowingSupplier<T>, SupplierChainer<T>>
     implements ThrowingSupplier<T>
 {
+    private final ThrowingSupplier<T>[] alternatives;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
     public SupplierChainer(
         final ThrowingSupplier<T> throwing)
     {
-        super(throwing);
+        this(new ThrowingSupplier[] { throwing }, null, null, null);
     }
 
-    @Override
-    public T doGet()
-        throws Throwable
+    private SupplierChainer(final ThrowingSupplier<T>[] alternatives,
+        final ChainerMetrics metrics, final ConstructionSite site,
+        final ExceptionFilter filter)
     {
-        return throwing.doGet();
+        super(alternatives, metrics, site, filter);
+        this.alternatives = alternatives;
     }
 
     @Override
-    public SupplierChainer<T> orTryWith(final ThrowingSupplier<T> other)
+    public T doGet()
+        throws Throwable
     {
-        final ThrowingSupplier<T> supplier = () -> {
+        final int last = alternatives.length - 1;
+        for (int i = 0; i < last; i++) {
             try {
-                return throwing.doGet();
+                return alternatives[i].doGet();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return other.doGet();
+            } catch (Throwable throwable) {
+                alternativeTried(throwable);
             }
-        };
+        }
+        return alternatives[last].doGet();
+    }
+
+    @Override
+    public SupplierChainer<T> orTryWith(final ThrowingSupplier<T> other)
+    {
+        return derived(new SupplierChainer<>(
+            append(alternatives, other), metrics, site, filter));
+    }
 
-        return new SupplierChainer<>(supplier);
+    @Override
+    protected SupplierChainer<T> guardedBy(final Guard guard)
+    {
+        return new SupplierChainer<>(new Policy<>(this, Policy.GUARDED, guard));
+    }
+
+    private T getGuarded(final Guard guard)
+        throws Throwable
+    {
+        final long token = guard.enter();
+        final T ret;
+        try {
+            ret = doGet();
+        } catch (Throwable throwable) {
+            throw guard.onFailure(token, throwable);
+        }
+        guard.onSuccess(token);
+        return ret;
     }
 
     @Override
-    public <E extends RuntimeException> ThrowingSupplier<T> orThrow(
-        final Class<E> exclass)
+    protected SupplierChainer<T> retriedBy(final RetryPolicy policy)
     {
-        return () -> {
+        return new SupplierChainer<>(
+            new Policy<>(this, Policy.RETRIED, policy));
+    }
+
+    private T getRetried(final RetryPolicy policy)
+        throws Throwable
+    {
+        invoked(policy);
+        for (int attempt = 1;; attempt++) {
             try {
-                return throwing.doGet();
-            } catch (Error | RuntimeException e) {
-                throw e;
+                return doGet();
             } catch (Throwable throwable) {
-                throw rethrow(exclass, throwable);
+                retryOrThrow(policy, attempt, throwable);
             }
-        };
+        }
+    }
+
+    @Override
+    protected SupplierChainer<T> withMetrics(final ChainerMetrics metrics)
+    {
+        return new SupplierChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected SupplierChainer<T> withSite(final ConstructionSite site)
+    {
+        return new SupplierChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    protected SupplierChainer<T> withFilter(final ExceptionFilter filter)
+    {
+        return new SupplierChainer<>(alternatives, metrics, site, filter);
+    }
+
+    @Override
+    public <E extends RuntimeException> ThrowingSupplier<T> orThrow(
+        final Function<? super Throwable, E> factory)
+    {
+        return new Policy<>(this, Policy.OR_THROW, factory);
+    }
+
+    private T getOrThrow(final Function<Throwable, RuntimeException> factory)
+    {
+        try {
+            return doGet();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("orThrow", throwable);
+            throw factory.apply(throwable);
+        }
     }
 
     @Override
     public Supplier<T> fallbackTo(final Supplier<T> fallback)
     {
-        return () -> {
-            try {
-                return throwing.doGet();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable ignored) {
-                return fallback.get();
-            }
-        };
+        return new Policy<>(this, Policy.FALLBACK_TO, fallback);
+    }
+
+    private T getFallbackTo(final Supplier<T> fallback)
+    {
+        try {
+            return doGet();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("fallbackTo", throwable);
+            return fallback.get();
+        }
     }
 
     @Override
     public Supplier<T> sneakyThrow()
     {
-        return () -> {
-            try {
-                return throwing.doGet();
-            } catch (Error | RuntimeException e) {
-                throw e;
-            } catch (Throwable throwable) {
-                throw doSneakyThrow(throwable);
-            }
-        };
+        return new Policy<>(this, Policy.SNEAKY_THROW, null);
+    }
+
+    private T getSneakyThrow()
+    {
+        try {
+            return doGet();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            rethrown("sneakyThrow", throwable);
+            throw doSneakyThrow(throwable);
+        }
+    }
+
+    @Override
+    public Supplier<T> specialized()
+    {
+        return specialize(MethodHandles.lookup(), Specialized.class,
+            alternatives.length == 1 ? alternatives[0] : this);
     }
 
     public Supplier<T> orReturn(final T retval)
     {
-        return () -> {
+        return new Policy<>(this, Policy.OR_RETURN, retval);
+    }
+
+    private T getOrReturn(final T retval)
+    {
+        try {
+            return doGet();
+        } catch (Error | RuntimeException e) {
+            throw e;
+        } catch (Throwable throwable) {
+            fallbackTaken("orReturn", throwable);
+            return retval;
+        }
+    }
+
+    /*
+     * Policies of this chainer; see Chainer
+     */
+    private static final class Policy<T>
+        implements ThrowingSupplier<T>
+    {
+        private static final int GUARDED = 0;
+        private static final int RETRIED = 1;
+        private static final int OR_THROW = 2;
+        private static final int FALLBACK_TO = 3;
+        private static final int SNEAKY_THROW = 4;
+        private static final int OR_RETURN = 5;
+
+        private final SupplierChainer<T> chainer;
+        private final int kind;
+        private final Object argument;
+
+        private Policy(final SupplierChainer<T> chainer, final int kind,
+            final Object argument)
+        {
+            this.chainer = chainer;
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public T doGet()
+            throws Throwable
+        {
+            switch (kind) {
+                case GUARDED:
+                    return chainer.getGuarded((Guard) argument);
+                case RETRIED:
+                    return chainer.getRetried((RetryPolicy) argument);
+                default:
+                    return get();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get()
+        {
+            switch (kind) {
+                case OR_THROW:
+                    return chainer.getOrThrow(
+                        (Function<Throwable, RuntimeException>) argument);
+                case FALLBACK_TO:
+                    return chainer.getFallbackTo((Supplier<T>) argument);
+                case SNEAKY_THROW:
+                    return chainer.getSneakyThrow();
+                case OR_RETURN:
+                    return chainer.getOrReturn((T) argument);
+                default:
+                    return ThrowingSupplier.super.get();
+            }
+        }
+    }
+
+    /*
+     * Template of specialized(); see Chainer#specialize()
+     */
+    static final class Specialized<T>
+        implements Supplier<T>
+    {
+        private final ThrowingSupplier<T> throwing;
+        private final Object source;
+
+        @SuppressWarnings("unchecked")
+        Specialized(final Object throwing, final Object source)
+        {
+            this.throwing = (ThrowingSupplier<T>) throwing;
+            this.source = source;
+        }
+
+        @Override
+        public T get()
+        {
             try {
                 return throwing.doGet();
             } catch (Error | RuntimeException e) {
                 throw e;
-            } catch (Throwable ignored) {
-                return retval;
+            } catch (Throwable throwable) {
+                throw ThrownByLambdaException.of(source, throwable);
             }
-        };
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.github.fge.lambdas;
+
+import java.lang.invoke.MethodHandles.Lookup;
+
+/**
+ * Definition of classes unloaded once unreachable, Java 17 and later
+ *
+ * <p>Hidden classes are always available: no reflection is needed.</p>
+ */
+final class ClassDefiner
+{
+    private ClassDefiner()
+    {
+        throw new Error("nice try!");
+    }
+
+    static boolean isSupported()
+    {
+        return true;
+    }
+
+    static Lookup define(final Lookup lookup, final byte[] bytecode)
+        throws IllegalAccessException
+    {
+        return lookup.defineHiddenClass(bytecode, true);
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.fge.lambdas;
+
+import java.lang.StackWalker.StackFrame;
+
+/**
+ * Stack walking, Java 9 and later
+ *
+ * <p>Unlike {@link Throwable#getStackTrace()}, {@link StackWalker} does not
+ * build a {@link StackTraceElement} for every frame; and the walk stops at the
+ * frame returned.</p>
+ */
+final class StackFrames
+{
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private StackFrames()
+    {
+        throw new Error("nice try!");
+    }
+
+    static StackTraceElement callerOf(final String className)
+    {
+        return WALKER.walk(s -> s
+            .dropWhile(frame -> !frame.getClassName().equals(className))
+            .dropWhile(frame -> frame.getClassName().equals(className))
+            .findFirst())
+            .map(StackFrame::toStackTraceElement)
+            .orElse(null);
+    }
+}
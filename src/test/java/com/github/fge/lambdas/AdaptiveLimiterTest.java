@@ -0,0 +1,136 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class AdaptiveLimiterTest
+{
+    private static final AdaptiveLimiter.Config CONFIG
+        = AdaptiveLimiter.config().limits(10, 1, 100).backoffRatio(0.5);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveLimiter limiter;
+    private Guard guard;
+
+    @BeforeMethod
+    public void init()
+    {
+        clock.set(0L);
+        limiter = new AdaptiveLimiter(CONFIG, clock::get);
+        guard = limiter.guard();
+    }
+
+    @Test
+    public void invocationsBeyondLimitAreRejectedTest()
+        throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+            guard.enter();
+
+        try {
+            guard.enter();
+            shouldHaveThrown(ConcurrencyLimitExceededException.class);
+        } catch (ConcurrencyLimitExceededException ignored) {
+            assertThat(limiter.getInFlight()).isEqualTo(10);
+            assertThat(limiter.getRejections()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    public void failureDecreasesLimitTest()
+        throws Exception
+    {
+        final long token = guard.enter();
+        clock.addAndGet(1L);
+        guard.onFailure(token, new IOException());
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void limitDecreasesOncePerRoundTripTest()
+        throws Exception
+    {
+        final long first = guard.enter();
+        final long second = guard.enter();
+        clock.addAndGet(1L);
+        guard.onFailure(first, new IOException());
+        guard.onFailure(second, new IOException());
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void slowInvocationDecreasesLimitTest()
+        throws Exception
+    {
+        invoke(1000L);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        invoke(3000L);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void fastInvocationsIncreaseUsedLimitTest()
+        throws Exception
+    {
+        for (int round = 0; round < 10; round++) {
+            final long[] tokens = new long[limiter.getLimit()];
+            for (int i = 0; i < tokens.length; i++)
+                tokens[i] = guard.enter();
+            clock.addAndGet(1000L);
+            for (final long token: tokens)
+                guard.onSuccess(token);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    public void idleLimitDoesNotIncreaseTest()
+        throws Exception
+    {
+        for (int i = 0; i < 100; i++)
+            invoke(1000L);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void rejectedInvocationGoesToFallbackTest()
+    {
+        final AdaptiveLimiter single = new AdaptiveLimiter(
+            AdaptiveLimiter.config().limits(1, 1, 1), clock::get);
+        final AtomicReference<Function<Integer, Integer>> self
+            = new AtomicReference<>();
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i ->
+                i == 0 ? self.get().apply(1) : i)
+            .adaptiveLimit(single).orReturn(-1);
+        self.set(f);
+
+        assertThat(f.apply(1)).isEqualTo(1);
+        assertThat(f.apply(0)).isEqualTo(-1);
+        assertThat(single.getRejections()).isEqualTo(1L);
+    }
+
+    private void invoke(final long rtt)
+        throws Exception
+    {
+        final long token = guard.enter();
+        clock.addAndGet(rtt);
+        guard.onSuccess(token);
+    }
+}
@@ -0,0 +1,575 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.comparators.ComparatorChainer;
+import com.github.fge.lambdas.comparators.ThrowingComparator;
+import com.github.fge.lambdas.consumers.BiConsumerChainer;
+import com.github.fge.lambdas.consumers.ConsumerChainer;
+import com.github.fge.lambdas.consumers.ObjDoubleConsumerChainer;
+import com.github.fge.lambdas.consumers.ObjIntConsumerChainer;
+import com.github.fge.lambdas.consumers.ObjLongConsumerChainer;
+import com.github.fge.lambdas.consumers.ThrowingBiConsumer;
+import com.github.fge.lambdas.consumers.ThrowingConsumer;
+import com.github.fge.lambdas.consumers.ThrowingDoubleConsumer;
+import com.github.fge.lambdas.consumers.ThrowingIntConsumer;
+import com.github.fge.lambdas.consumers.ThrowingLongConsumer;
+import com.github.fge.lambdas.consumers.ThrowingObjDoubleConsumer;
+import com.github.fge.lambdas.consumers.ThrowingObjIntConsumer;
+import com.github.fge.lambdas.consumers.ThrowingObjLongConsumer;
+import com.github.fge.lambdas.functions.BiFunctionChainer;
+import com.github.fge.lambdas.functions.FunctionChainer;
+import com.github.fge.lambdas.functions.ThrowingBiFunction;
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import com.github.fge.lambdas.functions.ThrowingToDoubleFunction;
+import com.github.fge.lambdas.functions.ThrowingToIntFunction;
+import com.github.fge.lambdas.functions.ThrowingToLongFunction;
+import com.github.fge.lambdas.functions.ToDoubleFunctionChainer;
+import com.github.fge.lambdas.functions.ToIntFunctionChainer;
+import com.github.fge.lambdas.functions.ToLongFunctionChainer;
+import com.github.fge.lambdas.functions.doublefunctions.DoubleFunctionChainer;
+import com.github.fge.lambdas.functions.doublefunctions.ThrowingDoubleFunction;
+import com.github.fge.lambdas.functions.doublefunctions.ThrowingDoubleToIntFunction;
+import com.github.fge.lambdas.functions.doublefunctions.ThrowingDoubleToLongFunction;
+import com.github.fge.lambdas.functions.intfunctions.IntFunctionChainer;
+import com.github.fge.lambdas.functions.intfunctions.ThrowingIntFunction;
+import com.github.fge.lambdas.functions.intfunctions.ThrowingIntToDoubleFunction;
+import com.github.fge.lambdas.functions.intfunctions.ThrowingIntToLongFunction;
+import com.github.fge.lambdas.functions.longfunctions.LongFunctionChainer;
+import com.github.fge.lambdas.functions.longfunctions.ThrowingLongFunction;
+import com.github.fge.lambdas.functions.longfunctions.ThrowingLongToDoubleFunction;
+import com.github.fge.lambdas.functions.longfunctions.ThrowingLongToIntFunction;
+import com.github.fge.lambdas.functions.operators.BinaryOperatorChainer;
+import com.github.fge.lambdas.functions.operators.ThrowingBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingDoubleBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingDoubleUnaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingIntBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingIntUnaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingLongBinaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingLongUnaryOperator;
+import com.github.fge.lambdas.functions.operators.ThrowingUnaryOperator;
+import com.github.fge.lambdas.functions.operators.UnaryOperatorChainer;
+import com.github.fge.lambdas.predicates.PredicateChainer;
+import com.github.fge.lambdas.predicates.ThrowingDoublePredicate;
+import com.github.fge.lambdas.predicates.ThrowingIntPredicate;
+import com.github.fge.lambdas.predicates.ThrowingLongPredicate;
+import com.github.fge.lambdas.predicates.ThrowingPredicate;
+import com.github.fge.lambdas.runnable.ThrowingRunnable;
+import com.github.fge.lambdas.supplier.SupplierChainer;
+import com.github.fge.lambdas.supplier.ThrowingDoubleSupplier;
+import com.github.fge.lambdas.supplier.ThrowingIntSupplier;
+import com.github.fge.lambdas.supplier.ThrowingLongSupplier;
+import com.github.fge.lambdas.supplier.ThrowingSupplier;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation regression tests
+ *
+ * <p>The success path of all policies of all chainers must not allocate
+ * anything; neither must the failure path of policies which do not wrap the
+ * exception. Policies wrapping the exception may only allocate the wrapper
+ * itself.</p>
+ *
+ * <p>Allocations are measured using {@link
+ * com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}; these tests
+ * are skipped if the JVM does not support it.</p>
+ */
+public final class AllocationTest
+{
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    /*
+     * Tolerance for the allocations of the measurement itself, in bytes per
+     * iteration
+     */
+    private static final double TOLERANCE = 0.01;
+
+    /*
+     * Upper bound of the size of a stackless wrapper exception (including its
+     * message), in bytes
+     */
+    private static final double WRAPPER_SIZE = 512.0;
+
+    private static final Exception CHECKED = new Exception();
+    private static final Object ARG = new Object();
+
+    private static final List<Family<?, ?, ?>> FAMILIES = new ArrayList<>();
+
+    static {
+        FAMILIES.add(AllocationTest.<BiConsumer<Object, Object>,
+            ThrowingBiConsumer<Object, Object>,
+            BiConsumerChainer<Object, Object>>family("biConsumer",
+            Throwing::biConsumer,
+            (ThrowingBiConsumer<Object, Object>) (t, u) -> { },
+            (t, u) -> { throw CHECKED; },
+            (BiConsumer<Object, Object> n) -> n.accept(ARG, ARG),
+            c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<BiFunction<Object, Object, Object>,
+            ThrowingBiFunction<Object, Object, Object>,
+            BiFunctionChainer<Object, Object, Object>>family("biFunction",
+            Throwing::biFunction,
+            (ThrowingBiFunction<Object, Object, Object>) (t, u) -> ARG,
+            (t, u) -> { throw CHECKED; },
+            (BiFunction<Object, Object, Object> n) -> n.apply(ARG, ARG),
+            c -> c.orReturn(ARG)));
+        FAMILIES.add(AllocationTest.<BinaryOperator<Object>,
+            ThrowingBinaryOperator<Object>,
+            BinaryOperatorChainer<Object>>family("binaryOperator",
+            Throwing::binaryOperator,
+            (ThrowingBinaryOperator<Object>) (t, u) -> ARG,
+            (t, u) -> { throw CHECKED; },
+            (BinaryOperator<Object> n) -> n.apply(ARG, ARG),
+            c -> c.orReturn(ARG)));
+        FAMILIES.add(AllocationTest.<Comparator<Object>,
+            ThrowingComparator<Object>,
+            ComparatorChainer<Object>>family("comparator",
+            Throwing::comparator,
+            (ThrowingComparator<Object>) (o1, o2) -> 0,
+            (o1, o2) -> { throw CHECKED; },
+            (Comparator<Object> n) -> n.compare(ARG, ARG), c -> c.orReturn(0)));
+        FAMILIES.add(AllocationTest.<Consumer<Object>,
+            ThrowingConsumer<Object>,
+            ConsumerChainer<Object>>family("consumer",
+            Throwing::consumer,
+            (ThrowingConsumer<Object>) t -> { },
+            t -> { throw CHECKED; },
+            (Consumer<Object> n) -> n.accept(ARG), c -> c.orDoNothing()));
+        FAMILIES.add(family("doubleBinaryOperator",
+            Throwing::doubleBinaryOperator,
+            (ThrowingDoubleBinaryOperator) (left, right) -> 0.0,
+            (left, right) -> { throw CHECKED; },
+            (DoubleBinaryOperator n) -> n.applyAsDouble(1.0, 1.0),
+            c -> c.orReturn(0.0)));
+        FAMILIES.add(family("doubleConsumer", Throwing::doubleConsumer,
+            (ThrowingDoubleConsumer) value -> { },
+            value -> { throw CHECKED; },
+            (DoubleConsumer n) -> n.accept(1.0), c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<DoubleFunction<Object>,
+            ThrowingDoubleFunction<Object>,
+            DoubleFunctionChainer<Object>>family("doubleFunction",
+            Throwing::doubleFunction,
+            (ThrowingDoubleFunction<Object>) value -> ARG,
+            value -> { throw CHECKED; },
+            (DoubleFunction<Object> n) -> n.apply(1.0), c -> c.orReturn(ARG)));
+        FAMILIES.add(family("doublePredicate", Throwing::doublePredicate,
+            (ThrowingDoublePredicate) value -> true,
+            value -> { throw CHECKED; },
+            (DoublePredicate n) -> n.test(1.0), c -> c.orReturnFalse()));
+        FAMILIES.add(family("doubleSupplier", Throwing::doubleSupplier,
+            (ThrowingDoubleSupplier) () -> 0.0,
+            () -> { throw CHECKED; },
+            (DoubleSupplier n) -> n.getAsDouble(), c -> c.orReturn(0.0)));
+        FAMILIES.add(family("doubleToIntFunction",
+            Throwing::doubleToIntFunction,
+            (ThrowingDoubleToIntFunction) value -> 0,
+            value -> { throw CHECKED; },
+            (DoubleToIntFunction n) -> n.applyAsInt(1.0), c -> c.orReturn(0)));
+        FAMILIES.add(family("doubleToLongFunction",
+            Throwing::doubleToLongFunction,
+            (ThrowingDoubleToLongFunction) value -> 0L,
+            value -> { throw CHECKED; },
+            (DoubleToLongFunction n) -> n.applyAsLong(1.0),
+            c -> c.orReturn(0L)));
+        FAMILIES.add(family("doubleUnaryOperator",
+            Throwing::doubleUnaryOperator,
+            (ThrowingDoubleUnaryOperator) operand -> 0.0,
+            operand -> { throw CHECKED; },
+            (DoubleUnaryOperator n) -> n.applyAsDouble(1.0),
+            c -> c.orReturn(0.0)));
+        FAMILIES.add(AllocationTest.<Function<Object, Object>,
+            ThrowingFunction<Object, Object>,
+            FunctionChainer<Object, Object>>family("function",
+            Throwing::function,
+            (ThrowingFunction<Object, Object>) t -> ARG,
+            t -> { throw CHECKED; },
+            (Function<Object, Object> n) -> n.apply(ARG),
+            c -> c.orReturn(ARG)));
+        FAMILIES.add(family("intBinaryOperator", Throwing::intBinaryOperator,
+            (ThrowingIntBinaryOperator) (left, right) -> 0,
+            (left, right) -> { throw CHECKED; },
+            (IntBinaryOperator n) -> n.applyAsInt(1, 1), c -> c.orReturn(0)));
+        FAMILIES.add(family("intConsumer", Throwing::intConsumer,
+            (ThrowingIntConsumer) value -> { },
+            value -> { throw CHECKED; },
+            (IntConsumer n) -> n.accept(1), c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<IntFunction<Object>,
+            ThrowingIntFunction<Object>,
+            IntFunctionChainer<Object>>family("intFunction",
+            Throwing::intFunction,
+            (ThrowingIntFunction<Object>) value -> ARG,
+            value -> { throw CHECKED; },
+            (IntFunction<Object> n) -> n.apply(1), c -> c.orReturn(ARG)));
+        FAMILIES.add(family("intPredicate", Throwing::intPredicate,
+            (ThrowingIntPredicate) value -> true,
+            value -> { throw CHECKED; },
+            (IntPredicate n) -> n.test(1), c -> c.orReturnFalse()));
+        FAMILIES.add(family("intSupplier", Throwing::intSupplier,
+            (ThrowingIntSupplier) () -> 0,
+            () -> { throw CHECKED; },
+            (IntSupplier n) -> n.getAsInt(), c -> c.orReturn(0)));
+        FAMILIES.add(family("intToDoubleFunction",
+            Throwing::intToDoubleFunction,
+            (ThrowingIntToDoubleFunction) value -> 0.0,
+            value -> { throw CHECKED; },
+            (IntToDoubleFunction n) -> n.applyAsDouble(1),
+            c -> c.orReturn(0.0)));
+        FAMILIES.add(family("intToLongFunction", Throwing::intToLongFunction,
+            (ThrowingIntToLongFunction) value -> 0L,
+            value -> { throw CHECKED; },
+            (IntToLongFunction n) -> n.applyAsLong(1), c -> c.orReturn(0L)));
+        FAMILIES.add(family("intUnaryOperator", Throwing::intUnaryOperator,
+            (ThrowingIntUnaryOperator) operand -> 0,
+            operand -> { throw CHECKED; },
+            (IntUnaryOperator n) -> n.applyAsInt(1), c -> c.orReturn(0)));
+        FAMILIES.add(family("longBinaryOperator", Throwing::longBinaryOperator,
+            (ThrowingLongBinaryOperator) (left, right) -> 0L,
+            (left, right) -> { throw CHECKED; },
+            (LongBinaryOperator n) -> n.applyAsLong(1L, 1L),
+            c -> c.orReturn(0L)));
+        FAMILIES.add(family("longConsumer", Throwing::longConsumer,
+            (ThrowingLongConsumer) value -> { },
+            value -> { throw CHECKED; },
+            (LongConsumer n) -> n.accept(1L), c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<LongFunction<Object>,
+            ThrowingLongFunction<Object>,
+            LongFunctionChainer<Object>>family("longFunction",
+            Throwing::longFunction,
+            (ThrowingLongFunction<Object>) value -> ARG,
+            value -> { throw CHECKED; },
+            (LongFunction<Object> n) -> n.apply(1L), c -> c.orReturn(ARG)));
+        FAMILIES.add(family("longPredicate", Throwing::longPredicate,
+            (ThrowingLongPredicate) value -> true,
+            value -> { throw CHECKED; },
+            (LongPredicate n) -> n.test(1L), c -> c.orReturnFalse()));
+        FAMILIES.add(family("longSupplier", Throwing::longSupplier,
+            (ThrowingLongSupplier) () -> 0L,
+            () -> { throw CHECKED; },
+            (LongSupplier n) -> n.getAsLong(), c -> c.orReturn(0L)));
+        FAMILIES.add(family("longToDoubleFunction",
+            Throwing::longToDoubleFunction,
+            (ThrowingLongToDoubleFunction) value -> 0.0,
+            value -> { throw CHECKED; },
+            (LongToDoubleFunction n) -> n.applyAsDouble(1L),
+            c -> c.orReturn(0.0)));
+        FAMILIES.add(family("longToIntFunction", Throwing::longToIntFunction,
+            (ThrowingLongToIntFunction) value -> 0,
+            value -> { throw CHECKED; },
+            (LongToIntFunction n) -> n.applyAsInt(1L), c -> c.orReturn(0)));
+        FAMILIES.add(family("longUnaryOperator", Throwing::longUnaryOperator,
+            (ThrowingLongUnaryOperator) operand -> 0L,
+            operand -> { throw CHECKED; },
+            (LongUnaryOperator n) -> n.applyAsLong(1L), c -> c.orReturn(0L)));
+        FAMILIES.add(AllocationTest.<ObjDoubleConsumer<Object>,
+            ThrowingObjDoubleConsumer<Object>,
+            ObjDoubleConsumerChainer<Object>>family("objDoubleConsumer",
+            Throwing::objDoubleConsumer,
+            (ThrowingObjDoubleConsumer<Object>) (t, value) -> { },
+            (t, value) -> { throw CHECKED; },
+            (ObjDoubleConsumer<Object> n) -> n.accept(ARG, 1.0),
+            c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<ObjIntConsumer<Object>,
+            ThrowingObjIntConsumer<Object>,
+            ObjIntConsumerChainer<Object>>family("objIntConsumer",
+            Throwing::objIntConsumer,
+            (ThrowingObjIntConsumer<Object>) (t, value) -> { },
+            (t, value) -> { throw CHECKED; },
+            (ObjIntConsumer<Object> n) -> n.accept(ARG, 1),
+            c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<ObjLongConsumer<Object>,
+            ThrowingObjLongConsumer<Object>,
+            ObjLongConsumerChainer<Object>>family("objLongConsumer",
+            Throwing::objLongConsumer,
+            (ThrowingObjLongConsumer<Object>) (t, value) -> { },
+            (t, value) -> { throw CHECKED; },
+            (ObjLongConsumer<Object> n) -> n.accept(ARG, 1L),
+            c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<Predicate<Object>,
+            ThrowingPredicate<Object>,
+            PredicateChainer<Object>>family("predicate",
+            Throwing::predicate,
+            (ThrowingPredicate<Object>) t -> true,
+            t -> { throw CHECKED; },
+            (Predicate<Object> n) -> n.test(ARG), c -> c.orReturnFalse()));
+        FAMILIES.add(family("runnable", Throwing::runnable,
+            (ThrowingRunnable) () -> { },
+            () -> { throw CHECKED; },
+            (Runnable n) -> n.run(), c -> c.orDoNothing()));
+        FAMILIES.add(AllocationTest.<Supplier<Object>,
+            ThrowingSupplier<Object>,
+            SupplierChainer<Object>>family("supplier",
+            Throwing::supplier,
+            (ThrowingSupplier<Object>) () -> ARG,
+            () -> { throw CHECKED; },
+            (Supplier<Object> n) -> n.get(), c -> c.orReturn(ARG)));
+        FAMILIES.add(AllocationTest.<ToDoubleFunction<Object>,
+            ThrowingToDoubleFunction<Object>,
+            ToDoubleFunctionChainer<Object>>family("toDoubleFunction",
+            Throwing::toDoubleFunction,
+            (ThrowingToDoubleFunction<Object>) value -> 0.0,
+            value -> { throw CHECKED; },
+            (ToDoubleFunction<Object> n) -> n.applyAsDouble(ARG),
+            c -> c.orReturn(0.0)));
+        FAMILIES.add(AllocationTest.<ToIntFunction<Object>,
+            ThrowingToIntFunction<Object>,
+            ToIntFunctionChainer<Object>>family("toIntFunction",
+            Throwing::toIntFunction,
+            (ThrowingToIntFunction<Object>) value -> 0,
+            value -> { throw CHECKED; },
+            (ToIntFunction<Object> n) -> n.applyAsInt(ARG),
+            c -> c.orReturn(0)));
+        FAMILIES.add(AllocationTest.<ToLongFunction<Object>,
+            ThrowingToLongFunction<Object>,
+            ToLongFunctionChainer<Object>>family("toLongFunction",
+            Throwing::toLongFunction,
+            (ThrowingToLongFunction<Object>) value -> 0L,
+            value -> { throw CHECKED; },
+            (ToLongFunction<Object> n) -> n.applyAsLong(ARG),
+            c -> c.orReturn(0L)));
+        FAMILIES.add(AllocationTest.<UnaryOperator<Object>,
+            ThrowingUnaryOperator<Object>,
+            UnaryOperatorChainer<Object>>family("unaryOperator",
+            Throwing::unaryOperator,
+            (ThrowingUnaryOperator<Object>) t -> ARG,
+            t -> { throw CHECKED; },
+            (UnaryOperator<Object> n) -> n.apply(ARG), c -> c.orReturn(ARG)));
+    }
+
+    private com.sun.management.ThreadMXBean bean;
+
+    @BeforeClass
+    public void initBean()
+    {
+        final java.lang.management.ThreadMXBean threadBean
+            = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean))
+            throw new SkipException("allocation counters not available");
+        bean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!bean.isThreadAllocatedMemorySupported())
+            throw new SkipException("allocation counters not supported");
+        bean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @BeforeMethod
+    public void disableStackTraces()
+    {
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.NONE);
+    }
+
+    @AfterMethod
+    public void resetStackTraces()
+    {
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.FULL);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> successPaths()
+    {
+        final List<Object[]> list = new ArrayList<>();
+        FAMILIES.forEach(family -> family.addSuccessPaths(list));
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "successPaths")
+    public void successPathDoesNotAllocate(final String description,
+        final Runnable operation)
+    {
+        assertThat(bytesPerOperation(operation)).as(description)
+            .isLessThanOrEqualTo(TOLERANCE);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> recoveringFailurePaths()
+    {
+        final List<Object[]> list = new ArrayList<>();
+        FAMILIES.forEach(family -> family.addRecoveringFailurePaths(list));
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "recoveringFailurePaths")
+    public void recoveringFailurePathDoesNotAllocate(final String description,
+        final Runnable operation)
+    {
+        assertThat(bytesPerOperation(operation)).as(description)
+            .isLessThanOrEqualTo(TOLERANCE);
+    }
+
+    @DataProvider
+    public Iterator<Object[]> wrappingFailurePaths()
+    {
+        final List<Object[]> list = new ArrayList<>();
+        FAMILIES.forEach(family -> family.addWrappingFailurePaths(list));
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "wrappingFailurePaths")
+    public void wrappingFailurePathOnlyAllocatesTheWrapper(
+        final String description, final Runnable operation)
+    {
+        assertThat(bytesPerOperation(operation)).as(description)
+            .isLessThanOrEqualTo(WRAPPER_SIZE);
+    }
+
+    private double bytesPerOperation(final Runnable operation)
+    {
+        for (int i = 0; i < WARMUP; i++)
+            run(operation);
+
+        final long id = Thread.currentThread().getId();
+        final long before = bean.getThreadAllocatedBytes(id);
+        for (int i = 0; i < ITERATIONS; i++)
+            run(operation);
+        final long after = bean.getThreadAllocatedBytes(id);
+
+        return (double) (after - before) / ITERATIONS;
+    }
+
+    @SuppressWarnings("OverlyBroadCatchBlock")
+    private static void run(final Runnable operation)
+    {
+        try {
+            operation.run();
+        } catch (Throwable ignored) {
+            // expected on some failure paths
+        }
+    }
+
+    /*
+     * Exception class which can be built without a stack trace
+     */
+    public static final class StacklessException
+        extends RuntimeException
+    {
+        public StacklessException(final String message, final Throwable cause,
+            final boolean enableSuppression, final boolean writableStackTrace)
+        {
+            super(message, cause, enableSuppression, writableStackTrace);
+        }
+    }
+
+    private static <N, T extends N, C extends Chainer<N, T, C>> Family<N, T, C>
+        family(final String name, final Function<T, C> factory,
+            final T success, final T failure, final Consumer<N> invoker,
+            final Function<C, N> orReturn)
+    {
+        return new Family<>(name, factory, success, failure, invoker,
+            orReturn);
+    }
+
+    private static final class Family<N, T extends N,
+        C extends Chainer<N, T, C>>
+    {
+        private final String name;
+        private final Function<T, C> factory;
+        private final T success;
+        private final T failure;
+        private final Consumer<N> invoker;
+        private final Function<C, N> orReturn;
+
+        private Family(final String name, final Function<T, C> factory,
+            final T success, final T failure, final Consumer<N> invoker,
+            final Function<C, N> orReturn)
+        {
+            this.name = name;
+            this.factory = factory;
+            this.success = success;
+            this.failure = failure;
+            this.invoker = invoker;
+            this.orReturn = orReturn;
+        }
+
+        private void addSuccessPaths(final List<Object[]> list)
+        {
+            add(list, "apply", asNonThrowing(factory.apply(success)));
+            add(list, "orTryWith", asNonThrowing(
+                factory.apply(success).orTryWith(failure)));
+            add(list, "orThrow",
+                factory.apply(success).orThrow(StacklessException.class));
+            add(list, "fallbackTo", factory.apply(success).fallbackTo(success));
+            add(list, "sneakyThrow", factory.apply(success).sneakyThrow());
+            add(list, "orReturn", orReturn.apply(factory.apply(success)));
+        }
+
+        private void addRecoveringFailurePaths(final List<Object[]> list)
+        {
+            add(list, "orTryWith", asNonThrowing(
+                factory.apply(failure).orTryWith(success)));
+            add(list, "fallbackTo", factory.apply(failure).fallbackTo(success));
+            add(list, "sneakyThrow", factory.apply(failure).sneakyThrow());
+            add(list, "orReturn", orReturn.apply(factory.apply(failure)));
+        }
+
+        private void addWrappingFailurePaths(final List<Object[]> list)
+        {
+            add(list, "apply", asNonThrowing(factory.apply(failure)));
+            add(list, "orThrow",
+                factory.apply(failure).orThrow(StacklessException.class));
+        }
+
+        /*
+         * All chainers implement their throwing interface, which extends the
+         * non throwing one
+         */
+        @SuppressWarnings("unchecked")
+        private N asNonThrowing(final C chainer)
+        {
+            return (N) chainer;
+        }
+
+        private void add(final List<Object[]> list, final String policy,
+            final N instance)
+        {
+            final Runnable operation = () -> invoker.accept(instance);
+            list.add(new Object[] { name + '/' + policy, operation });
+        }
+    }
+}
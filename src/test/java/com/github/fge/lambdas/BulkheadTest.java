@@ -0,0 +1,131 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class BulkheadTest
+{
+    @Test
+    public void fullBulkheadRejectsImmediatelyTest()
+        throws InterruptedException
+    {
+        final Bulkhead bulkhead = new Bulkhead(1);
+        final Holder holder = new Holder(bulkhead);
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> i)
+            .bulkhead(bulkhead).orReturn(-1);
+
+        holder.start();
+        try {
+            assertThat(f.apply(1)).isEqualTo(-1);
+            assertThat(bulkhead.getRejections()).isEqualTo(1L);
+        } finally {
+            holder.release();
+        }
+
+        assertThat(f.apply(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void permitIsReleasedOnFailureTest()
+    {
+        final Bulkhead bulkhead = new Bulkhead(1);
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            }).bulkhead(bulkhead).orReturn(-1);
+
+        f.apply(1);
+        f.apply(1);
+
+        assertThat(bulkhead.getRejections()).isEqualTo(0L);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void boundedWaitRejectsWithCheckedExceptionTest()
+        throws InterruptedException
+    {
+        final Bulkhead bulkhead = new Bulkhead(1, Duration.ofMillis(10L));
+        final Holder holder = new Holder(bulkhead);
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> i).bulkhead(bulkhead);
+
+        holder.start();
+        try {
+            f.apply(1);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(e.getCause())
+                .isExactlyInstanceOf(BulkheadFullException.class);
+        } finally {
+            holder.release();
+        }
+    }
+
+    @Test
+    public void boundedWaitTakesReleasedPermitTest()
+        throws InterruptedException
+    {
+        final Bulkhead bulkhead = new Bulkhead(1, Duration.ofSeconds(10L));
+        final Holder holder = new Holder(bulkhead);
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> i).bulkhead(bulkhead);
+
+        holder.start();
+        final Thread releaser = new Thread(holder::release);
+        releaser.start();
+
+        assertThat(f.apply(1)).isEqualTo(1);
+        releaser.join();
+        assertThat(bulkhead.getRejections()).isEqualTo(0L);
+    }
+
+    /*
+     * Holds the only permit of a bulkhead until released
+     */
+    private static final class Holder
+    {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final Thread thread;
+
+        private Holder(final Bulkhead bulkhead)
+        {
+            final Runnable runnable = Throwing.runnable(() -> {
+                entered.countDown();
+                released.await();
+            }).bulkhead(bulkhead);
+            thread = new Thread(runnable);
+        }
+
+        private void start()
+            throws InterruptedException
+        {
+            thread.start();
+            entered.await();
+        }
+
+        private void release()
+        {
+            released.countDown();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ChainerMetricsTest
+{
+    private static final ThrowingFunction<Integer, Integer> ODD = i -> {
+        if (i % 2 == 0)
+            throw new IOException();
+        return i;
+    };
+
+    private static final ThrowingFunction<Integer, Integer> NOT_FOUR = i -> {
+        if (i % 4 == 0)
+            throw new IOException();
+        return -i;
+    };
+
+    @Test
+    public void sameNameReturnsSameMetricsTest()
+    {
+        assertThat(ChainerMetrics.named("same"))
+            .isSameAs(ChainerMetrics.named("same"));
+    }
+
+    @Test
+    public void instrumentedChainIsCountedTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(ODD)
+            .orTryWith(NOT_FOUR).instrumented("counted")
+            .fallbackTo(i -> 0);
+
+        for (int i = 0; i < 8; i++)
+            f.apply(i);
+
+        final ChainerMetrics.Snapshot snapshot
+            = ChainerMetrics.named("counted").get();
+
+        assertThat(snapshot.getInvocations()).isEqualTo(8L);
+        assertThat(snapshot.getSuccesses()).isEqualTo(6L);
+        assertThat(snapshot.getFailures()).isEqualTo(2L);
+        assertThat(snapshot.getAlternatives()).isEqualTo(4L);
+        assertThat(snapshot.getFallbacks()).isEqualTo(2L);
+
+        assertThat(ChainerMetrics.snapshot()).containsKey("counted");
+    }
+
+    @Test
+    public void compiledChainIsCountedTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(ODD)
+            .orTryWith(NOT_FOUR).instrumented("compiled").compiled()
+            .fallbackTo(i -> 0);
+
+        for (int i = 0; i < 8; i++)
+            f.apply(i);
+
+        final ChainerMetrics.Snapshot snapshot
+            = ChainerMetrics.named("compiled").get();
+
+        assertThat(snapshot.getInvocations()).isEqualTo(8L);
+        assertThat(snapshot.getFailures()).isEqualTo(2L);
+        assertThat(snapshot.getAlternatives()).isEqualTo(4L);
+        assertThat(snapshot.getFallbacks()).isEqualTo(2L);
+    }
+
+    @Test
+    public void metricsAreKeptByFurtherChainingTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(ODD)
+            .instrumented("kept").orTryWith(NOT_FOUR)
+            .on(IOException.class).orReturn(0);
+
+        for (int i = 0; i < 8; i++)
+            f.apply(i);
+
+        final ChainerMetrics.Snapshot snapshot
+            = ChainerMetrics.named("kept").get();
+
+        assertThat(snapshot.getInvocations()).isEqualTo(8L);
+        assertThat(snapshot.getFailures()).isEqualTo(4L);
+        assertThat(snapshot.getAlternatives()).isEqualTo(4L);
+        assertThat(snapshot.getFallbacks()).isEqualTo(2L);
+    }
+
+    @Test
+    public void registeredMetricsAreExposedOverJmxTest()
+        throws Exception
+    {
+        final Function<Integer, Integer> f = Throwing.function(ODD)
+            .instrumented("exposed").orReturn(0);
+
+        for (int i = 0; i < 4; i++)
+            f.apply(i);
+
+        final ChainerMetrics metrics = ChainerMetrics.named("exposed");
+        final ObjectName objectName = metrics.registerMXBean();
+
+        assertThat(metrics.registerMXBean()).isEqualTo(objectName);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        assertThat(server.getAttribute(objectName, "Invocations"))
+            .isEqualTo(4L);
+        assertThat(server.getAttribute(objectName, "Failures"))
+            .isEqualTo(2L);
+        assertThat(server.getAttribute(objectName, "Fallbacks"))
+            .isEqualTo(2L);
+        assertThat(server.getAttribute(objectName, "LastFailureClass"))
+            .isEqualTo(IOException.class.getName());
+        assertThat(server.getAttribute(objectName, "FailuresPerSecond"))
+            .isEqualTo(2.0 / 60);
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.fge.lambdas;
 
+import com.github.fge.lambdas.helpers.MyException;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -51,6 +52,19 @@ public final class ChainerRethrowTest
         }
     }
 
+    /*
+     * Exception class with a constructor allowing to disable the stack trace
+     */
+    public static final class FastException
+        extends RuntimeException
+    {
+        public FastException(final String message, final Throwable cause,
+            final boolean enableSuppression, final boolean writableStackTrace)
+        {
+            super(message, cause, enableSuppression, writableStackTrace);
+        }
+    }
+
     @DataProvider
     public Iterator<Object[]> brokenThrowables()
     {
@@ -76,4 +90,58 @@ public final class ChainerRethrowTest
             assertThat(suppressed[0]).isSameAs(THROWABLE);
         }
     }
+
+    @DataProvider
+    public Iterator<Object[]> unpreparableThrowables()
+    {
+        final List<Object[]> list = new ArrayList<>();
+
+        list.add(new Object[] { PrivateException.class });
+        list.add(new Object[] { NoConstructorException.class });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "unpreparableThrowables")
+    public void prepareFailsWithAppropriateException(
+        final Class<? extends RuntimeException> c)
+    {
+        try {
+            Chainer.prepare(c);
+            shouldHaveThrown(Chainer.InstantiationException.class);
+        } catch (Chainer.InstantiationException e) {
+            assertThat(e.getCause())
+                .isInstanceOf(ReflectiveOperationException.class);
+        }
+    }
+
+    @Test
+    public void preparedClassIsUsedByRethrow()
+    {
+        Chainer.prepare(MyException.class);
+
+        final RuntimeException e = Chainer.rethrow(MyException.class,
+            THROWABLE);
+
+        assertThat(e).isExactlyInstanceOf(MyException.class);
+        assertThat(e.getCause()).isSameAs(THROWABLE);
+    }
+
+    @Test
+    public void fullConstructorIsPreferredAndObeysPolicy()
+    {
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.NONE);
+
+        try {
+            final RuntimeException e = Chainer.rethrow(FastException.class,
+                THROWABLE);
+
+            assertThat(e).isExactlyInstanceOf(FastException.class);
+            assertThat(e.getCause()).isSameAs(THROWABLE);
+            assertThat(e.getMessage()).isEqualTo(THROWABLE.toString());
+            assertThat(e.getStackTrace()).isEmpty();
+        } finally {
+            ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.FULL);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.github.fge.lambdas;
 import com.github.fge.lambdas.helpers.MyException;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.util.concurrent.Callable;
 
 import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
@@ -81,6 +82,17 @@ public abstract class ChainerTest<N, T extends N, C extends Chainer<N, T, C>, R>
         verifyErrorThrow(callable);
     }
 
+    @Test
+    public final void throwingIsWholeChainTest()
+    {
+        final T throwing = getThrowing();
+        final C chain = getChain(throwing);
+        final C alternate = chain.orTryWith(getThrowing());
+
+        assertThat(chain.throwing).isSameAs(throwing);
+        assertThat(alternate.throwing).isSameAs(alternate);
+    }
+
     @Test
     public final void fallbackToTest()
         throws Throwable
@@ -123,6 +135,51 @@ public abstract class ChainerTest<N, T extends N, C extends Chainer<N, T, C>, R>
         verifyErrorThrow(callable);
     }
 
+    @Test
+    public final void orThrowFactoryTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final T chain = getChain(throwing).orThrow(MyException::new);
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, MyException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void orTranslateTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final T chain = getChain(throwing).orTranslate();
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        ExceptionTranslations.register(Exception.class, MyException::new);
+        try {
+            verifyCheckedRethrow(callable, MyException.class);
+        } finally {
+            ExceptionTranslations.unregister(Exception.class);
+        }
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
     @Test
     public final void sneakyThrowTest()
         throws Throwable
@@ -143,6 +200,229 @@ public abstract class ChainerTest<N, T extends N, C extends Chainer<N, T, C>, R>
         verifyErrorThrow(callable);
     }
 
+    @Test
+    public final void onMatchingExceptionTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+        final N fallback = getFallback();
+        configureFallback(fallback);
+
+        final N chain = getChain(throwing).on(IOException.class,
+            Exception.class).fallbackTo(fallback);
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        assertThat(callable.call()).isEqualTo(ret2);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void onNonMatchingExceptionTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+        final N fallback = getFallback();
+        configureFallback(fallback);
+
+        final N chain = getChain(throwing).on(IOException.class)
+            .fallbackTo(fallback);
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, ThrownByLambdaException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void onNonMatchingExceptionSkipsAlternativesTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+        final T alternate = getThrowing();
+        configureAlternate(alternate);
+
+        final C chain = getChain(throwing).on(IOException.class)
+            .orTryWith(alternate);
+
+        final Callable<R> callable = toCallable((N) chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, ThrownByLambdaException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void onNonMatchingExceptionOrThrowTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final T chain = getChain(throwing).on(IOException.class)
+            .orThrow(MyException.class);
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, MyException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void onNonMatchingExceptionSneakyThrowTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final N chain = getChain(throwing).on(IOException.class)
+            .sneakyThrow();
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifySneakyThrow(callable);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void timedTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final String name = getClass().getName();
+        final C chain = getChain(throwing).timed(name);
+
+        final Callable<R> callable = toCallable((N) chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, ThrownByLambdaException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+
+        final ChainerTimer timer = ChainerTimer.named(name);
+        assertThat(timer.getSuccesses().snapshot().getCount()).isEqualTo(1L);
+        assertThat(timer.getFailures().snapshot().getCount()).isEqualTo(3L);
+    }
+
+    @Test
+    public final void specializedTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final C chain = getChain(throwing);
+        final N specialized = chain.specialized();
+
+        assertThat(specialized.getClass().getName())
+            .startsWith(chain.getClass().getName() + "$Specialized/");
+
+        final Callable<R> callable = toCallable(specialized);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, ThrownByLambdaException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void compiledFallbackToTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+        final N fallback = getFallback();
+        configureFallback(fallback);
+
+        final N chain = getChain(throwing).compiled().fallbackTo(fallback);
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        assertThat(callable.call()).isEqualTo(ret2);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void compiledOrThrowTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final N chain = getChain(throwing).compiled()
+            .orThrow(MyException.class);
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifyCheckedRethrow(callable, MyException.class);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
+    @Test
+    public final void compiledSneakyThrowTest()
+        throws Throwable
+    {
+        final T throwing = getThrowing();
+        configureFull(throwing);
+
+        final N chain = getChain(throwing).compiled().sneakyThrow();
+
+        final Callable<R> callable = toCallable(chain);
+
+        assertThat(callable.call()).isEqualTo(ret1);
+
+        verifySneakyThrow(callable);
+
+        verifyUncheckedThrow(callable);
+
+        verifyErrorThrow(callable);
+    }
+
     @SuppressWarnings("OverlyBroadCatchBlock")
     protected final void verifyCheckedRethrow(final Callable<R> callable,
         final Class<? extends Throwable> exceptionClass)
@@ -0,0 +1,125 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.operators.ThrowingLongUnaryOperator;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class CircuitBreakerTest
+{
+    private static final CircuitBreaker.Config CONFIG = CircuitBreaker.config()
+        .minimumCalls(4).failureRateThreshold(50)
+        .openDuration(Duration.ofSeconds(5L)).halfOpenCalls(2);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private CircuitBreaker breaker;
+    private LongUnaryOperator operator;
+
+    @BeforeMethod
+    public void init()
+    {
+        clock.set(0L);
+        failing.set(false);
+        calls.set(0);
+        breaker = new CircuitBreaker(CONFIG, clock::get);
+
+        final ThrowingLongUnaryOperator remote = l -> {
+            calls.incrementAndGet();
+            if (failing.get())
+                throw new IOException();
+            return l;
+        };
+
+        operator = Throwing.longUnaryOperator(remote).circuitBreaker(breaker)
+            .orReturn(-1L);
+    }
+
+    @Test
+    public void breakerOpensAtFailureRateTest()
+    {
+        operator.applyAsLong(1L);
+        operator.applyAsLong(1L);
+        failing.set(true);
+        operator.applyAsLong(1L);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        operator.applyAsLong(1L);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void openBreakerSkipsInvocationTest()
+    {
+        open();
+        failing.set(false);
+
+        assertThat(operator.applyAsLong(1L)).isEqualTo(-1L);
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void openBreakerRejectsWithCheckedExceptionTest()
+    {
+        open();
+
+        final LongUnaryOperator f = Throwing.longUnaryOperator(l -> l)
+            .circuitBreaker(breaker);
+
+        try {
+            f.applyAsLong(1L);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(e.getCause())
+                .isExactlyInstanceOf(CircuitBreakerOpenException.class);
+        }
+    }
+
+    @Test
+    public void successfulTrialsCloseBreakerTest()
+    {
+        open();
+        failing.set(false);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5L));
+
+        assertThat(operator.applyAsLong(1L)).isEqualTo(1L);
+        assertThat(breaker.getState())
+            .isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(operator.applyAsLong(2L)).isEqualTo(2L);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void failedTrialReopensBreakerTest()
+    {
+        open();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5L));
+
+        assertThat(operator.applyAsLong(1L)).isEqualTo(-1L);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(calls.get()).isEqualTo(5);
+    }
+
+    private void open()
+    {
+        failing.set(true);
+        for (int i = 0; i < 4; i++)
+            operator.applyAsLong(1L);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
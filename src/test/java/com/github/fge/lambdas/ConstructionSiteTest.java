@@ -0,0 +1,154 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ConstructionSiteTest
+{
+    @BeforeMethod
+    public void enableCapture()
+    {
+        ConstructionSite.setEnabled(true);
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.NONE);
+    }
+
+    @AfterMethod
+    public void disableCapture()
+    {
+        ConstructionSite.setEnabled(false);
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.FULL);
+    }
+
+    @Test
+    public void defaultPolicyCarriesSiteTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            });
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(e.getStackTrace()).isEmpty();
+            assertSite(e, "defaultPolicyCarriesSiteTest");
+        }
+    }
+
+    @Test
+    public void orThrowCarriesSiteThroughGuardsTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            }).on(IOException.class).orThrow(IllegalStateException.class);
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertSite(e, "orThrowCarriesSiteThroughGuardsTest");
+        }
+    }
+
+    @Test
+    public void compiledOrThrowCarriesSiteTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            }).compiled().orThrow(IllegalStateException.class);
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertSite(e, "compiledOrThrowCarriesSiteTest");
+        }
+    }
+
+    @Test
+    public void unmatchedExceptionCarriesSiteTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            }).on(InterruptedException.class).orReturn(0);
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(e.getStackTrace()).isEmpty();
+            assertSite(e, "unmatchedExceptionCarriesSiteTest");
+        }
+    }
+
+    @Test
+    public void failuresDoNotShareSitesTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            });
+
+        final Throwable first = failure(f);
+        final Throwable second = failure(f);
+
+        assertThat(first.getSuppressed()).hasSize(1);
+        assertThat(second.getSuppressed()).hasSize(1);
+        assertThat(first.getSuppressed()[0])
+            .isNotSameAs(second.getSuppressed()[0]);
+        assertThat(ConstructionSite.of(first))
+            .isEqualTo(ConstructionSite.of(second));
+    }
+
+    @Test
+    public void noSiteIfCaptureIsDisabledTest()
+    {
+        ConstructionSite.setEnabled(false);
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            });
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(ConstructionSite.of(e)).isNull();
+        }
+    }
+
+    private static Throwable failure(final Function<Integer, Integer> f)
+    {
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+            return null;
+        } catch (ThrownByLambdaException e) {
+            return e;
+        }
+    }
+
+    private static void assertSite(final Throwable throwable,
+        final String methodName)
+    {
+        final StackTraceElement site = ConstructionSite.of(throwable);
+
+        assertThat(site).isNotNull();
+        assertThat(site.getClassName())
+            .isEqualTo(ConstructionSiteTest.class.getName());
+        assertThat(site.getMethodName()).isEqualTo(methodName);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.fge.lambdas;
+
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ExceptionFilterTest
+{
+    @Test
+    public void filtersAreSharedBySetOfClassesTest()
+    {
+        final ExceptionFilter filter = ExceptionFilter.of(new Class<?>[] {
+            NoSuchFileException.class, FileNotFoundException.class });
+
+        assertThat(ExceptionFilter.of(new Class<?>[] {
+            FileNotFoundException.class, NoSuchFileException.class,
+            FileNotFoundException.class })).isSameAs(filter);
+        assertThat(ExceptionFilter.of(new Class<?>[] {
+            NoSuchFileException.class })).isNotSameAs(filter);
+    }
+
+    @Test
+    public void chainersShareFiltersTest()
+    {
+        final Chainer<?, ?, ?> chainer1 = Throwing.runnable(() -> {})
+            .on(IOException.class, InterruptedException.class);
+        final Chainer<?, ?, ?> chainer2 = Throwing.supplier(() -> 0)
+            .on(InterruptedException.class, IOException.class);
+
+        assertThat(chainer1.filter).isSameAs(chainer2.filter);
+    }
+
+    @Test
+    public void subclassesMatchTest()
+    {
+        final ExceptionFilter filter = ExceptionFilter.of(new Class<?>[] {
+            FileNotFoundException.class, NoSuchFileException.class });
+
+        assertThat(filter.matches(new FileNotFoundException())).isTrue();
+        assertThat(filter.matches(new NoSuchFileException("foo"))).isTrue();
+        assertThat(filter.matches(new AccessDeniedException("foo")))
+            .isFalse();
+        assertThat(filter.matches(new IOException())).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.helpers.MyException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ExceptionTranslationsTest
+{
+    @AfterMethod
+    public void unregisterAll()
+    {
+        ExceptionTranslations.unregister(IOException.class);
+        ExceptionTranslations.unregister(FileNotFoundException.class);
+    }
+
+    @Test
+    public void unregisteredClassIsWrappedTest()
+    {
+        final IOException e = new IOException();
+
+        final RuntimeException translated = ExceptionTranslations.translate(e);
+
+        assertThat(translated).isExactlyInstanceOf(
+            ThrownByLambdaException.class);
+        assertThat(translated.getCause()).isSameAs(e);
+    }
+
+    @Test
+    public void subclassUsesNearestTranslationTest()
+    {
+        ExceptionTranslations.register(IOException.class,
+            UncheckedIOException::new);
+
+        final FileNotFoundException e = new FileNotFoundException();
+
+        final RuntimeException translated = ExceptionTranslations.translate(e);
+
+        assertThat(translated).isExactlyInstanceOf(UncheckedIOException.class);
+        assertThat(translated.getCause()).isSameAs(e);
+
+        ExceptionTranslations.register(FileNotFoundException.class,
+            MyException::new);
+
+        assertThat(ExceptionTranslations.translate(e))
+            .isExactlyInstanceOf(MyException.class);
+        assertThat(ExceptionTranslations.translate(new IOException()))
+            .isExactlyInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    public void unregisterRestoresDefaultTest()
+    {
+        final IOException e = new IOException();
+
+        ExceptionTranslations.register(IOException.class,
+            UncheckedIOException::new);
+        assertThat(ExceptionTranslations.translate(e))
+            .isExactlyInstanceOf(UncheckedIOException.class);
+
+        ExceptionTranslations.unregister(IOException.class);
+        assertThat(ExceptionTranslations.translate(e))
+            .isExactlyInstanceOf(ThrownByLambdaException.class);
+    }
+}
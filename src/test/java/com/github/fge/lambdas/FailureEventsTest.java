@@ -0,0 +1,157 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.FunctionChainer;
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FailureEventsTest
+{
+    private static final String EVENT = "com.github.fge.lambdas.ChainerFailure";
+
+    private final ThrowingFunction<Integer, Integer> failing = i -> {
+        throw new IOException();
+    };
+
+    private final ThrowingFunction<Integer, Integer> alsoFailing = i -> {
+        throw new EOFException();
+    };
+
+    @Test
+    public void recoveredFailureIsRecordedTest()
+        throws IOException
+    {
+        final Function<Integer, Integer> f = Throwing.function(failing)
+            .instrumented("events.recovered").orReturn(0);
+
+        final List<RecordedEvent> events
+            = record("events.recovered", () -> f.apply(0));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("policy")).isEqualTo("orReturn");
+        assertThat(events.get(0).getClass("exceptionClass").getName())
+            .isEqualTo(IOException.class.getName());
+    }
+
+    @Test
+    public void failedAlternativeIsRecordedTest()
+        throws IOException
+    {
+        final Function<Integer, Integer> f = Throwing.function(failing)
+            .orTryWith(i -> i).instrumented("events.alternative");
+
+        final List<RecordedEvent> events
+            = record("events.alternative", () -> f.apply(0));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("policy")).isEqualTo("orTryWith");
+        assertThat(events.get(0).getClass("exceptionClass").getName())
+            .isEqualTo(IOException.class.getName());
+        assertThat(events.get(0).getLong("attemptDuration")).isZero();
+    }
+
+    @Test
+    public void rethrownFailureIsNeverRecordedTest()
+        throws IOException
+    {
+        final FunctionChainer<Integer, Integer> f = Throwing.function(failing)
+            .orTryWith(alsoFailing).instrumented("events.rethrown");
+
+        final List<RecordedEvent> events = record("events.rethrown", () -> {
+            for (int i = 0; i < 2; i++)
+                try {
+                    f.apply(0);
+                    shouldHaveThrown(ThrownByLambdaException.class);
+                } catch (ThrownByLambdaException ignored) {
+                    // expected
+                }
+        });
+
+        /*
+         * Only the failures of the first alternative are hidden, by the
+         * second one; the failures of the second one are rethrown.
+         */
+        assertThat(events).hasSize(2);
+        for (final RecordedEvent event: events) {
+            assertThat(event.getString("policy")).isEqualTo("orTryWith");
+            assertThat(event.getClass("exceptionClass").getName())
+                .isEqualTo(IOException.class.getName());
+        }
+    }
+
+    @Test
+    public void attemptStartedAtNanoTimeZeroIsTimedTest()
+        throws IOException
+    {
+        final ChainerMetrics metrics = ChainerMetrics.named("events.zero");
+        final IOException exception = new IOException();
+
+        final List<RecordedEvent> events = record("events.zero", () -> {
+            metrics.guard().onFailure(0L, exception);
+            metrics.fallbackTaken("orReturn", exception);
+        });
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getLong("attemptDuration")).isNotZero();
+    }
+
+    @Test
+    public void defaultSettingsDoNotRecordTest()
+        throws IOException, ParseException
+    {
+        final Function<Integer, Integer> f = Throwing.function(failing)
+            .instrumented("events.default").orReturn(0);
+
+        final Recording recording
+            = new Recording(Configuration.getConfiguration("default"));
+
+        assertThat(record(recording, "events.default", () -> f.apply(0)))
+            .isEmpty();
+    }
+
+    private static List<RecordedEvent> record(final String chainer,
+        final Runnable runnable)
+        throws IOException
+    {
+        final Recording recording = new Recording();
+        recording.enable(EVENT);
+        return record(recording, chainer, runnable);
+    }
+
+    private static List<RecordedEvent> record(final Recording recording,
+        final String chainer, final Runnable runnable)
+        throws IOException
+    {
+        final Path path = Files.createTempFile("events", ".jfr");
+        try {
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(path);
+            final List<RecordedEvent> ret = new ArrayList<>();
+            for (final RecordedEvent event: RecordingFile.readAllEvents(path))
+                if (EVENT.equals(event.getEventType().getName())
+                    && chainer.equals(event.getString("chainer")))
+                    ret.add(event);
+            return ret;
+        } finally {
+            recording.close();
+            Files.delete(path);
+        }
+    }
+}
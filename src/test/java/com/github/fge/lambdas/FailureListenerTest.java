@@ -0,0 +1,96 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.FunctionChainer;
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import com.github.fge.lambdas.helpers.RecordingFailureListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static com.github.fge.lambdas.helpers.RecordingFailureListener.outcomesOf;
+import static com.github.fge.lambdas.helpers.RecordingFailureListener.sourcesOf;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FailureListenerTest
+{
+    @BeforeMethod
+    public void init()
+    {
+        RecordingFailureListener.clear();
+    }
+
+    @Test
+    public void recoveredFailuresAreReportedTest()
+    {
+        final IOException first = new IOException();
+        final IOException second = new IOException();
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> { throw first; })
+            .orTryWith(i -> { throw second; }).orReturn(0);
+
+        assertThat(f.apply(0)).isEqualTo(0);
+
+        assertThat(sourcesOf(first)).containsExactly(FunctionChainer.class);
+        assertThat(outcomesOf(first)).containsExactly("orTryWith");
+        assertThat(sourcesOf(second)).containsExactly(FunctionChainer.class);
+        assertThat(outcomesOf(second)).containsExactly("orReturn");
+    }
+
+    @Test
+    public void wrappedFailuresAreReportedTest()
+    {
+        final IOException exception = new IOException();
+
+        final ThrowingFunction<Integer, Integer> f = i -> { throw exception; };
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException ignored) {
+            assertThat(sourcesOf(exception)).containsExactly(f.getClass());
+            assertThat(outcomesOf(exception))
+                .containsExactly(FailureListener.WRAPPED);
+        }
+    }
+
+    @Test
+    public void unmatchedFailuresAreReportedTest()
+    {
+        final IOException exception = new IOException();
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> { throw exception; })
+            .on(InterruptedException.class).orReturn(0);
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException ignored) {
+            assertThat(sourcesOf(exception))
+                .containsExactly(FunctionChainer.class);
+            assertThat(outcomesOf(exception))
+                .containsExactly(FailureListener.WRAPPED);
+        }
+    }
+
+    @Test
+    public void compiledPoliciesAreReportedTest()
+    {
+        final IOException first = new IOException();
+        final IOException second = new IOException();
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> { throw first; })
+            .orTryWith(i -> { throw second; }).compiled().orReturn(0);
+
+        assertThat(f.apply(0)).isEqualTo(0);
+
+        assertThat(outcomesOf(first)).containsExactly("orTryWith");
+        assertThat(sourcesOf(second)).containsExactly(FunctionChainer.class);
+        assertThat(outcomesOf(second)).containsExactly("orReturn");
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FailureRecorderTest
+{
+    private static final ThrowingFunction<Integer, Integer> ODD = i -> {
+        if (i % 2 == 0)
+            throw new IOException("even: " + i);
+        return i;
+    };
+
+    @Test
+    public void capacityIsRoundedToPowerOfTwoTest()
+    {
+        assertThat(FailureRecorder.named("rounded", 5).getCapacity())
+            .isEqualTo(8);
+        assertThat(FailureRecorder.named("exact", 16).getCapacity())
+            .isEqualTo(16);
+    }
+
+    @Test
+    public void recordedChainRecordsFailuresTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(ODD)
+            .recorded("recorded").orReturn(0);
+
+        for (int i = 0; i < 4; i++)
+            f.apply(i);
+
+        final FailureRecorder recorder = FailureRecorder.named("recorded");
+        final List<FailureRecorder.Entry> entries = recorder.dump();
+
+        assertThat(recorder.getTotal()).isEqualTo(2L);
+        assertThat(recorder.getOverwrites()).isEqualTo(0L);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0).getExceptionClass())
+            .isSameAs(IOException.class);
+        assertThat(entries.get(0).getMessage()).isEqualTo("even: 0");
+        assertThat(entries.get(1).getMessage()).isEqualTo("even: 2");
+    }
+
+    @Test
+    public void oldestFailuresAreOverwrittenTest()
+    {
+        final FailureRecorder recorder = FailureRecorder.named("overwritten",
+            4);
+
+        for (int i = 0; i < 10; i++)
+            recorder.record(new IOException(Integer.toString(i)));
+
+        final List<FailureRecorder.Entry> entries = recorder.dump();
+
+        assertThat(recorder.getTotal()).isEqualTo(10L);
+        assertThat(recorder.getOverwrites()).isEqualTo(6L);
+        assertThat(entries).hasSize(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(entries.get(i).getSequence()).isEqualTo(i + 6L);
+            assertThat(entries.get(i).getMessage())
+                .isEqualTo(Integer.toString(i + 6));
+        }
+    }
+}
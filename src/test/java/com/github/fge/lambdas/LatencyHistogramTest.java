@@ -0,0 +1,91 @@
+package com.github.fge.lambdas;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class LatencyHistogramTest
+{
+    @DataProvider
+    public Iterator<Object[]> values()
+    {
+        final List<Object[]> list = new ArrayList<>();
+
+        final Random random = new Random(0L);
+        for (int i = 0; i < 20; i++)
+            list.add(new Object[] { (long) i });
+        for (int i = 0; i < 100; i++)
+            list.add(new Object[] {
+                random.nextLong() >>> (1 + random.nextInt(63)) });
+        list.add(new Object[] { Long.MAX_VALUE });
+
+        return list.iterator();
+    }
+
+    @Test(dataProvider = "values")
+    public void bucketContainsValueTest(final long value)
+    {
+        final int index = LatencyHistogram.indexOf(value);
+
+        assertThat(LatencyHistogram.highestValueOf(index))
+            .isGreaterThanOrEqualTo(value);
+        if (index > 0)
+            assertThat(LatencyHistogram.highestValueOf(index - 1))
+                .isLessThan(value);
+    }
+
+    @Test(dataProvider = "values")
+    public void relativeErrorIsBoundedTest(final long value)
+    {
+        final long highest
+            = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+
+        assertThat((double) (highest - value)).isLessThanOrEqualTo(
+            value / 16.0);
+    }
+
+    @Test
+    public void percentilesTest()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long i = 1L; i <= 1000L; i++)
+            histogram.record(i * 1000L);
+
+        final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(1000L);
+        assertThat(snapshot.getValueAtPercentile(50.0))
+            .isBetween(500_000L, 500_000L + 500_000L / 16);
+        assertThat(snapshot.getValueAtPercentile(99.0))
+            .isBetween(990_000L, 990_000L + 990_000L / 16);
+        assertThat(snapshot.getMax())
+            .isBetween(1_000_000L, 1_000_000L + 1_000_000L / 16);
+    }
+
+    @Test
+    public void mergeAndResetTest()
+    {
+        final LatencyHistogram first = new LatencyHistogram();
+        final LatencyHistogram second = new LatencyHistogram();
+
+        first.record(10L);
+        second.record(20L);
+        second.record(-1L);
+
+        final LatencyHistogram.Snapshot merged
+            = first.snapshotAndReset().merge(second.snapshot());
+
+        assertThat(merged.getCount()).isEqualTo(3L);
+        assertThat(merged.getValueAtPercentile(0.0)).isEqualTo(0L);
+        assertThat(merged.getMax()).isEqualTo(20L);
+        assertThat(first.snapshot().getCount()).isZero();
+        assertThat(second.snapshot().getCount()).isEqualTo(2L);
+    }
+}
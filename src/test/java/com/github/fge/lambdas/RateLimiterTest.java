@@ -0,0 +1,140 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.consumers.ThrowingConsumer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class RateLimiterTest
+{
+    private final AtomicLong clock = new AtomicLong();
+
+    private RateLimiter limiter;
+
+    @BeforeMethod
+    public void init()
+    {
+        clock.set(0L);
+        limiter = new RateLimiter(10.0, 5, clock::get);
+    }
+
+    @Test
+    public void burstIsAvailableImmediatelyTest()
+    {
+        for (int i = 0; i < 5; i++)
+            assertThat(limiter.tryAcquire(1)).isTrue();
+
+        assertThat(limiter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    public void bucketIsRefilledAtRateTest()
+    {
+        assertThat(limiter.tryAcquire(5)).isTrue();
+        assertThat(limiter.tryAcquire(1)).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200L));
+
+        assertThat(limiter.tryAcquire(3)).isFalse();
+        assertThat(limiter.tryAcquire(2)).isTrue();
+        assertThat(limiter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    public void bucketDoesNotExceedBurstTest()
+    {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10L));
+
+        assertThat(limiter.tryAcquire(5)).isTrue();
+        assertThat(limiter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    public void fractionalIntervalIsNotRoundedTest()
+    {
+        /*
+         * One permit every 10/7 ns: rounding the interval to a whole number
+         * of nanoseconds would refill the bucket 43% too fast
+         */
+        limiter = new RateLimiter(7e8, 1000, clock::get);
+
+        assertThat(limiter.tryAcquire(1000)).isTrue();
+
+        clock.addAndGet(1001L);
+
+        assertThat(limiter.tryAcquire(700)).isTrue();
+        assertThat(limiter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    public void batchLargerThanBurstIsRejectedTest()
+    {
+        try {
+            limiter.tryAcquire(6);
+            shouldHaveThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException ignored) {
+            assertThat(limiter.tryAcquire(5)).isTrue();
+        }
+    }
+
+    @Test
+    public void nonBlockingChainFallsBackTest()
+    {
+        final List<Integer> sent = new ArrayList<>();
+        final List<Integer> queued = new ArrayList<>();
+
+        final Consumer<Integer> consumer = Throwing.consumer(
+            (ThrowingConsumer<Integer>) sent::add)
+            .rateLimited(limiter, 2, Duration.ZERO).fallbackTo(queued::add);
+
+        for (int i = 0; i < 3; i++)
+            consumer.accept(i);
+
+        assertThat(sent).containsExactly(0, 1);
+        assertThat(queued).containsExactly(2);
+    }
+
+    @Test
+    public void rejectionIsCheckedExceptionTest()
+    {
+        final Consumer<Integer> consumer = Throwing.consumer(
+            (ThrowingConsumer<Integer>) i -> {})
+            .rateLimited(limiter, 5, Duration.ZERO);
+
+        consumer.accept(0);
+
+        try {
+            consumer.accept(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(e.getCause())
+                .isExactlyInstanceOf(RateLimitExceededException.class);
+        }
+    }
+
+    @Test
+    public void boundedWaitReservesPermitsTest()
+    {
+        final Consumer<Integer> consumer = Throwing.consumer(
+            (ThrowingConsumer<Integer>) i -> {})
+            .rateLimited(limiter, 5, Duration.ofSeconds(1L));
+
+        final long start = System.nanoTime();
+        consumer.accept(0);
+        consumer.accept(0);
+        final long elapsed = System.nanoTime() - start;
+
+        assertThat(elapsed).isGreaterThanOrEqualTo(
+            TimeUnit.MILLISECONDS.toNanos(500L));
+        assertThat(limiter.tryAcquire(1)).isFalse();
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import com.github.fge.lambdas.functions.operators.ThrowingLongUnaryOperator;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class RetryPolicyTest
+{
+    private static final RetryPolicy POLICY = RetryPolicy.defaults()
+        .backoff(Duration.ZERO, Duration.ZERO);
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @BeforeMethod
+    public void init()
+    {
+        attempts.set(0);
+    }
+
+    @Test
+    public void failedAttemptsAreRetriedTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                if (attempts.incrementAndGet() < 3)
+                    throw new IOException();
+                return i;
+            }).retry(POLICY).orReturn(-1);
+
+        assertThat(f.apply(1)).isEqualTo(1);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void lastFailureGoesToFallbackTest()
+    {
+        final Function<Integer, Integer> f = failing(new IOException(),
+            POLICY.maxAttempts(4));
+
+        assertThat(f.apply(1)).isEqualTo(-1);
+        assertThat(attempts.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void onlyRetryableExceptionsAreRetriedTest()
+    {
+        final RetryPolicy policy = POLICY.retryOn(FileNotFoundException.class);
+
+        assertThat(failing(new IOException(), policy).apply(1))
+            .isEqualTo(-1);
+        assertThat(attempts.get()).isEqualTo(1);
+
+        attempts.set(0);
+        assertThat(failing(new FileNotFoundException(), policy).apply(1))
+            .isEqualTo(-1);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void unmatchedExceptionsAreNotRetriedTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                attempts.incrementAndGet();
+                throw new IOException();
+            }).on(FileNotFoundException.class).retry(POLICY)
+            .orThrow(IllegalStateException.class);
+
+        try {
+            f.apply(1);
+            shouldHaveThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertThat(e.getCause()).isExactlyInstanceOf(IOException.class);
+            assertThat(attempts.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void rejectionsAreNotRetriedByDefaultTest()
+    {
+        final Exception rejection = new BulkheadFullException(new Bulkhead(1));
+
+        assertThat(failing(rejection, POLICY).apply(1)).isEqualTo(-1);
+        assertThat(attempts.get()).isEqualTo(1);
+
+        attempts.set(0);
+        final RetryPolicy policy = POLICY.retryOn(BulkheadFullException.class);
+        assertThat(failing(rejection, policy).apply(1)).isEqualTo(-1);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void uncheckedExceptionsAreNotRetriedTest()
+    {
+        final Function<Integer, Integer> f
+            = failing(new IllegalStateException(), POLICY);
+
+        try {
+            f.apply(1);
+            shouldHaveThrown(IllegalStateException.class);
+        } catch (IllegalStateException ignored) {
+            assertThat(attempts.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void budgetCapsRetriesTest()
+    {
+        final RetryBudget budget = new RetryBudget(10, 1);
+        final Function<Integer, Integer> f = failing(new IOException(),
+            POLICY.budget(budget));
+
+        f.apply(1);
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(budget.getAvailableRetries()).isEqualTo(0L);
+
+        for (int i = 0; i < 9; i++)
+            f.apply(1);
+        assertThat(attempts.get()).isEqualTo(11);
+
+        f.apply(1);
+        assertThat(attempts.get()).isEqualTo(13);
+    }
+
+    @Test
+    public void interruptedThreadStopsRetryingTest()
+    {
+        final Function<Integer, Integer> f = failing(new IOException(),
+            POLICY.backoff(Duration.ofHours(1L), Duration.ofHours(1L))
+                .jitter(0.0));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(f.apply(1)).isEqualTo(-1);
+            assertThat(attempts.get()).isEqualTo(1);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+    }
+
+    @Test
+    public void primitiveChainersAreRetriedTest()
+    {
+        final LongUnaryOperator f = Throwing.longUnaryOperator(
+            (ThrowingLongUnaryOperator) l -> {
+                if (attempts.incrementAndGet() < 2)
+                    throw new IOException();
+                return l + 1L;
+            }).retry(POLICY).orReturn(-1L);
+
+        assertThat(f.applyAsLong(1L)).isEqualTo(2L);
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+
+    private Function<Integer, Integer> failing(final Exception exception,
+        final RetryPolicy policy)
+    {
+        return Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                attempts.incrementAndGet();
+                throw exception;
+            }).retry(policy).orReturn(-1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.fge.lambdas;
+
+import com.github.fge.lambdas.functions.ThrowingFunction;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class SpecializerTest
+{
+    @Test
+    public void specializationIsSupportedTest()
+    {
+        assertThat(Chainer.isSpecializationSupported()).isTrue();
+    }
+
+    @Test
+    public void specializedInstancesHaveDistinctClassesTest()
+    {
+        final Function<Integer, Integer> f1 = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> i + 1).specialized();
+        final Function<Integer, Integer> f2 = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> i + 2).specialized();
+
+        assertThat(f1.getClass() == f2.getClass()).isFalse();
+        assertThat(f1.apply(0)).isEqualTo(1);
+        assertThat(f2.apply(0)).isEqualTo(2);
+    }
+
+    @Test
+    public void specializedInstanceTriesAlternativesTest()
+    {
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw new IOException();
+            }).orTryWith(i -> i * 2).specialized();
+
+        assertThat(f.apply(2)).isEqualTo(4);
+    }
+
+    @Test
+    public void specializedInstanceWrapsCheckedExceptionsTest()
+    {
+        final IOException exception = new IOException();
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw exception;
+            }).specialized();
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException e) {
+            assertThat(e.getCause()).isSameAs(exception);
+        }
+    }
+
+    @Test
+    public void specializedInstanceRethrowsUncheckedExceptionsTest()
+    {
+        final IllegalStateException exception = new IllegalStateException();
+
+        final Function<Integer, Integer> f = Throwing.function(
+            (ThrowingFunction<Integer, Integer>) i -> {
+                throw exception;
+            }).specialized();
+
+        try {
+            f.apply(0);
+            shouldHaveThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertThat(e).isSameAs(exception);
+        }
+    }
+}
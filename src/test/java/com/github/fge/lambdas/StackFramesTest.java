@@ -0,0 +1,39 @@
+package com.github.fge.lambdas;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class StackFramesTest
+{
+    @Test
+    public void callerOfClassIsFoundTest()
+    {
+        final StackTraceElement caller = Facade.outer();
+
+        assertThat(caller).isNotNull();
+        assertThat(caller.getClassName())
+            .isEqualTo(StackFramesTest.class.getName());
+        assertThat(caller.getMethodName())
+            .isEqualTo("callerOfClassIsFoundTest");
+    }
+
+    @Test
+    public void classNotInStackTest()
+    {
+        assertThat(StackFrames.callerOf(Facade.class.getName())).isNull();
+    }
+
+    private static final class Facade
+    {
+        private static StackTraceElement outer()
+        {
+            return inner();
+        }
+
+        private static StackTraceElement inner()
+        {
+            return StackFrames.callerOf(Facade.class.getName());
+        }
+    }
+}
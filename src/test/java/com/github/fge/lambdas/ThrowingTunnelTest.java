@@ -0,0 +1,80 @@
+package com.github.fge.lambdas;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.fge.lambdas.helpers.CustomAssertions.shouldHaveThrown;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ThrowingTunnelTest
+{
+    private static final List<String> INPUT = Arrays.asList("a", "b", "c");
+    private static final IOException EXCEPTION = new IOException();
+
+    private static String check(final String s)
+        throws IOException
+    {
+        if ("b".equals(s))
+            throw EXCEPTION;
+        return s.toUpperCase();
+    }
+
+    @Test
+    public void tunnelReturnsResultTest()
+        throws IOException
+    {
+        final List<String> list = Throwing.tunnel(IOException.class,
+            () -> INPUT.stream()
+                .map(Throwing.function((String s) -> s.toUpperCase())
+                    .sneakyThrow())
+                .collect(Collectors.toList()));
+
+        assertThat(list).containsExactly("A", "B", "C");
+    }
+
+    @Test
+    public void tunnelRethrowsSneakyExceptionTest()
+    {
+        try {
+            Throwing.tunnel(IOException.class, () -> INPUT.stream()
+                .map(Throwing.function(ThrowingTunnelTest::check)
+                    .sneakyThrow())
+                .collect(Collectors.toList()));
+            shouldHaveThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(e).isSameAs(EXCEPTION);
+        }
+    }
+
+    @Test
+    public void tunnelUnwrapsThrownByLambdaExceptionTest()
+    {
+        try {
+            Throwing.tunnel(IOException.class, () -> INPUT.forEach(
+                Throwing.consumer(ThrowingTunnelTest::check)));
+            shouldHaveThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(e).isSameAs(EXCEPTION);
+        }
+    }
+
+    @Test
+    public void tunnelLetsOtherExceptionsThroughTest()
+        throws IOException
+    {
+        final Exception e = new Exception();
+
+        try {
+            Throwing.tunnel(IOException.class, () -> {
+                throw new ThrownByLambdaException(e);
+            });
+            shouldHaveThrown(ThrownByLambdaException.class);
+        } catch (ThrownByLambdaException thrown) {
+            assertThat(thrown.getCause()).isSameAs(e);
+        }
+    }
+}
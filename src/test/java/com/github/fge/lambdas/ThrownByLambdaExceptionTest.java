@@ -0,0 +1,38 @@
+package com.github.fge.lambdas;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ThrownByLambdaExceptionTest
+{
+    private final Throwable cause = new Exception("foo");
+
+    @AfterMethod
+    public void resetPolicy()
+    {
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.FULL);
+    }
+
+    @Test
+    public void fullPolicyFillsInStackTrace()
+    {
+        final ThrownByLambdaException e = new ThrownByLambdaException(cause);
+
+        assertThat(e.getCause()).isSameAs(cause);
+        assertThat(e.getMessage()).isEqualTo(cause.toString());
+        assertThat(e.getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    public void nonePolicyDoesNotFillInStackTrace()
+    {
+        ThrownByLambdaException.setStackTracePolicy(StackTracePolicy.NONE);
+
+        final ThrownByLambdaException e = new ThrownByLambdaException(cause);
+
+        assertThat(e.getCause()).isSameAs(cause);
+        assertThat(e.getStackTrace()).isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.fge.lambdas.helpers;
+
+import com.github.fge.lambdas.FailureListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * Installed for FailureListenerTest only, see META-INF/services in
+ * src/listenerTest/resources
+ */
+public final class RecordingFailureListener
+    implements FailureListener
+{
+    private static final Queue<Object[]> FAILURES
+        = new ConcurrentLinkedQueue<>();
+
+    public static void clear()
+    {
+        FAILURES.clear();
+    }
+
+    public static List<Object> sourcesOf(final Throwable throwable)
+    {
+        return extract(throwable, 1);
+    }
+
+    public static List<Object> outcomesOf(final Throwable throwable)
+    {
+        return extract(throwable, 2);
+    }
+
+    private static List<Object> extract(final Throwable throwable,
+        final int index)
+    {
+        final List<Object> list = new ArrayList<>();
+        for (final Object[] failure: FAILURES)
+            if (failure[0] == throwable)
+                list.add(failure[index]);
+        return list;
+    }
+
+    @Override
+    public void onFailure(final Throwable throwable, final Class<?> source,
+        final String outcome)
+    {
+        FAILURES.add(new Object[] { throwable, source, outcome });
+    }
+}